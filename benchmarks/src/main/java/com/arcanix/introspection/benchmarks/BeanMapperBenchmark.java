@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.BeanMapper;
+import com.arcanix.introspection.BeanUtils;
+
+/**
+ * Copies flat and nested properties between two orders with a compiled {@link BeanMapper},
+ * against reading and writing each path through {@link BeanUtils} with string values.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanMapperBenchmark {
+
+	private static final String[] PATHS = { "reference", "quantity", "customer.name", "customer.address.city" };
+	
+	private final Converters converters = Converters.getDefaultConverters();
+	private final BeanUtils beanUtils = new BeanUtils(this.converters);
+	private BeanMapper<Order, Order> beanMapper;
+	private Order source;
+	
+	@Setup
+	public void setup() throws ConversionException {
+		Map<String, String> pathMapping = new LinkedHashMap<>();
+		for (String path : PATHS) {
+			pathMapping.put(path, path);
+		}
+		this.beanMapper = BeanMapper.compile(Order.class, Order.class, pathMapping);
+		
+		this.source = new Order();
+		this.beanUtils.setNestedProperty(this.source, "reference", "ORD-1");
+		this.beanUtils.setNestedProperty(this.source, "quantity", "3");
+		this.beanUtils.setNestedProperty(this.source, "customer.name", "John Smith");
+		this.beanUtils.setNestedProperty(this.source, "customer.address.city", "Montreal");
+	}
+	
+	@Benchmark
+	public Order beanMapper() throws ConversionException {
+		return this.beanMapper.map(this.source, this.converters);
+	}
+	
+	@Benchmark
+	public Order stringRoundTrip() throws ConversionException {
+		Order target = new Order();
+		for (String path : PATHS) {
+			this.beanUtils.setNestedProperty(target, path, String.valueOf(this.beanUtils.getNestedProperty(this.source, path)));
+		}
+		return target;
+	}
+	
+}
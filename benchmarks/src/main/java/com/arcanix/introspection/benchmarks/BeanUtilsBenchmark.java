@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.introspection.BeanUtils;
+
+/**
+ * Measures {@link BeanUtils#setNestedProperty(Object, String, String)} on flat and deep
+ * expressions, both on an existing bean graph and on a new bean whose intermediates have
+ * to be instantiated.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanUtilsBenchmark {
+
+	@Param({
+		"reference",
+		"quantity",
+		"customer.name",
+		"customer.address.city"
+	})
+	public String expression;
+	
+	private final BeanUtils beanUtils = new BeanUtils();
+	private final Order order = new Order();
+	
+	@Benchmark
+	public Order existingBean() throws ConversionException {
+		this.beanUtils.setNestedProperty(this.order, this.expression, "42");
+		return this.order;
+	}
+	
+	@Benchmark
+	public Order newBean() throws ConversionException {
+		Order newOrder = new Order();
+		this.beanUtils.setNestedProperty(newOrder, this.expression, "42");
+		return newOrder;
+	}
+	
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.introspection.BeanUtils;
+
+/**
+ * Records bound per second by {@link BeanUtils#bindAll(Class, List)} compared with a
+ * sequential loop. Run with {@code -jvmArgs -XX:ActiveProcessorCount=N} to measure scaling.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindAllBenchmark {
+
+	private static final int RECORDS = 100000;
+	
+	private final BeanUtils beanUtils = new BeanUtils();
+	private List<Map<String, String>> records;
+	
+	@Setup
+	public void setup() {
+		this.records = new ArrayList<>(RECORDS);
+		for (int i = 0; i < RECORDS; i++) {
+			Map<String, String> record = new HashMap<>();
+			record.put("reference", "ORD-" + i);
+			record.put("quantity", String.valueOf(i % 100));
+			record.put("customer.name", "John Smith");
+			record.put("customer.address.city", "Montreal");
+			this.records.add(record);
+		}
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public List<Order> sequential() throws ConversionException {
+		List<Order> orders = new ArrayList<>(RECORDS);
+		for (Map<String, String> record : this.records) {
+			Order order = new Order();
+			this.beanUtils.setNestedProperties(order, record);
+			orders.add(order);
+		}
+		return orders;
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(RECORDS)
+	public List<Order> parallel() throws ConversionException {
+		return this.beanUtils.bindAll(Order.class, this.records);
+	}
+	
+}
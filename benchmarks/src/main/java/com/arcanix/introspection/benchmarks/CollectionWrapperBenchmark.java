@@ -0,0 +1,151 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.PropertyResolver;
+import com.arcanix.introspection.wrapper.ArrayWrapper;
+import com.arcanix.introspection.wrapper.ListWrapper;
+import com.arcanix.introspection.wrapper.MapWrapper;
+import com.arcanix.introspection.wrapper.PropertyWrapper;
+import com.arcanix.introspection.wrapper.SetWrapper;
+
+/**
+ * Fills a new list, set, map and {@code double} array with {@code size} pre-resolved element writes per invocation,
+ * isolating the wrappers from expression parsing. List writes are bound both in ascending and
+ * in descending index order. Maps are filled both unsized and presized for {@code size} elements,
+ * as batch binding does.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionWrapperBenchmark {
+
+	public List<Integer> list;
+	public Set<Integer> set;
+	public Map<String, Integer> map;
+	public double[] array;
+	
+	@Param({ "10", "1000" })
+	public int size;
+	
+	private Converters converters;
+	private PropertyWrapper listWrapper;
+	private PropertyWrapper setWrapper;
+	private PropertyWrapper mapWrapper;
+	private ArrayWrapper arrayWrapper;
+	
+	private Property[] indexedProperties;
+	private Property[] mappedProperties;
+	
+	@Setup
+	public void setup() throws NoSuchFieldException {
+		this.converters = Converters.getDefaultConverters();
+		this.listWrapper = new ListWrapper(CollectionWrapperBenchmark.class.getField("list").getGenericType());
+		this.setWrapper = new SetWrapper(CollectionWrapperBenchmark.class.getField("set").getGenericType());
+		this.mapWrapper = new MapWrapper(CollectionWrapperBenchmark.class.getField("map").getGenericType());
+		this.arrayWrapper = new ArrayWrapper(CollectionWrapperBenchmark.class.getField("array").getGenericType());
+		
+		PropertyResolver resolver = new PropertyResolver();
+		this.indexedProperties = new Property[this.size];
+		this.mappedProperties = new Property[this.size];
+		for (int i = 0; i < this.size; i++) {
+			String value = String.valueOf(i);
+			this.indexedProperties[i] = resolver.resolve("values[" + i + "]", value).getNextProperty();
+			this.mappedProperties[i] = resolver.resolve("values(key" + i + ")", value).getNextProperty();
+		}
+	}
+	
+	@Benchmark
+	public Object listAscending() throws ConversionException {
+		Object list = this.listWrapper.newInstance();
+		for (int i = 0; i < this.size; i++) {
+			this.listWrapper.setProperty(list, this.indexedProperties[i], this.converters);
+		}
+		return list;
+	}
+	
+	@Benchmark
+	public Object listDescending() throws ConversionException {
+		Object list = this.listWrapper.newInstance();
+		for (int i = this.size - 1; i >= 0; i--) {
+			this.listWrapper.setProperty(list, this.indexedProperties[i], this.converters);
+		}
+		return list;
+	}
+	
+	@Benchmark
+	public Object set() throws ConversionException {
+		Object set = this.setWrapper.newInstance();
+		for (int i = 0; i < this.size; i++) {
+			this.setWrapper.setProperty(set, this.mappedProperties[i], this.converters);
+		}
+		return set;
+	}
+	
+	@Benchmark
+	public Object map() throws ConversionException {
+		Object map = this.mapWrapper.newInstance();
+		for (int i = 0; i < this.size; i++) {
+			this.mapWrapper.setProperty(map, this.mappedProperties[i], this.converters);
+		}
+		return map;
+	}
+	
+	@Benchmark
+	public Object presizedMap() throws ConversionException {
+		Object map = this.mapWrapper.newInstance(this.size);
+		for (int i = 0; i < this.size; i++) {
+			this.mapWrapper.setProperty(map, this.mappedProperties[i], this.converters);
+		}
+		return map;
+	}
+	
+	@Benchmark
+	public Object array() throws ConversionException {
+		// sized once, as the owner of the array does for a batch
+		Object array = this.arrayWrapper.ensureLength(this.arrayWrapper.newInstance(), this.size, true);
+		for (int i = 0; i < this.size; i++) {
+			this.arrayWrapper.setProperty(array, this.indexedProperties[i], this.converters);
+		}
+		return array;
+	}
+	
+}
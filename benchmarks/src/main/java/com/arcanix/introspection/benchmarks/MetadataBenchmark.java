@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.BeanUtils;
+import com.arcanix.introspection.PropertyPathCache;
+
+/**
+ * Compares a deep write against cold and warm metadata. Introspection results are cached per
+ * class for the lifetime of the class, so the cold case is a single shot in a fresh JVM per fork,
+ * which also includes class loading and interpretation. The path cache case keeps class metadata
+ * warm but parses the expression again on every invocation.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MetadataBenchmark {
+
+	private static final String EXPRESSION = "customer.address.city";
+	
+	private final Converters converters = Converters.getDefaultConverters();
+	private final BeanUtils beanUtils = new BeanUtils(this.converters);
+	
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 0)
+	@Measurement(iterations = 1)
+	@Fork(20)
+	public Order cold() throws ConversionException {
+		Order order = new Order();
+		this.beanUtils.setNestedProperty(order, EXPRESSION, "Montreal");
+		return order;
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@Warmup(iterations = 5, time = 1)
+	@Measurement(iterations = 5, time = 1)
+	@Fork(1)
+	public Order coldPathCache() throws ConversionException {
+		Order order = new Order();
+		BeanUtils uncachedBeanUtils = new BeanUtils(this.converters, new PropertyPathCache(1));
+		uncachedBeanUtils.setNestedProperty(order, EXPRESSION, "Montreal");
+		return order;
+	}
+	
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@Warmup(iterations = 5, time = 1)
+	@Measurement(iterations = 5, time = 1)
+	@Fork(1)
+	public Order warm() throws ConversionException {
+		Order order = new Order();
+		this.beanUtils.setNestedProperty(order, EXPRESSION, "Montreal");
+		return order;
+	}
+	
+}
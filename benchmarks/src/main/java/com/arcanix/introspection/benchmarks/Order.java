@@ -0,0 +1,90 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.benchmarks;
+
+/**
+ * Bean graph shared by the benchmarks: a flat order referencing a customer and its address.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class Order {
+
+	private String reference;
+	private int quantity;
+	private Customer customer;
+	
+	public String getReference() {
+		return this.reference;
+	}
+	
+	public void setReference(final String reference) {
+		this.reference = reference;
+	}
+	
+	public int getQuantity() {
+		return this.quantity;
+	}
+	
+	public void setQuantity(final int quantity) {
+		this.quantity = quantity;
+	}
+	
+	public Customer getCustomer() {
+		return this.customer;
+	}
+	
+	public void setCustomer(final Customer customer) {
+		this.customer = customer;
+	}
+	
+	public static class Customer {
+		
+		private String name;
+		private Address address;
+		
+		public String getName() {
+			return this.name;
+		}
+		
+		public void setName(final String name) {
+			this.name = name;
+		}
+		
+		public Address getAddress() {
+			return this.address;
+		}
+		
+		public void setAddress(final Address address) {
+			this.address = address;
+		}
+		
+	}
+	
+	public static class Address {
+		
+		private String city;
+		
+		public String getCity() {
+			return this.city;
+		}
+		
+		public void setCity(final String city) {
+			this.city = city;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.PropertyResolver;
+
+/**
+ * Compares the single-pass scanner with the former regex based resolver.
+ * Run with {@code -prof gc} to compare allocation rates.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyResolverBenchmark {
+
+	@Param({
+		"message",
+		"customer.address.city",
+		"customer.addresses[0].city",
+		"orders[12].lines[3](sku).quantity"
+	})
+	public String expression;
+	
+	private final PropertyResolver resolver = new PropertyResolver();
+	private final RegexPropertyResolver regexResolver = new RegexPropertyResolver();
+	
+	@Benchmark
+	public Property scanner() {
+		return this.resolver.resolve(this.expression, "value");
+	}
+	
+	@Benchmark
+	public Property regex() {
+		return this.regexResolver.resolve(this.expression, "value");
+	}
+	
+}
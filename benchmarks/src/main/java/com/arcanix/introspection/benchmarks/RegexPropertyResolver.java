@@ -13,19 +13,23 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package com.arcanix.introspection;
+package com.arcanix.introspection.benchmarks;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import com.arcanix.introspection.Property;
 import com.arcanix.introspection.Property.PropertyBuilder;
 
 /**
+ * Regex based resolver as it was before the single-pass scanner, kept as a
+ * baseline for {@link PropertyResolverBenchmark}.
+ * 
  * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
  */
-public final class PropertyResolver {
+public final class RegexPropertyResolver {
 	
 	private static final String INDEXED_PROPERTY_PATTERN =
 			"\\" + Property.INDEXED_START + "\\d+" + "\\" + Property.INDEXED_END;
@@ -43,14 +47,14 @@ public final class PropertyResolver {
 		return (property.matches("^(.*)?" + INDEXED_PROPERTY_PATTERN + "$"));
 	}
 	
-	public boolean isMapped(final String property) {
+	private boolean isMapped(final String property) {
 		if (property == null || property.length() == 0) {
 			return false;
 		}
 		return (property.matches("^(.*)" + MAPPED_PROPERTY_PATTERN + "$"));		
 	}
 	
-	public Integer getIndex(final String property) {
+	private Integer getIndex(final String property) {
 		if (isIndexed(property)) {
 			return Integer.valueOf(property.substring(
 					property.indexOf(Property.INDEXED_START) + 1,
@@ -59,7 +63,7 @@ public final class PropertyResolver {
 		return null;		
 	}
 	
-	public String getKey(final String property) {
+	private String getKey(final String property) {
 		if (isMapped(property)) {
 			return property.substring(
 					property.indexOf(Property.MAPPED_START) + 1,
@@ -68,11 +72,7 @@ public final class PropertyResolver {
 		return null;
 	}
 	
-	public String getProperty(final String property) {
-		if (property == null) {
-			return null;
-		}
-		
+	private String getProperty(final String property) {
 		String propertyName = property;
 		propertyName = propertyName.replaceAll(INDEXED_PROPERTY_PATTERN, "");
 		propertyName = propertyName.replaceAll(MAPPED_PROPERTY_PATTERN, "");
@@ -80,21 +80,21 @@ public final class PropertyResolver {
 	}
 	
 	public Property resolve(final String nestedProperty, final String value) {
-		PropertyList properties = new PropertyList();
+		List<PropertyBuilder> properties = new ArrayList<>();
 		
 		for (String token : nestedProperty.split(Property.NESTED_REGEX)) {
 			String name = getProperty(token);
 			properties.add(new PropertyBuilder().setValue(value).setName(name));
-			buildCollectionProperties(properties, token, name, value);
+			for (String collectionToken : getCollectionTokens(token)) {				
+				properties.add(buildPropertyFromCollectionToken(collectionToken, name, value));
+			}
 		}
 		
-		return properties.build();
-	}
-	
-	private void buildCollectionProperties(PropertyList properties, String token, String name, String value) {
-		for (String collectionToken : getCollectionTokens(token)) {				
-			properties.add(buildPropertyFromCollectionToken(collectionToken, name, value));
+		Property next = null;
+		for (int i = properties.size() - 1; i >= 0; i--) {
+			next = properties.get(i).setNextProperty(next).build();
 		}
+		return next;
 	}
 	
 	private List<String> getCollectionTokens(String token) {
@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.RowBinder;
+import com.arcanix.introspection.RowHandler;
+
+/**
+ * Reports the throughput of {@link RowBinder}, in rows per second, from CSV text in memory
+ * to bound beans.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowBinderBenchmark {
+
+	private static final int ROWS = 10000;
+	
+	private final Converters converters = Converters.getDefaultConverters();
+	private String csv;
+	
+	@Setup
+	public void setup() {
+		StringBuilder builder = new StringBuilder("reference,quantity,customer.name,customer.address.city\n");
+		for (int i = 0; i < ROWS; i++) {
+			builder.append("ORD-").append(i).append(',')
+					.append(i % 100).append(',')
+					.append("\"Smith, John ").append(i).append("\",")
+					.append("Montreal\n");
+		}
+		this.csv = builder.toString();
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public long bindCsv(final Blackhole blackhole) throws IOException, ConversionException {
+		return RowBinder.bindCsv(Order.class, new StringReader(this.csv), this.converters, new RowHandler<Order>() {
+			@Override
+			public void handleRow(final Order order) {
+				blackhole.consume(order);
+			}
+		});
+	}
+	
+}
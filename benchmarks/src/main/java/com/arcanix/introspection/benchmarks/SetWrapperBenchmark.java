@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.benchmarks;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.PropertyResolver;
+import com.arcanix.introspection.util.IndexedSet;
+import com.arcanix.introspection.wrapper.SetWrapper;
+
+/**
+ * Compares element lookups through {@link SetWrapper} on a plain {@link HashSet},
+ * which has to scan for the stored instance, and on an {@link IndexedSet}.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetWrapperBenchmark {
+
+	public Set<String> elements;
+	
+	@Param({ "10", "100", "1000", "10000" })
+	public int size;
+	
+	private SetWrapper setWrapper;
+	private Converters converters;
+	private Set<String> hashSet;
+	private Set<String> indexedSet;
+	private Property property;
+	
+	@Setup
+	public void setup() throws NoSuchFieldException {
+		this.setWrapper = new SetWrapper(SetWrapperBenchmark.class.getField("elements").getGenericType());
+		this.converters = Converters.getDefaultConverters();
+		
+		this.hashSet = new HashSet<>();
+		this.indexedSet = new IndexedSet<>();
+		for (int i = 0; i < this.size; i++) {
+			this.hashSet.add("element" + i);
+			this.indexedSet.add("element" + i);
+		}
+		
+		// the last element inserted is typically found late by an iteration
+		this.property = new PropertyResolver().resolve("elements(element" + (this.size - 1) + ")", null).getNextProperty();
+	}
+	
+	@Benchmark
+	public Object hashSet() throws ConversionException {
+		return this.setWrapper.getValue(this.hashSet, this.property, this.converters);
+	}
+	
+	@Benchmark
+	public Object indexedSet() throws ConversionException {
+		return this.setWrapper.getValue(this.indexedSet, this.property, this.converters);
+	}
+	
+}
@@ -15,29 +15,23 @@
  */
 package com.arcanix.introspection;
 
-import java.util.Iterator;
-import java.util.LinkedList;
-
-import com.arcanix.introspection.Property.PropertyBuilder;
-
 /**
+ * How {@link BeanInfoWrapper} accesses the properties of a bean class.
+ * 
  * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
  */
-final class PropertyList {
+public enum AccessStrategy {
 
-	private final LinkedList<PropertyBuilder> properties = new LinkedList<>();
-	
-	public void add(PropertyBuilder propertyBuilder) {
-		this.properties.add(propertyBuilder);
-	}
+	/**
+	 * Through the read and write methods of the bean properties, or through a generated
+	 * {@link BeanAccessor} when one is available.
+	 */
+	PROPERTY,
 	
-	public Property build() {
-		Property next = null;
-		final Iterator<PropertyBuilder> reverseIterator = this.properties.descendingIterator();
-		while (reverseIterator.hasNext()) {
-			next = reverseIterator.next().setNextProperty(next).build();
-		}
-		return next;
-	}
+	/**
+	 * Directly through the instance fields of the class and its superclasses, whatever their
+	 * visibility. Properties are named after the fields.
+	 */
+	FIELD
 	
 }
@@ -0,0 +1,68 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.lang.reflect.Type;
+import java.util.Set;
+
+/**
+ * Reflection-free access to the properties of a bean class. Implementations are
+ * generated at compile time for classes annotated with {@link Bindable} and named
+ * after the binary name of the bean class followed by {@link #SUFFIX}.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public interface BeanAccessor<T> {
+
+	String SUFFIX = "$$BeanAccessor";
+	
+	Class<T> getBeanClass();
+	
+	T newInstance();
+	
+	Set<String> getPropertyNames();
+	
+	Type getPropertyType(String propertyName);
+	
+	boolean isReadable(String propertyName);
+	
+	boolean isWritable(String propertyName);
+	
+	Object getValue(T bean, String propertyName);
+	
+	void setValue(T bean, String propertyName, Object value);
+	
+	/**
+	 * Typed accessors of primitive properties, called without boxing for properties of
+	 * exactly that type only.
+	 */
+	int getInt(T bean, String propertyName);
+	
+	void setInt(T bean, String propertyName, int value);
+	
+	long getLong(T bean, String propertyName);
+	
+	void setLong(T bean, String propertyName, long value);
+	
+	double getDouble(T bean, String propertyName);
+	
+	void setDouble(T bean, String propertyName, double value);
+	
+	boolean getBoolean(T bean, String propertyName);
+	
+	void setBoolean(T bean, String propertyName, boolean value);
+	
+}
@@ -0,0 +1,261 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.arcanix.introspection.metrics.CacheType;
+import com.arcanix.introspection.metrics.Metrics;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class BeanInfoWrapper {
+	
+	/**
+	 * Process-wide metadata, built once per class and shared read-only by all threads.
+	 * Values are attached to the class itself so redeployed class loaders can be collected.
+	 */
+	private static final ClassValue<BeanInfoWrapper> BEAN_INFO_WRAPPERS = new ClassValue<BeanInfoWrapper>() {
+		
+		@Override
+		protected BeanInfoWrapper computeValue(final Class<?> beanClass) {
+			if (!Metrics.isEnabled()) {
+				return createBeanInfoWrapper(beanClass);
+			}
+			Metrics.getMetrics().cacheMiss(CacheType.BEAN_INFO);
+			long start = System.nanoTime();
+			BeanInfoWrapper beanInfoWrapper = createBeanInfoWrapper(beanClass);
+			Metrics.getMetrics().metadataBuilt(beanClass, System.nanoTime() - start);
+			return beanInfoWrapper;
+		}
+		
+	};
+	
+	private static final Object DEFAULT_ACCESS_STRATEGY_LOCK = new Object();
+	
+	private static AccessStrategy defaultAccessStrategy = AccessStrategy.PROPERTY;
+	private static boolean defaultAccessStrategyUsed;
+	
+	private final Class<?> beanClass;
+	private final BeanAccessor<Object> beanAccessor;
+	private final Map<String, PropertyAccessor> propertyAccessors = new HashMap<>();
+	private volatile Map<String, PropertyDescriptor> propertyDescriptors;
+	
+	public BeanInfoWrapper(final BeanInfo beanInfo) {
+		Map<String, PropertyDescriptor> propertyDescriptors = getPropertyDescriptors(beanInfo);
+		for (PropertyDescriptor propertyDescriptor : propertyDescriptors.values()) {
+			this.propertyAccessors.put(
+					propertyDescriptor.getName(),
+					new MethodHandlePropertyAccessor(propertyDescriptor));
+		}
+		this.beanClass = beanInfo.getBeanDescriptor().getBeanClass();
+		this.beanAccessor = null;
+		this.propertyDescriptors = propertyDescriptors;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public BeanInfoWrapper(final BeanAccessor<?> beanAccessor) {
+		this.beanClass = beanAccessor.getBeanClass();
+		this.beanAccessor = (BeanAccessor<Object>) beanAccessor;
+		for (String propertyName : beanAccessor.getPropertyNames()) {
+			this.propertyAccessors.put(propertyName, new GeneratedPropertyAccessor(this.beanAccessor, propertyName));
+		}
+	}
+	
+	private BeanInfoWrapper(final Class<?> beanClass, final Map<String, PropertyAccessor> propertyAccessors) {
+		this.beanClass = beanClass;
+		this.beanAccessor = null;
+		this.propertyAccessors.putAll(propertyAccessors);
+	}
+	
+	public static AccessStrategy getDefaultAccessStrategy() {
+		synchronized (DEFAULT_ACCESS_STRATEGY_LOCK) {
+			return defaultAccessStrategy;
+		}
+	}
+	
+	/**
+	 * Sets the strategy of the classes without an {@link Access} annotation, classes of the
+	 * {@code java.*} packages are always accessed through their properties. Metadata is built
+	 * once per class and shared by every cache, so the default must be set before the first
+	 * class relying on it is used.
+	 * 
+	 * @throws IllegalStateException if a different default was already used
+	 */
+	public static void setDefaultAccessStrategy(final AccessStrategy accessStrategy) {
+		if (accessStrategy == null) {
+			throw new NullPointerException("Access strategy cannot be null");
+		}
+		synchronized (DEFAULT_ACCESS_STRATEGY_LOCK) {
+			if (defaultAccessStrategyUsed && accessStrategy != defaultAccessStrategy) {
+				throw new IllegalStateException("Default access strategy is already used as " + defaultAccessStrategy);
+			}
+			defaultAccessStrategy = accessStrategy;
+		}
+	}
+	
+	public static BeanInfoWrapper getBeanInfoWrapper(final Class<?> beanClass) {
+		if (beanClass == null) {
+			throw new NullPointerException("Bean class cannot be null");
+		}
+		return BEAN_INFO_WRAPPERS.get(beanClass);
+	}
+	
+	public Class<?> getBeanClass() {
+		return this.beanClass;
+	}
+	
+	public boolean hasBeanAccessor() {
+		return this.beanAccessor != null;
+	}
+	
+	public Object newInstance() {
+		if (this.beanAccessor != null && !Instantiators.isRegistered(this.beanClass)) {
+			return this.beanAccessor.newInstance();
+		}
+		return Instantiators.newInstance(this.beanClass);
+	}
+	
+	public boolean hasPropertyDescriptor(final String propertyName) {
+		return getPropertyDescriptors().containsKey(propertyName);
+	}
+	
+	public PropertyDescriptor getPropertyDescriptor(final String propertyName) throws PropertyException {
+		PropertyDescriptor propertyDescriptor = getPropertyDescriptors().get(propertyName);
+		if (propertyDescriptor == null) {
+			throw new PropertyException("Property " + propertyName + " does not exist");
+		}
+		return propertyDescriptor;
+	}
+	
+	public boolean hasPropertyAccessor(final String propertyName) {
+		return this.propertyAccessors.containsKey(propertyName);
+	}
+	
+	public Collection<PropertyAccessor> getPropertyAccessors() {
+		return Collections.unmodifiableCollection(this.propertyAccessors.values());
+	}
+	
+	public PropertyAccessor getPropertyAccessor(final String propertyName) throws PropertyException {
+		PropertyAccessor propertyAccessor = this.propertyAccessors.get(propertyName);
+		if (propertyAccessor == null) {
+			throw new PropertyException("Property " + propertyName + " does not exist");
+		}
+		return propertyAccessor;
+	}
+	
+	private Map<String, PropertyDescriptor> getPropertyDescriptors() {
+		// beans with a generated accessor are only introspected when descriptors are requested
+		Map<String, PropertyDescriptor> propertyDescriptors = this.propertyDescriptors;
+		if (propertyDescriptors == null) {
+			propertyDescriptors = getPropertyDescriptors(introspect(this.beanClass));
+			this.propertyDescriptors = propertyDescriptors;
+		}
+		return propertyDescriptors;
+	}
+	
+	private static Map<String, PropertyDescriptor> getPropertyDescriptors(final BeanInfo beanInfo) {
+		Map<String, PropertyDescriptor> propertyDescriptors = new HashMap<>();
+		for (PropertyDescriptor propertyDescriptor : beanInfo.getPropertyDescriptors()) {
+			propertyDescriptors.put(propertyDescriptor.getName(), propertyDescriptor);
+		}
+		return propertyDescriptors;
+	}
+	
+	private static AccessStrategy getAccessStrategy(final Class<?> beanClass) {
+		Access access = beanClass.getAnnotation(Access.class);
+		if (access != null) {
+			return access.value();
+		}
+		if (beanClass.getName().startsWith("java.")) {
+			return AccessStrategy.PROPERTY;
+		}
+		synchronized (DEFAULT_ACCESS_STRATEGY_LOCK) {
+			defaultAccessStrategyUsed = true;
+			return defaultAccessStrategy;
+		}
+	}
+	
+	private static Map<String, PropertyAccessor> getFieldAccessors(final Class<?> beanClass) {
+		Map<String, PropertyAccessor> propertyAccessors = new HashMap<>();
+		for (Class<?> clazz = beanClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+			for (Field field : clazz.getDeclaredFields()) {
+				// fields of subclasses hide the fields of the same name in superclasses
+				if (Modifier.isStatic(field.getModifiers())
+						|| field.isSynthetic()
+						|| propertyAccessors.containsKey(field.getName())) {
+					continue;
+				}
+				try {
+					field.setAccessible(true);
+				} catch (RuntimeException e) {
+					// fields of closed modules are left out
+					continue;
+				}
+				propertyAccessors.put(field.getName(), new MethodHandlePropertyAccessor(field));
+			}
+		}
+		return propertyAccessors;
+	}
+	
+	private static BeanInfo introspect(final Class<?> beanClass) {
+		try {
+			return Introspector.getBeanInfo(beanClass);
+		} catch (IntrospectionException e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	private static BeanInfoWrapper createBeanInfoWrapper(final Class<?> beanClass) {
+		if (getAccessStrategy(beanClass) == AccessStrategy.FIELD) {
+			return new BeanInfoWrapper(beanClass, getFieldAccessors(beanClass));
+		}
+		BeanAccessor<?> beanAccessor = loadBeanAccessor(beanClass);
+		if (beanAccessor != null) {
+			return new BeanInfoWrapper(beanAccessor);
+		}
+		return new BeanInfoWrapper(introspect(beanClass));
+	}
+	
+	private static BeanAccessor<?> loadBeanAccessor(final Class<?> beanClass) {
+		ClassLoader classLoader = beanClass.getClassLoader();
+		if (classLoader == null || beanClass.isArray() || beanClass.isPrimitive()) {
+			return null;
+		}
+		try {
+			Class<?> accessorClass = Class.forName(beanClass.getName() + BeanAccessor.SUFFIX, true, classLoader);
+			if (!BeanAccessor.class.isAssignableFrom(accessorClass)) {
+				return null;
+			}
+			return (BeanAccessor<?>) accessorClass.newInstance();
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (ReflectiveOperationException e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+}
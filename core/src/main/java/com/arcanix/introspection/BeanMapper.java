@@ -0,0 +1,325 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.metrics.CacheType;
+import com.arcanix.introspection.metrics.Metrics;
+import com.arcanix.introspection.util.ReflectionUtils;
+import com.arcanix.introspection.wrapper.PropertyWrapper;
+import com.arcanix.introspection.wrapper.PropertyWrapperFactory;
+
+/**
+ * Compiled plan copying properties from a source bean to a target bean. Source paths are read
+ * with {@link PropertyReader}, target paths are written through the cached property wrappers,
+ * so nested paths and list, set and map targets are supported. Values are copied as is when the
+ * types are compatible, primitives without boxing, and converted from their string form only
+ * when the types differ. Collections are copied by reference.
+ * 
+ * <p>Null values are written to top level object properties only: they never create target
+ * intermediates and are skipped for primitive properties.</p>
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class BeanMapper<S, T> {
+
+	private static final ClassValue<ConcurrentMap<Class<?>, BeanMapper<?, ?>>> BEAN_MAPPERS =
+			new ClassValue<ConcurrentMap<Class<?>, BeanMapper<?, ?>>>() {
+		
+		@Override
+		protected ConcurrentMap<Class<?>, BeanMapper<?, ?>> computeValue(final Class<?> sourceClass) {
+			return new ConcurrentHashMap<>();
+		}
+		
+	};
+	
+	private final Class<S> sourceClass;
+	private final Class<T> targetClass;
+	private final PropertyWrapper targetWrapper;
+	private final Mapping[] mappings;
+	
+	private BeanMapper(final Class<S> sourceClass, final Class<T> targetClass, final Map<String, String> pathMapping) {
+		this.sourceClass = sourceClass;
+		this.targetClass = targetClass;
+		this.targetWrapper = PropertyWrapperFactory.getPropertyWrapper(targetClass);
+		
+		PropertyResolver resolver = new PropertyResolver();
+		this.mappings = new Mapping[pathMapping.size()];
+		int i = 0;
+		for (Map.Entry<String, String> entry : pathMapping.entrySet()) {
+			this.mappings[i++] = compileMapping(resolver.compile(entry.getKey()), resolver.compile(entry.getValue()));
+		}
+	}
+	
+	/**
+	 * @return the cached plan copying the properties of the source class to the writable
+	 *         properties of the same name in the target class
+	 */
+	@SuppressWarnings("unchecked")
+	public static <S, T> BeanMapper<S, T> getBeanMapper(final Class<S> sourceClass, final Class<T> targetClass) {
+		ConcurrentMap<Class<?>, BeanMapper<?, ?>> beanMappers = BEAN_MAPPERS.get(sourceClass);
+		BeanMapper<?, ?> beanMapper = beanMappers.get(targetClass);
+		if (beanMapper == null) {
+			Metrics.getMetrics().cacheMiss(CacheType.BEAN_MAPPER);
+			beanMapper = compile(sourceClass, targetClass, getDefaultMapping(sourceClass, targetClass));
+			BeanMapper<?, ?> existing = beanMappers.putIfAbsent(targetClass, beanMapper);
+			if (existing != null) {
+				beanMapper = existing;
+			}
+		} else {
+			Metrics.getMetrics().cacheHit(CacheType.BEAN_MAPPER);
+		}
+		return (BeanMapper<S, T>) beanMapper;
+	}
+	
+	/**
+	 * Compiles a plan copying each source path to its target path. Plans are immutable and meant
+	 * to be kept and shared by the caller.
+	 * 
+	 * @param pathMapping target expressions by source expression, copied in iteration order
+	 */
+	public static <S, T> BeanMapper<S, T> compile(
+			final Class<S> sourceClass,
+			final Class<T> targetClass,
+			final Map<String, String> pathMapping) {
+		
+		if (sourceClass == null) {
+			throw new NullPointerException("Source class cannot be null");
+		}
+		if (targetClass == null) {
+			throw new NullPointerException("Target class cannot be null");
+		}
+		if (pathMapping == null) {
+			throw new NullPointerException("Path mapping cannot be null");
+		}
+		return new BeanMapper<>(sourceClass, targetClass, pathMapping);
+	}
+	
+	public Class<S> getSourceClass() {
+		return this.sourceClass;
+	}
+	
+	public Class<T> getTargetClass() {
+		return this.targetClass;
+	}
+	
+	public void copy(final S source, final T target, final Converters converters) throws ConversionException {
+		if (source == null) {
+			throw new NullPointerException("Source cannot be null");
+		}
+		if (target == null) {
+			throw new NullPointerException("Target cannot be null");
+		}
+		for (Mapping mapping : this.mappings) {
+			mapping.copy(source, target, converters);
+		}
+	}
+	
+	public T map(final S source, final Converters converters) throws ConversionException {
+		T target = this.targetClass.cast(this.targetWrapper.newInstance());
+		copy(source, target, converters);
+		return target;
+	}
+	
+	private static Map<String, String> getDefaultMapping(final Class<?> sourceClass, final Class<?> targetClass) {
+		BeanInfoWrapper sourceInfo = BeanInfoWrapper.getBeanInfoWrapper(sourceClass);
+		BeanInfoWrapper targetInfo = BeanInfoWrapper.getBeanInfoWrapper(targetClass);
+		
+		Map<String, String> pathMapping = new LinkedHashMap<>();
+		for (PropertyAccessor sourceAccessor : sourceInfo.getPropertyAccessors()) {
+			String name = sourceAccessor.getName();
+			if (!sourceAccessor.isReadable() || !targetInfo.hasPropertyAccessor(name)) {
+				continue;
+			}
+			PropertyAccessor targetAccessor = targetInfo.getPropertyAccessor(name);
+			if (!targetAccessor.isWritable()) {
+				continue;
+			}
+			// beans and collections of different types have no string form to convert through
+			Class<?> sourceType = sourceAccessor.getPropertyClass();
+			Class<?> targetType = targetAccessor.getPropertyClass();
+			if (isAssignable(sourceType, targetType) || (isSimple(sourceType) && isSimple(targetType))) {
+				pathMapping.put(name, name);
+			}
+		}
+		return pathMapping;
+	}
+	
+	private Mapping compileMapping(final PropertyPath sourcePath, final PropertyPath targetPath) {
+		PropertyReader reader = PropertyReader.compile(this.sourceClass, sourcePath);
+		
+		List<PropertyWrapper> wrappers = new ArrayList<>();
+		List<Property> properties = new ArrayList<>();
+		PropertyWrapper wrapper = this.targetWrapper;
+		for (Property property = targetPath.getProperty(); property != null; property = property.getNextProperty()) {
+			wrappers.add(wrapper);
+			properties.add(property);
+			if (property.getNextProperty() != null) {
+				wrapper = wrapper.getPropertyWrapper(property);
+			}
+		}
+		Property leaf = properties.get(properties.size() - 1);
+		Class<?> sourceType = ReflectionUtils.getClass(reader.getPropertyType());
+		Class<?> targetType = ReflectionUtils.getClass(wrapper.getPropertyType(leaf));
+		
+		TargetPath target = new TargetPath(
+				wrappers.toArray(new PropertyWrapper[wrappers.size()]),
+				properties.toArray(new Property[properties.size()]));
+		
+		// a direct primitive copy needs both ends at the top level, where no intermediate can be missing
+		if (sourceType.isPrimitive() && sourceType == targetType
+				&& sourcePath.getProperty().getNextProperty() == null
+				&& properties.size() == 1) {
+			
+			PropertyAccessor accessor = BeanInfoWrapper.getBeanInfoWrapper(this.targetClass).getPropertyAccessor(leaf.getName());
+			return new PrimitiveMapping(reader, accessor, sourceType);
+		}
+		return new ObjectMapping(reader, target, sourceType, targetType);
+	}
+	
+	private static boolean isAssignable(final Class<?> sourceType, final Class<?> targetType) {
+		return ReflectionUtils.getBoxedClass(targetType).isAssignableFrom(ReflectionUtils.getBoxedClass(sourceType));
+	}
+	
+	private static boolean isSimple(final Class<?> type) {
+		Class<?> boxedType = ReflectionUtils.getBoxedClass(type);
+		return boxedType == String.class
+				|| boxedType == Boolean.class
+				|| boxedType == Character.class
+				|| Number.class.isAssignableFrom(boxedType)
+				|| boxedType.isEnum();
+	}
+	
+	private abstract static class Mapping {
+		
+		public abstract void copy(Object source, Object target, Converters converters) throws ConversionException;
+		
+	}
+	
+	private static final class PrimitiveMapping extends Mapping {
+		
+		private final PropertyReader reader;
+		private final PropertyAccessor accessor;
+		private final Class<?> type;
+		
+		public PrimitiveMapping(final PropertyReader reader, final PropertyAccessor accessor, final Class<?> type) {
+			this.reader = reader;
+			this.accessor = accessor;
+			this.type = type;
+		}
+		
+		@Override
+		public void copy(final Object source, final Object target, final Converters converters) throws ConversionException {
+			if (this.type == int.class) {
+				this.accessor.setInt(target, this.reader.getInt(source, converters));
+			} else if (this.type == long.class) {
+				this.accessor.setLong(target, this.reader.getLong(source, converters));
+			} else if (this.type == double.class) {
+				this.accessor.setDouble(target, this.reader.getDouble(source, converters));
+			} else if (this.type == boolean.class) {
+				this.accessor.setBoolean(target, this.reader.getBoolean(source, converters));
+			} else {
+				this.accessor.setValue(target, this.reader.getValue(source, converters));
+			}
+		}
+		
+	}
+	
+	private static final class ObjectMapping extends Mapping {
+		
+		private final PropertyReader reader;
+		private final TargetPath target;
+		private final Class<?> targetType;
+		private final boolean assignable;
+		
+		public ObjectMapping(
+				final PropertyReader reader,
+				final TargetPath target,
+				final Class<?> sourceType,
+				final Class<?> targetType) {
+			
+			this.reader = reader;
+			this.target = target;
+			this.targetType = targetType;
+			this.assignable = isAssignable(sourceType, targetType);
+		}
+		
+		@Override
+		public void copy(final Object source, final Object target, final Converters converters) throws ConversionException {
+			Object value = this.reader.getValue(source, converters);
+			if (value == null) {
+				if (!this.target.isNested() && !this.targetType.isPrimitive()) {
+					this.target.setValue(target, null, converters);
+				}
+				return;
+			}
+			if (!this.assignable && !this.targetType.isInstance(value)) {
+				if (this.targetType == String.class) {
+					value = value.toString();
+				} else {
+					value = ValueConverter.getValueConverter(this.targetType, converters).convert(value.toString());
+				}
+			}
+			this.target.setValue(target, value, converters);
+		}
+		
+	}
+	
+	/**
+	 * Target property chain, with the wrapper of each hop resolved once. Missing intermediates
+	 * are created by their owner, as for the nested writes of {@link BeanUtils}.
+	 */
+	private static final class TargetPath {
+		
+		private final PropertyWrapper[] wrappers;
+		private final Property[] properties;
+		private final int[] requiredLengths;
+		
+		public TargetPath(final PropertyWrapper[] wrappers, final Property[] properties) {
+			this.wrappers = wrappers;
+			this.properties = properties;
+			// intermediates followed by an index must reach it when they are arrays
+			this.requiredLengths = new int[properties.length];
+			for (int i = 0; i < properties.length - 1; i++) {
+				Property nextProperty = properties[i + 1];
+				this.requiredLengths[i] = nextProperty.isIndexed() ? nextProperty.getIndex().intValue() + 1 : 0;
+			}
+		}
+		
+		public boolean isNested() {
+			return this.properties.length > 1;
+		}
+		
+		public void setValue(final Object bean, final Object value, final Converters converters) throws ConversionException {
+			int last = this.properties.length - 1;
+			Object target = bean;
+			for (int i = 0; i < last; i++) {
+				target = this.wrappers[i].getOrCreateValue(target, this.properties[i], converters, 0, this.requiredLengths[i]);
+			}
+			this.wrappers[last].setLocalProperty(target, this.properties[last], value, converters);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,503 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.metrics.Metrics;
+import com.arcanix.introspection.wrapper.PropertyWrapper;
+import com.arcanix.introspection.wrapper.PropertyWrapperFactory;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class BeanUtils {
+
+	private static final int TASKS_PER_THREAD = 4;
+	private static final int STREAM_BATCH_SIZE = 256;
+	
+	private final Converters converters;
+	private final PropertyPathCache pathCache;
+	private final ExecutorService executor;
+	
+	public BeanUtils() {
+		this(Converters.getDefaultConverters());
+	}
+	
+	public BeanUtils(final Converters converters) {
+		this(converters, PropertyPathCache.getDefaultCache());
+	}
+	
+	public BeanUtils(final Converters converters, final PropertyPathCache pathCache) {
+		this(converters, pathCache, null);
+	}
+	
+	/**
+	 * @param executor the executor of {@link #bindAll(Class, List)}, {@code null} for the shared pool
+	 */
+	public BeanUtils(final Converters converters, final PropertyPathCache pathCache, final ExecutorService executor) {
+		if (pathCache == null) {
+			throw new NullPointerException("Path cache cannot be null");
+		}
+		this.converters = converters;
+		this.pathCache = pathCache;
+		this.executor = executor;
+	}
+	
+	public void setNestedProperty(final Object bean, final Property property) throws ConversionException {
+		PropertyWrapperFactory.getPropertyWrapper(bean.getClass()).setProperty(bean, property, this.converters);
+	}
+	
+	public void setNestedProperty(
+			final Object bean,
+			final String nestedProperty, 
+			final String value) throws ConversionException {
+		
+		PropertyPath propertyPath = this.pathCache.getPropertyPath(nestedProperty);
+		if (!Metrics.isEnabled()) {
+			setNestedProperty(bean, propertyPath.bind(value));
+		} else {
+			writeTimed(bean, propertyPath, propertyPath.bind(value), null);
+		}
+	}
+	
+	public void setNestedProperties(final Object bean, final PropertyTree propertyTree) throws ConversionException {
+		if (!Metrics.isEnabled()) {
+			PropertyWrapperFactory.getPropertyWrapper(bean.getClass()).setProperties(bean, propertyTree, this.converters);
+		} else {
+			writeTimed(bean, null, null, propertyTree);
+		}
+	}
+	
+	public void setNestedProperties(final Object bean, final Map<String, String> nestedProperties) throws ConversionException {
+		PropertyTree propertyTree = new PropertyTree();
+		for (Map.Entry<String, String> nestedProperty : nestedProperties.entrySet()) {
+			propertyTree.add(this.pathCache.getPropertyPath(nestedProperty.getKey()), nestedProperty.getValue());
+		}
+		setNestedProperties(bean, propertyTree);
+	}
+	
+	/**
+	 * Emits each leaf value of the bean graph with its nested property expression.
+	 * 
+	 * @see PropertyFlattener
+	 */
+	public void flatten(final Object bean, final PropertyVisitor visitor) {
+		PropertyFlattener.flatten(bean, visitor);
+	}
+	
+	/**
+	 * Copies the readable properties of the source to the writable properties of the same
+	 * name in the target, through a plan compiled once per pair of classes.
+	 * 
+	 * @see BeanMapper
+	 */
+	@SuppressWarnings("unchecked")
+	public void copyProperties(final Object source, final Object target) throws ConversionException {
+		BeanMapper<Object, Object> beanMapper = (BeanMapper<Object, Object>) BeanMapper.getBeanMapper(
+				source.getClass(), target.getClass());
+		beanMapper.copy(source, target, this.converters);
+	}
+	
+	/**
+	 * Binds each record to a new bean in parallel, on the executor given to the constructor or
+	 * else on a fork/join pool shared by the whole class loader. The shared pool is created on
+	 * first use with one worker per available processor; its workers are daemon threads that
+	 * exit when idle, and it is never shut down. Applications that need to size or shut down
+	 * the workers give their own executor.
+	 * 
+	 * @see #bindAll(Class, List, ExecutorService)
+	 */
+	public <T> List<T> bindAll(
+			final Class<T> beanClass,
+			final List<? extends Map<String, String>> records) throws ConversionException {
+		
+		return bindAll(beanClass, records, this.executor != null ? this.executor : DefaultPool.POOL);
+	}
+	
+	/**
+	 * Binds each record to a new bean in parallel on the given executor, split in range tasks
+	 * when it is a {@link ForkJoinPool}, in contiguous batches otherwise. Workers share the
+	 * path cache and the class metadata, records are bound independently of each other.
+	 * 
+	 * @return the bound beans, in the order of the records
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> bindAll(
+			final Class<T> beanClass,
+			final List<? extends Map<String, String>> records,
+			final ExecutorService executor) throws ConversionException {
+		
+		if (beanClass == null) {
+			throw new NullPointerException("Bean class cannot be null");
+		}
+		if (records == null) {
+			throw new NullPointerException("Records cannot be null");
+		}
+		if (executor == null) {
+			throw new NullPointerException("Executor cannot be null");
+		}
+		
+		Object[] beans = new Object[records.size()];
+		BindContext context = new BindContext(PropertyWrapperFactory.getPropertyWrapper(beanClass), records, beans);
+		if (executor instanceof ForkJoinPool) {
+			ForkJoinPool pool = (ForkJoinPool) executor;
+			int batchSize = Math.max(1, records.size() / (pool.getParallelism() * TASKS_PER_THREAD));
+			pool.invoke(new BindTask(context, 0, records.size(), batchSize));
+		} else {
+			int batchSize = Math.max(1, records.size() / (Runtime.getRuntime().availableProcessors() * TASKS_PER_THREAD));
+			List<Future<?>> futures = new ArrayList<>();
+			for (int from = 0; from < records.size(); from += batchSize) {
+				futures.add(executor.submit(new BindBatch(context, from, Math.min(from + batchSize, records.size()))));
+			}
+			for (Future<?> future : futures) {
+				await(future);
+			}
+		}
+		context.rethrowFailure();
+		return (List<T>) Arrays.asList(beans);
+	}
+	
+	/**
+	 * Streaming form of {@link #bindAll(Class, List, ExecutorService)}: records are read in batches
+	 * and handed to the row handler from the worker threads as soon as they are bound, so the
+	 * handler must be thread safe and cannot rely on the order of the records. The number of
+	 * batches in flight is bounded, memory does not grow with the number of records.
+	 * <p>
+	 * Beans are handed over per batch, once all the records of the batch are bound. When a record
+	 * fails, its batch hands over none of its beans and no further batch is read; the batches
+	 * already submitted still hand over theirs, then the first failure is thrown. Records read
+	 * before the failure are thus either all handled or all skipped, batch by batch.
+	 * 
+	 * @return the number of records bound
+	 */
+	public <T> long bindAll(
+			final Class<T> beanClass,
+			final Iterator<? extends Map<String, String>> records,
+			final RowHandler<? super T> rowHandler,
+			final ExecutorService executor) throws ConversionException {
+		
+		if (beanClass == null) {
+			throw new NullPointerException("Bean class cannot be null");
+		}
+		if (records == null) {
+			throw new NullPointerException("Records cannot be null");
+		}
+		if (rowHandler == null) {
+			throw new NullPointerException("Row handler cannot be null");
+		}
+		if (executor == null) {
+			throw new NullPointerException("Executor cannot be null");
+		}
+		
+		PropertyWrapper beanWrapper = PropertyWrapperFactory.getPropertyWrapper(beanClass);
+		AtomicReference<ConversionException> failure = new AtomicReference<>();
+		int maximumInFlight = Runtime.getRuntime().availableProcessors() * 2;
+		Deque<Future<?>> futures = new ArrayDeque<>();
+		long count = 0;
+		
+		while (records.hasNext() && failure.get() == null) {
+			List<Map<String, String>> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+			while (batch.size() < STREAM_BATCH_SIZE && records.hasNext()) {
+				batch.add(records.next());
+			}
+			count += batch.size();
+			
+			BindContext context = new BindContext(beanWrapper, batch, new Object[batch.size()]);
+			futures.add(executor.submit(new HandleBatch<>(context, beanClass, rowHandler, failure)));
+			if (futures.size() >= maximumInFlight) {
+				await(futures.poll());
+			}
+		}
+		while (!futures.isEmpty()) {
+			await(futures.poll());
+		}
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+		return count;
+	}
+	
+	public Object getNestedProperty(final Object bean, final String nestedProperty) throws ConversionException {
+		PropertyPath propertyPath = this.pathCache.getPropertyPath(nestedProperty);
+		if (!Metrics.isEnabled()) {
+			return getPropertyReader(bean, propertyPath).getValue(bean, this.converters);
+		}
+		return readTimed(bean, propertyPath, Object.class);
+	}
+	
+	public int getNestedInt(final Object bean, final String nestedProperty) throws ConversionException {
+		PropertyPath propertyPath = this.pathCache.getPropertyPath(nestedProperty);
+		if (!Metrics.isEnabled()) {
+			return getPropertyReader(bean, propertyPath).getInt(bean, this.converters);
+		}
+		return (Integer) readTimed(bean, propertyPath, int.class);
+	}
+	
+	public long getNestedLong(final Object bean, final String nestedProperty) throws ConversionException {
+		PropertyPath propertyPath = this.pathCache.getPropertyPath(nestedProperty);
+		if (!Metrics.isEnabled()) {
+			return getPropertyReader(bean, propertyPath).getLong(bean, this.converters);
+		}
+		return (Long) readTimed(bean, propertyPath, long.class);
+	}
+	
+	public double getNestedDouble(final Object bean, final String nestedProperty) throws ConversionException {
+		PropertyPath propertyPath = this.pathCache.getPropertyPath(nestedProperty);
+		if (!Metrics.isEnabled()) {
+			return getPropertyReader(bean, propertyPath).getDouble(bean, this.converters);
+		}
+		return (Double) readTimed(bean, propertyPath, double.class);
+	}
+	
+	public boolean getNestedBoolean(final Object bean, final String nestedProperty) throws ConversionException {
+		PropertyPath propertyPath = this.pathCache.getPropertyPath(nestedProperty);
+		if (!Metrics.isEnabled()) {
+			return getPropertyReader(bean, propertyPath).getBoolean(bean, this.converters);
+		}
+		return (Boolean) readTimed(bean, propertyPath, boolean.class);
+	}
+	
+	private static void await(final Future<?> future) {
+		try {
+			future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PropertyException("Interrupted while binding records", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new PropertyException(cause);
+		}
+	}
+	
+	/**
+	 * Writes a single property, or the whole tree when one is given, and reports the time taken
+	 * to the metrics.
+	 */
+	private void writeTimed(
+			final Object bean,
+			final PropertyPath propertyPath,
+			final Property property,
+			final PropertyTree propertyTree) throws ConversionException {
+		
+		PropertyWrapper beanWrapper = PropertyWrapperFactory.getPropertyWrapper(bean.getClass());
+		long start = System.nanoTime();
+		try {
+			if (propertyTree == null) {
+				beanWrapper.setProperty(bean, property, this.converters);
+			} else {
+				beanWrapper.setProperties(bean, propertyTree, this.converters);
+			}
+		} finally {
+			long nanos = System.nanoTime() - start;
+			if (propertyTree == null) {
+				Metrics.getMetrics().propertyWritten(bean.getClass(), propertyPath, nanos);
+			} else {
+				Metrics.getMetrics().beanBound(bean.getClass(), nanos);
+			}
+		}
+	}
+	
+	/**
+	 * Reads the given path as a value of the given type, {@code Object} or a primitive, and
+	 * reports the time taken to the metrics. Primitives are boxed, which only happens while
+	 * metrics are enabled.
+	 */
+	private Object readTimed(
+			final Object bean,
+			final PropertyPath propertyPath,
+			final Class<?> type) throws ConversionException {
+		
+		long start = System.nanoTime();
+		try {
+			PropertyReader propertyReader = getPropertyReader(bean, propertyPath);
+			if (type == int.class) {
+				return propertyReader.getInt(bean, this.converters);
+			} else if (type == long.class) {
+				return propertyReader.getLong(bean, this.converters);
+			} else if (type == double.class) {
+				return propertyReader.getDouble(bean, this.converters);
+			} else if (type == boolean.class) {
+				return propertyReader.getBoolean(bean, this.converters);
+			}
+			return propertyReader.getValue(bean, this.converters);
+		} finally {
+			Metrics.getMetrics().propertyRead(bean.getClass(), propertyPath, System.nanoTime() - start);
+		}
+	}
+	
+	private static PropertyReader getPropertyReader(final Object bean, final PropertyPath propertyPath) {
+		return PropertyReader.getPropertyReader(bean.getClass(), propertyPath);
+	}
+	
+	/**
+	 * State shared by the workers binding a list of records. The first conversion failure
+	 * is recorded and stops the remaining work.
+	 */
+	private final class BindContext {
+		
+		private final PropertyWrapper beanWrapper;
+		private final List<? extends Map<String, String>> records;
+		private final Object[] beans;
+		private final AtomicReference<ConversionException> failure = new AtomicReference<>();
+		
+		public BindContext(
+				final PropertyWrapper beanWrapper,
+				final List<? extends Map<String, String>> records,
+				final Object[] beans) {
+			
+			this.beanWrapper = beanWrapper;
+			this.records = records;
+			this.beans = beans;
+		}
+		
+		public void bind(final int from, final int to) {
+			for (int i = from; i < to && this.failure.get() == null; i++) {
+				Object bean = this.beanWrapper.newInstance();
+				try {
+					setNestedProperties(bean, this.records.get(i));
+				} catch (ConversionException e) {
+					this.failure.compareAndSet(null, e);
+					return;
+				}
+				this.beans[i] = bean;
+			}
+		}
+		
+		public void rethrowFailure() throws ConversionException {
+			if (this.failure.get() != null) {
+				throw this.failure.get();
+			}
+		}
+		
+	}
+	
+	private static final class BindTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final BindContext context;
+		private final int from;
+		private final int to;
+		private final int batchSize;
+		
+		public BindTask(final BindContext context, final int from, final int to, final int batchSize) {
+			this.context = context;
+			this.from = from;
+			this.to = to;
+			this.batchSize = batchSize;
+		}
+		
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= this.batchSize) {
+				this.context.bind(this.from, this.to);
+			} else {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(
+						new BindTask(this.context, this.from, middle, this.batchSize),
+						new BindTask(this.context, middle, this.to, this.batchSize));
+			}
+		}
+		
+	}
+	
+	private static final class BindBatch implements Runnable {
+		
+		private final BindContext context;
+		private final int from;
+		private final int to;
+		
+		public BindBatch(final BindContext context, final int from, final int to) {
+			this.context = context;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		public void run() {
+			this.context.bind(this.from, this.to);
+		}
+		
+	}
+	
+	/**
+	 * Binds a batch of its own and hands it over only if all of its records were bound, whatever
+	 * happens to the other batches.
+	 */
+	private static final class HandleBatch<T> implements Runnable {
+		
+		private final BindContext context;
+		private final Class<T> beanClass;
+		private final RowHandler<? super T> rowHandler;
+		private final AtomicReference<ConversionException> failure;
+		
+		public HandleBatch(
+				final BindContext context,
+				final Class<T> beanClass,
+				final RowHandler<? super T> rowHandler,
+				final AtomicReference<ConversionException> failure) {
+			
+			this.context = context;
+			this.beanClass = beanClass;
+			this.rowHandler = rowHandler;
+			this.failure = failure;
+		}
+		
+		@Override
+		public void run() {
+			this.context.bind(0, this.context.beans.length);
+			ConversionException batchFailure = this.context.failure.get();
+			if (batchFailure != null) {
+				this.failure.compareAndSet(null, batchFailure);
+				return;
+			}
+			for (Object bean : this.context.beans) {
+				this.rowHandler.handleRow(this.beanClass.cast(bean));
+			}
+		}
+		
+	}
+	
+	/**
+	 * Pool of the parallel bulk operations without an executor, created on first use.
+	 */
+	private static final class DefaultPool {
+		
+		private static final ForkJoinPool POOL = new ForkJoinPool();
+		
+	}
+	
+}
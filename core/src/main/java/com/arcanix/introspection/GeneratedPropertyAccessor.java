@@ -0,0 +1,214 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+
+/**
+ * Delegates to a {@link BeanAccessor} generated at compile time. Properties of type
+ * {@code int}, {@code long}, {@code double} and {@code boolean} go through the typed
+ * methods of the accessor and are never boxed.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+final class GeneratedPropertyAccessor extends PropertyAccessor {
+
+	private final BeanAccessor<Object> beanAccessor;
+	private final boolean readable;
+	private final boolean writable;
+	
+	public GeneratedPropertyAccessor(final BeanAccessor<Object> beanAccessor, final String name) {
+		super(name, beanAccessor.getPropertyType(name));
+		this.beanAccessor = beanAccessor;
+		this.readable = beanAccessor.isReadable(name);
+		this.writable = beanAccessor.isWritable(name);
+	}
+	
+	@Override
+	public boolean isReadable() {
+		return this.readable;
+	}
+	
+	@Override
+	public boolean isWritable() {
+		return this.writable;
+	}
+	
+	@Override
+	public Object getValue(final Object bean) {
+		checkReadable();
+		try {
+			return this.beanAccessor.getValue(bean, getName());
+		} catch (RuntimeException e) {
+			throw toPropertyException(e);
+		}
+	}
+	
+	@Override
+	public int getInt(final Object bean) {
+		if (getPropertyClass() != int.class) {
+			return super.getInt(bean);
+		}
+		checkReadable();
+		try {
+			return this.beanAccessor.getInt(bean, getName());
+		} catch (RuntimeException e) {
+			throw toPropertyException(e);
+		}
+	}
+	
+	@Override
+	public long getLong(final Object bean) {
+		if (getPropertyClass() != long.class) {
+			return super.getLong(bean);
+		}
+		checkReadable();
+		try {
+			return this.beanAccessor.getLong(bean, getName());
+		} catch (RuntimeException e) {
+			throw toPropertyException(e);
+		}
+	}
+	
+	@Override
+	public double getDouble(final Object bean) {
+		if (getPropertyClass() != double.class) {
+			return super.getDouble(bean);
+		}
+		checkReadable();
+		try {
+			return this.beanAccessor.getDouble(bean, getName());
+		} catch (RuntimeException e) {
+			throw toPropertyException(e);
+		}
+	}
+	
+	@Override
+	public boolean getBoolean(final Object bean) {
+		if (getPropertyClass() != boolean.class) {
+			return super.getBoolean(bean);
+		}
+		checkReadable();
+		try {
+			return this.beanAccessor.getBoolean(bean, getName());
+		} catch (RuntimeException e) {
+			throw toPropertyException(e);
+		}
+	}
+	
+	@Override
+	public void setValue(final Object bean, final Object value) {
+		checkWritable();
+		try {
+			this.beanAccessor.setValue(bean, getName(), value);
+		} catch (RuntimeException e) {
+			throw toPropertyException(e);
+		}
+	}
+	
+	@Override
+	public void setInt(final Object bean, final int value) {
+		if (getPropertyClass() != int.class) {
+			super.setInt(bean, value);
+			return;
+		}
+		checkWritable();
+		try {
+			this.beanAccessor.setInt(bean, getName(), value);
+		} catch (RuntimeException e) {
+			throw toPropertyException(e);
+		}
+	}
+	
+	@Override
+	public void setLong(final Object bean, final long value) {
+		if (getPropertyClass() != long.class) {
+			super.setLong(bean, value);
+			return;
+		}
+		checkWritable();
+		try {
+			this.beanAccessor.setLong(bean, getName(), value);
+		} catch (RuntimeException e) {
+			throw toPropertyException(e);
+		}
+	}
+	
+	@Override
+	public void setDouble(final Object bean, final double value) {
+		if (getPropertyClass() != double.class) {
+			super.setDouble(bean, value);
+			return;
+		}
+		checkWritable();
+		try {
+			this.beanAccessor.setDouble(bean, getName(), value);
+		} catch (RuntimeException e) {
+			throw toPropertyException(e);
+		}
+	}
+	
+	@Override
+	public void setBoolean(final Object bean, final boolean value) {
+		if (getPropertyClass() != boolean.class) {
+			super.setBoolean(bean, value);
+			return;
+		}
+		checkWritable();
+		try {
+			this.beanAccessor.setBoolean(bean, getName(), value);
+		} catch (RuntimeException e) {
+			throw toPropertyException(e);
+		}
+	}
+	
+	@Override
+	public void bindValue(final Object bean, final String value, final Converters converters) throws ConversionException {
+		Class<?> propertyClass = getPropertyClass();
+		if (propertyClass == int.class) {
+			setInt(bean, getValueConverter(converters).convertInt(value));
+		} else if (propertyClass == long.class) {
+			setLong(bean, getValueConverter(converters).convertLong(value));
+		} else if (propertyClass == double.class) {
+			setDouble(bean, getValueConverter(converters).convertDouble(value));
+		} else if (propertyClass == boolean.class) {
+			setBoolean(bean, getValueConverter(converters).convertBoolean(value));
+		} else {
+			super.bindValue(bean, value, converters);
+		}
+	}
+	
+	private void checkReadable() {
+		if (!this.readable) {
+			throw new PropertyException("Property " + getName() + " is not readable");
+		}
+	}
+	
+	private void checkWritable() {
+		if (!this.writable) {
+			throw new PropertyException("Property " + getName() + " is not writable");
+		}
+	}
+	
+	private static PropertyException toPropertyException(final RuntimeException e) {
+		if (e instanceof PropertyException) {
+			return (PropertyException) e;
+		}
+		return new PropertyException(e);
+	}
+	
+}
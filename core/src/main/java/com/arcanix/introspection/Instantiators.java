@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+
+/**
+ * Registry of the {@link Instantiator}s creating beans, such as the intermediate values of nested
+ * writes. Classes are instantiated through their no-arg constructor by default, looked up once
+ * and invoked as a method handle. Factories can be registered for the interfaces, abstract classes
+ * and classes without a no-arg constructor, they take precedence over the constructor and over
+ * generated {@link BeanAccessor}s.
+ * <p>
+ * Registrations are attached to the registered class, like the constructor instantiators, so
+ * they are collected along with the class loader of an application class. A factory registered
+ * for a class of another class loader, such as a JDK interface, keeps the factory and its class
+ * loader reachable until it is unregistered.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class Instantiators {
+
+	private static final MethodType NEW_INSTANCE_TYPE = MethodType.methodType(Object.class);
+	
+	private static final ClassValue<Registration> REGISTRATIONS = new ClassValue<Registration>() {
+		
+		@Override
+		protected Registration computeValue(final Class<?> type) {
+			return new Registration(type);
+		}
+		
+	};
+	
+	/**
+	 * Utility class. Can't instantiate.
+	 */
+	private Instantiators() {
+		throw new AssertionError();
+	}
+	
+	public static <T> void register(final Class<T> type, final Instantiator<? extends T> instantiator) {
+		if (type == null) {
+			throw new NullPointerException("Type cannot be null");
+		}
+		if (instantiator == null) {
+			throw new NullPointerException("Instantiator cannot be null");
+		}
+		REGISTRATIONS.get(type).factory = instantiator;
+	}
+	
+	public static void unregister(final Class<?> type) {
+		if (type == null) {
+			throw new NullPointerException("Type cannot be null");
+		}
+		REGISTRATIONS.get(type).factory = null;
+	}
+	
+	public static boolean isRegistered(final Class<?> type) {
+		return REGISTRATIONS.get(type).factory != null;
+	}
+	
+	/**
+	 * @return the registered factory of the type, or its constructor instantiator. Types that
+	 *         cannot be constructed get an instantiator failing with a {@link PropertyException}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Instantiator<T> getInstantiator(final Class<T> type) {
+		if (type == null) {
+			throw new NullPointerException("Type cannot be null");
+		}
+		return (Instantiator<T>) REGISTRATIONS.get(type).getInstantiator();
+	}
+	
+	public static <T> T newInstance(final Class<T> type) {
+		return getInstantiator(type).newInstance();
+	}
+	
+	private static Instantiator<?> createConstructorInstantiator(final Class<?> type) {
+		if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.isPrimitive() || type.isArray()) {
+			return new FailingInstantiator(type, "it is not a concrete class");
+		}
+		Constructor<?> constructor;
+		try {
+			constructor = type.getDeclaredConstructor();
+		} catch (NoSuchMethodException e) {
+			return new FailingInstantiator(type, "it has no no-arg constructor");
+		}
+		try {
+			// non-public constructors are used as well, as they would be by a field binding
+			constructor.setAccessible(true);
+		} catch (RuntimeException e) {
+			// fall back on regular access checks
+		}
+		try {
+			return new ConstructorInstantiator(MethodHandles.lookup().unreflectConstructor(constructor).asType(NEW_INSTANCE_TYPE));
+		} catch (IllegalAccessException e) {
+			return new FailingInstantiator(type, "its no-arg constructor is not accessible");
+		}
+	}
+	
+	/**
+	 * Registered factory of a class, and its constructor instantiator looked up on first use.
+	 */
+	private static final class Registration {
+		
+		private final Class<?> type;
+		private volatile Instantiator<?> factory;
+		private volatile Instantiator<?> constructorInstantiator;
+		
+		public Registration(final Class<?> type) {
+			this.type = type;
+		}
+		
+		public Instantiator<?> getInstantiator() {
+			Instantiator<?> factory = this.factory;
+			if (factory != null) {
+				return factory;
+			}
+			Instantiator<?> constructorInstantiator = this.constructorInstantiator;
+			if (constructorInstantiator == null) {
+				constructorInstantiator = createConstructorInstantiator(this.type);
+				this.constructorInstantiator = constructorInstantiator;
+			}
+			return constructorInstantiator;
+		}
+		
+	}
+	
+	private static final class ConstructorInstantiator implements Instantiator<Object> {
+		
+		private final MethodHandle constructor;
+		
+		public ConstructorInstantiator(final MethodHandle constructor) {
+			this.constructor = constructor;
+		}
+		
+		@Override
+		public Object newInstance() {
+			try {
+				return this.constructor.invokeExact();
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new PropertyException(e);
+			}
+		}
+		
+	}
+	
+	/**
+	 * Defers the failure to the first instantiation, types that are never instantiated,
+	 * such as the types of the leaf properties, do not fail.
+	 */
+	private static final class FailingInstantiator implements Instantiator<Object> {
+		
+		private final String message;
+		
+		public FailingInstantiator(final Class<?> type, final String reason) {
+			this.message = "Cannot instantiate " + type.getName() + ", " + reason
+					+ ": register an Instantiator for it";
+		}
+		
+		@Override
+		public Object newInstance() {
+			throw new PropertyException(this.message);
+		}
+		
+	}
+	
+}
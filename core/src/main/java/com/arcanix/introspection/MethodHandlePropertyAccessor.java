@@ -0,0 +1,312 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.metrics.Metrics;
+
+/**
+ * Reads and writes a single bean property through method handles resolved once
+ * from its {@link PropertyDescriptor}, or from its field with direct field access,
+ * avoiding the access checks and argument arrays of {@link Method#invoke(Object, Object...)}.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+final class MethodHandlePropertyAccessor extends PropertyAccessor {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+	
+	// exactly typed accessors of primitive properties, read and written without boxing
+	private final MethodHandle primitiveGetter;
+	private final MethodHandle primitiveSetter;
+	
+	public MethodHandlePropertyAccessor(final PropertyDescriptor propertyDescriptor) {
+		this(
+				propertyDescriptor.getName(),
+				getPropertyType(propertyDescriptor),
+				propertyDescriptor.getReadMethod() != null ? unreflect(propertyDescriptor.getReadMethod()) : null,
+				propertyDescriptor.getWriteMethod() != null ? unreflect(propertyDescriptor.getWriteMethod()) : null);
+	}
+	
+	/**
+	 * Accesses the field directly, final fields are only writable where the runtime allows it.
+	 */
+	public MethodHandlePropertyAccessor(final Field field) {
+		this(field.getName(), field.getGenericType(), unreflectGetter(field), unreflectSetter(field));
+	}
+	
+	private MethodHandlePropertyAccessor(
+			final String name,
+			final Type propertyType,
+			final MethodHandle readHandle,
+			final MethodHandle writeHandle) {
+		
+		super(name, propertyType);
+		
+		this.getter = readHandle != null ? readHandle.asType(GETTER_TYPE) : null;
+		this.setter = writeHandle != null ? writeHandle.asType(SETTER_TYPE) : null;
+		
+		Class<?> returnType = readHandle != null ? readHandle.type().returnType() : null;
+		if (returnType != null && returnType.isPrimitive()) {
+			this.primitiveGetter = readHandle.asType(MethodType.methodType(returnType, Object.class));
+		} else {
+			this.primitiveGetter = null;
+		}
+		
+		Class<?> parameterType = writeHandle != null ? writeHandle.type().parameterType(1) : null;
+		if (parameterType != null && parameterType.isPrimitive()) {
+			this.primitiveSetter = writeHandle.asType(MethodType.methodType(void.class, Object.class, parameterType));
+		} else {
+			this.primitiveSetter = null;
+		}
+	}
+	
+	@Override
+	public boolean isReadable() {
+		return this.getter != null;
+	}
+	
+	@Override
+	public boolean isWritable() {
+		return this.setter != null;
+	}
+	
+	@Override
+	public Object getValue(final Object bean) {
+		if (this.getter == null) {
+			throw new PropertyException("Property " + getName() + " is not readable");
+		}
+		Metrics.getMetrics().accessorInvoked();
+		try {
+			return this.getter.invokeExact(bean);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	@Override
+	public int getInt(final Object bean) {
+		if (this.primitiveGetter == null || getPropertyClass() != int.class) {
+			return super.getInt(bean);
+		}
+		Metrics.getMetrics().accessorInvoked();
+		try {
+			return (int) this.primitiveGetter.invokeExact(bean);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	@Override
+	public long getLong(final Object bean) {
+		if (this.primitiveGetter == null || getPropertyClass() != long.class) {
+			return super.getLong(bean);
+		}
+		Metrics.getMetrics().accessorInvoked();
+		try {
+			return (long) this.primitiveGetter.invokeExact(bean);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	@Override
+	public double getDouble(final Object bean) {
+		if (this.primitiveGetter == null || getPropertyClass() != double.class) {
+			return super.getDouble(bean);
+		}
+		Metrics.getMetrics().accessorInvoked();
+		try {
+			return (double) this.primitiveGetter.invokeExact(bean);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	@Override
+	public boolean getBoolean(final Object bean) {
+		if (this.primitiveGetter == null || getPropertyClass() != boolean.class) {
+			return super.getBoolean(bean);
+		}
+		Metrics.getMetrics().accessorInvoked();
+		try {
+			return (boolean) this.primitiveGetter.invokeExact(bean);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	@Override
+	public void setValue(final Object bean, final Object value) {
+		if (this.setter == null) {
+			throw new PropertyException("Property " + getName() + " is not writable");
+		}
+		Metrics.getMetrics().accessorInvoked();
+		try {
+			this.setter.invokeExact(bean, value);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	@Override
+	public void setInt(final Object bean, final int value) {
+		if (this.primitiveSetter == null || getPropertyClass() != int.class) {
+			super.setInt(bean, value);
+			return;
+		}
+		Metrics.getMetrics().accessorInvoked();
+		try {
+			this.primitiveSetter.invokeExact(bean, value);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	@Override
+	public void setLong(final Object bean, final long value) {
+		if (this.primitiveSetter == null || getPropertyClass() != long.class) {
+			super.setLong(bean, value);
+			return;
+		}
+		Metrics.getMetrics().accessorInvoked();
+		try {
+			this.primitiveSetter.invokeExact(bean, value);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	@Override
+	public void setDouble(final Object bean, final double value) {
+		if (this.primitiveSetter == null || getPropertyClass() != double.class) {
+			super.setDouble(bean, value);
+			return;
+		}
+		Metrics.getMetrics().accessorInvoked();
+		try {
+			this.primitiveSetter.invokeExact(bean, value);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	@Override
+	public void setBoolean(final Object bean, final boolean value) {
+		if (this.primitiveSetter == null || getPropertyClass() != boolean.class) {
+			super.setBoolean(bean, value);
+			return;
+		}
+		Metrics.getMetrics().accessorInvoked();
+		try {
+			this.primitiveSetter.invokeExact(bean, value);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	@Override
+	public void bindValue(final Object bean, final String value, final Converters converters) throws ConversionException {
+		Class<?> propertyClass = getPropertyClass();
+		if (this.primitiveSetter == null) {
+			super.bindValue(bean, value, converters);
+		} else if (propertyClass == int.class) {
+			setInt(bean, getValueConverter(converters).convertInt(value));
+		} else if (propertyClass == long.class) {
+			setLong(bean, getValueConverter(converters).convertLong(value));
+		} else if (propertyClass == double.class) {
+			setDouble(bean, getValueConverter(converters).convertDouble(value));
+		} else if (propertyClass == boolean.class) {
+			setBoolean(bean, getValueConverter(converters).convertBoolean(value));
+		} else {
+			super.bindValue(bean, value, converters);
+		}
+	}
+	
+	private static Type getPropertyType(final PropertyDescriptor propertyDescriptor) {
+		if (propertyDescriptor.getReadMethod() != null) {
+			return propertyDescriptor.getReadMethod().getGenericReturnType();
+		} else if (propertyDescriptor.getWriteMethod() != null) {
+			return propertyDescriptor.getWriteMethod().getGenericParameterTypes()[0];
+		}
+		return propertyDescriptor.getPropertyType();
+	}
+	
+	private static MethodHandle unreflectGetter(final Field field) {
+		try {
+			return MethodHandles.lookup().unreflectGetter(field);
+		} catch (IllegalAccessException e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+	private static MethodHandle unreflectSetter(final Field field) {
+		try {
+			return MethodHandles.lookup().unreflectSetter(field);
+		} catch (IllegalAccessException e) {
+			// final fields the runtime refuses to write are read-only properties
+			return null;
+		}
+	}
+	
+	private static MethodHandle unreflect(final Method method) {
+		try {
+			// public accessors declared by non-public classes still need to be opened
+			method.setAccessible(true);
+		} catch (RuntimeException e) {
+			// fall back on regular access checks
+		}
+		try {
+			return MethodHandles.lookup().unreflect(method);
+		} catch (IllegalAccessException e) {
+			throw new PropertyException(e);
+		}
+	}
+	
+}
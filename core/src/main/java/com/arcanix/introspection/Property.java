@@ -42,6 +42,20 @@ public final class Property {
 		this.key = propertyBuilder.getKey();		
 		this.nextProperty = propertyBuilder.getNextProperty();
 	}
+	
+	Property(
+			final String value,
+			final String name,
+			final Integer index,
+			final String key,
+			final Property nextProperty) {
+		
+		this.value = value;
+		this.name = name;
+		this.index = index;
+		this.key = key;
+		this.nextProperty = nextProperty;
+	}
 
 	public String getValue() {
 		return this.value;
@@ -71,27 +85,24 @@ public final class Property {
 		return this.nextProperty;
 	}
 	
+	/**
+	 * @return the expression of this property and the following ones, i.e.: {@code customer.addresses[0].city}
+	 */
 	public String toExpression() {
-		Property nextProperty = this;
 		StringBuilder stringBuilder = new StringBuilder();
-		
-		boolean skip = false;
-		do {
-			if (!skip) {
-				stringBuilder.append(nextProperty.toString());
-				if (nextProperty.isMapped() || nextProperty.isIndexed()) {
-					skip = true;
-				}
-				if (!skip && nextProperty.getNextProperty() != null) {
-					stringBuilder.append(Property.NESTED);
-				}
+		for (Property property = this; property != null; property = property.getNextProperty()) {
+			// indexed and mapped properties repeat the name of the collection they follow
+			if (property.isIndexed()) {
+				stringBuilder.append(INDEXED_START).append(property.getIndex()).append(INDEXED_END);
+			} else if (property.isMapped()) {
+				stringBuilder.append(MAPPED_START).append(property.getKey()).append(MAPPED_END);
 			} else {
-				skip = false;
+				if (stringBuilder.length() > 0) {
+					stringBuilder.append(NESTED);
+				}
+				stringBuilder.append(property.getName());
 			}
-			nextProperty = nextProperty.getNextProperty();
 		}
-		while (nextProperty != null);
-		
 		return stringBuilder.toString();
 	}
 	
@@ -0,0 +1,128 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.lang.reflect.Type;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.util.ReflectionUtils;
+
+/**
+ * Reads and writes a single property of a bean class. Accessors are resolved once
+ * per class by {@link BeanInfoWrapper} and shared by all threads.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public abstract class PropertyAccessor {
+
+	private final String name;
+	private final Type propertyType;
+	private final Class<?> propertyClass;
+	private volatile ValueConverter valueConverter;
+	
+	protected PropertyAccessor(final String name, final Type propertyType) {
+		if (name == null) {
+			throw new NullPointerException("Name cannot be null");
+		}
+		if (propertyType == null) {
+			throw new NullPointerException("Property type cannot be null");
+		}
+		this.name = name;
+		this.propertyType = propertyType;
+		this.propertyClass = ReflectionUtils.getClass(propertyType);
+	}
+	
+	public final String getName() {
+		return this.name;
+	}
+	
+	public final Type getPropertyType() {
+		return this.propertyType;
+	}
+	
+	public final Class<?> getPropertyClass() {
+		return this.propertyClass;
+	}
+	
+	public final ValueConverter getValueConverter(final Converters converters) {
+		ValueConverter valueConverter = this.valueConverter;
+		if (valueConverter == null || valueConverter.getConverters() != converters) {
+			valueConverter = ValueConverter.getValueConverter(this.propertyClass, converters);
+			this.valueConverter = valueConverter;
+		}
+		return valueConverter;
+	}
+	
+	public abstract boolean isReadable();
+	
+	public abstract boolean isWritable();
+	
+	public abstract Object getValue(Object bean);
+	
+	public abstract void setValue(Object bean, Object value);
+	
+	public void setInt(final Object bean, final int value) {
+		setValue(bean, Integer.valueOf(value));
+	}
+	
+	public void setLong(final Object bean, final long value) {
+		setValue(bean, Long.valueOf(value));
+	}
+	
+	public void setDouble(final Object bean, final double value) {
+		setValue(bean, Double.valueOf(value));
+	}
+	
+	public void setBoolean(final Object bean, final boolean value) {
+		setValue(bean, Boolean.valueOf(value));
+	}
+	
+	/**
+	 * Converts the string value with the converter bound to this property and sets it.
+	 */
+	public void bindValue(final Object bean, final String value, final Converters converters) throws ConversionException {
+		setValue(bean, getValueConverter(converters).convert(value));
+	}
+	
+	public int getInt(final Object bean) {
+		return toNumber(getValue(bean)).intValue();
+	}
+	
+	public long getLong(final Object bean) {
+		return toNumber(getValue(bean)).longValue();
+	}
+	
+	public double getDouble(final Object bean) {
+		return toNumber(getValue(bean)).doubleValue();
+	}
+	
+	public boolean getBoolean(final Object bean) {
+		Object value = getValue(bean);
+		if (!(value instanceof Boolean)) {
+			throw new PropertyException("Property " + this.name + " is not a boolean: " + value);
+		}
+		return ((Boolean) value).booleanValue();
+	}
+	
+	private Number toNumber(final Object value) {
+		if (!(value instanceof Number)) {
+			throw new PropertyException("Property " + this.name + " is not a number: " + value);
+		}
+		return (Number) value;
+	}
+	
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Walks a bean graph and emits one nested property expression per leaf value, the inverse
+ * of {@link BeanUtils#setNestedProperty(Object, String, String)}. Lists and arrays are emitted
+ * with indices, maps and sets with keys, i.e.: {@code customer.addresses[0].city}. Values of
+ * simple and {@code java.*} types are leaves, other values are walked as beans through
+ * traversal plans cached per class. Collections and arrays are iterated in place, and references
+ * back to an object being walked are skipped.
+ * 
+ * <p>Keys are emitted as is, keys containing expression delimiters cannot be parsed back.</p>
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class PropertyFlattener {
+
+	private static final ClassValue<Plan> PLANS = new ClassValue<Plan>() {
+		
+		@Override
+		protected Plan computeValue(final Class<?> type) {
+			if (isLeaf(type)) {
+				return Plan.LEAF;
+			}
+			return new Plan(getReadableAccessors(type));
+		}
+		
+	};
+	
+	private final PropertyVisitor visitor;
+	private final StringBuilder expression = new StringBuilder();
+	private final Map<Object, Boolean> ancestors = new IdentityHashMap<>();
+	
+	private PropertyFlattener(final PropertyVisitor visitor) {
+		this.visitor = visitor;
+	}
+	
+	public static void flatten(final Object bean, final PropertyVisitor visitor) {
+		if (bean == null) {
+			throw new NullPointerException("Bean cannot be null");
+		}
+		if (visitor == null) {
+			throw new NullPointerException("Visitor cannot be null");
+		}
+		new PropertyFlattener(visitor).visitValue(bean);
+	}
+	
+	private void visitValue(final Object value) {
+		Plan plan = value != null ? PLANS.get(value.getClass()) : Plan.LEAF;
+		if (plan == Plan.LEAF) {
+			this.visitor.visitProperty(this.expression.toString(), value);
+			return;
+		}
+		if (this.ancestors.put(value, Boolean.TRUE) != null) {
+			return;
+		}
+		if (value instanceof List) {
+			visitList((List<?>) value);
+		} else if (value.getClass().isArray()) {
+			visitArray(value);
+		} else if (value instanceof Set) {
+			visitSet((Set<?>) value);
+		} else if (value instanceof Map) {
+			visitMap((Map<?, ?>) value);
+		} else {
+			visitBean(value, plan);
+		}
+		this.ancestors.remove(value);
+	}
+	
+	private void visitBean(final Object bean, final Plan plan) {
+		int length = this.expression.length();
+		for (PropertyAccessor accessor : plan.accessors) {
+			if (length > 0) {
+				this.expression.append(Property.NESTED);
+			}
+			this.expression.append(accessor.getName());
+			visitValue(accessor.getValue(bean));
+			this.expression.setLength(length);
+		}
+	}
+	
+	private void visitList(final List<?> list) {
+		int length = this.expression.length();
+		if (list instanceof RandomAccess) {
+			for (int i = 0; i < list.size(); i++) {
+				visitElement(length, i, list.get(i));
+			}
+		} else {
+			int i = 0;
+			for (Object element : list) {
+				visitElement(length, i++, element);
+			}
+		}
+	}
+	
+	private void visitArray(final Object array) {
+		int length = this.expression.length();
+		for (int i = 0; i < Array.getLength(array); i++) {
+			visitElement(length, i, Array.get(array, i));
+		}
+	}
+	
+	private void visitElement(final int length, final int index, final Object element) {
+		this.expression.append(Property.INDEXED_START).append(index).append(Property.INDEXED_END);
+		visitValue(element);
+		this.expression.setLength(length);
+	}
+	
+	private void visitSet(final Set<?> set) {
+		int length = this.expression.length();
+		for (Object element : set) {
+			visitKey(length, element, element);
+		}
+	}
+	
+	private void visitMap(final Map<?, ?> map) {
+		int length = this.expression.length();
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			visitKey(length, entry.getKey(), entry.getValue());
+		}
+	}
+	
+	private void visitKey(final int length, final Object key, final Object value) {
+		this.expression.append(Property.MAPPED_START).append(key).append(Property.MAPPED_END);
+		visitValue(value);
+		this.expression.setLength(length);
+	}
+	
+	private static boolean isLeaf(final Class<?> type) {
+		if (type.isArray()
+				|| List.class.isAssignableFrom(type)
+				|| Set.class.isAssignableFrom(type)
+				|| Map.class.isAssignableFrom(type)) {
+			return false;
+		}
+		String name = type.getName();
+		return type.isPrimitive()
+				|| type.isEnum()
+				|| name.startsWith("java.")
+				|| name.startsWith("javax.");
+	}
+	
+	private static PropertyAccessor[] getReadableAccessors(final Class<?> type) {
+		List<PropertyAccessor> accessors = new ArrayList<>();
+		for (PropertyAccessor accessor : BeanInfoWrapper.getBeanInfoWrapper(type).getPropertyAccessors()) {
+			if (accessor.isReadable() && !"class".equals(accessor.getName())) {
+				accessors.add(accessor);
+			}
+		}
+		// a stable order makes the output comparable between runs
+		Collections.sort(accessors, new Comparator<PropertyAccessor>() {
+			@Override
+			public int compare(final PropertyAccessor first, final PropertyAccessor second) {
+				return first.getName().compareTo(second.getName());
+			}
+		});
+		return accessors.toArray(new PropertyAccessor[accessors.size()]);
+	}
+	
+	private static final class Plan {
+		
+		public static final Plan LEAF = new Plan(new PropertyAccessor[0]);
+		
+		private final PropertyAccessor[] accessors;
+		
+		public Plan(final PropertyAccessor[] accessors) {
+			this.accessors = accessors;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+/**
+ * Compiled, value-free form of a nested property expression. Instances are immutable
+ * and can be shared between threads; values are bound at call time with {@link #bind(String)}.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class PropertyPath {
+
+	private final String expression;
+	private final Property property;
+	private final String shape;
+	
+	PropertyPath(final String expression, final Property property) {
+		if (expression == null) {
+			throw new NullPointerException("Expression cannot be null");
+		}
+		if (property == null) {
+			throw new NullPointerException("Property cannot be null");
+		}
+		this.expression = expression;
+		this.property = property;
+		this.shape = toShape(property);
+	}
+	
+	public String getExpression() {
+		return this.expression;
+	}
+	
+	public Property getProperty() {
+		return this.property;
+	}
+	
+	/**
+	 * @return the expression with its indexes and keys replaced by {@code *}, i.e.:
+	 *         {@code lines[*].attributes(*)} for {@code lines[3].attributes(color)}
+	 */
+	public String getShape() {
+		return this.shape;
+	}
+	
+	public Property bind(final String value) {
+		return bind(this.property, value);
+	}
+	
+	private static Property bind(final Property property, final String value) {
+		Property nextProperty = property.getNextProperty();
+		if (nextProperty != null) {
+			nextProperty = bind(nextProperty, value);
+		}
+		return new Property(value, property.getName(), property.getIndex(), property.getKey(), nextProperty);
+	}
+	
+	private static String toShape(final Property property) {
+		StringBuilder stringBuilder = new StringBuilder();
+		for (Property nextProperty = property; nextProperty != null; nextProperty = nextProperty.getNextProperty()) {
+			if (nextProperty.isIndexed()) {
+				stringBuilder.append(Property.INDEXED_START).append('*').append(Property.INDEXED_END);
+			} else if (nextProperty.isMapped()) {
+				stringBuilder.append(Property.MAPPED_START).append('*').append(Property.MAPPED_END);
+			} else {
+				if (stringBuilder.length() > 0) {
+					stringBuilder.append(Property.NESTED);
+				}
+				stringBuilder.append(nextProperty.getName());
+			}
+		}
+		return stringBuilder.toString();
+	}
+	
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+	
+}
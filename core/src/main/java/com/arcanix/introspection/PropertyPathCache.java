@@ -0,0 +1,165 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.arcanix.introspection.metrics.CacheType;
+import com.arcanix.introspection.metrics.Metrics;
+
+/**
+ * Bounded, thread-safe cache of compiled {@link PropertyPath}s. The cache is split
+ * in segments, each one evicting its least recently used expression once full.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class PropertyPathCache {
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+	
+	private static final int MAXIMUM_SEGMENTS = 16;
+	
+	private static final PropertyPathCache DEFAULT_CACHE = new PropertyPathCache(DEFAULT_MAXIMUM_SIZE);
+	
+	private final PropertyResolver resolver = new PropertyResolver();
+	private final Segment[] segments;
+	private final int segmentMask;
+	private final int maximumSize;
+	
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	
+	public PropertyPathCache() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+	
+	public PropertyPathCache(final int maximumSize) {
+		if (maximumSize <= 0) {
+			throw new IllegalArgumentException("Maximum size must be positive");
+		}
+		
+		int segmentCount = 1;
+		while (segmentCount < MAXIMUM_SEGMENTS && segmentCount * 2 <= maximumSize) {
+			segmentCount *= 2;
+		}
+		
+		this.maximumSize = maximumSize;
+		this.segmentMask = segmentCount - 1;
+		this.segments = new Segment[segmentCount];
+		
+		int segmentSize = maximumSize / segmentCount;
+		for (int i = 0; i < segmentCount; i++) {
+			// distribute the remainder so the total capacity matches the maximum size
+			this.segments[i] = new Segment(i < maximumSize % segmentCount ? segmentSize + 1 : segmentSize);
+		}
+	}
+	
+	public static PropertyPathCache getDefaultCache() {
+		return DEFAULT_CACHE;
+	}
+	
+	public PropertyPath getPropertyPath(final String expression) {
+		if (expression == null) {
+			throw new NullPointerException("Expression cannot be null");
+		}
+		
+		Segment segment = segmentFor(expression);
+		PropertyPath propertyPath = segment.get(expression);
+		if (propertyPath != null) {
+			this.hitCount.incrementAndGet();
+			Metrics.getMetrics().cacheHit(CacheType.PROPERTY_PATH);
+			return propertyPath;
+		}
+		
+		// compile outside of the segment lock, a concurrent miss on the same
+		// expression only results in an equivalent path being compiled twice
+		this.missCount.incrementAndGet();
+		Metrics.getMetrics().cacheMiss(CacheType.PROPERTY_PATH);
+		propertyPath = this.resolver.compile(expression);
+		segment.put(expression, propertyPath);
+		return propertyPath;
+	}
+	
+	public long getHitCount() {
+		return this.hitCount.get();
+	}
+	
+	public long getMissCount() {
+		return this.missCount.get();
+	}
+	
+	public int getMaximumSize() {
+		return this.maximumSize;
+	}
+	
+	public int size() {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+	
+	public void clear() {
+		for (Segment segment : this.segments) {
+			segment.clear();
+		}
+	}
+	
+	private Segment segmentFor(final String expression) {
+		int hash = expression.hashCode();
+		hash ^= (hash >>> 16);
+		return this.segments[hash & this.segmentMask];
+	}
+	
+	private static final class Segment {
+		
+		private final Map<String, PropertyPath> paths;
+		
+		public Segment(final int maximumSize) {
+			this.paths = new LinkedHashMap<String, PropertyPath>(16, 0.75f, true) {
+				
+				private static final long serialVersionUID = 0L;
+				
+				@Override
+				protected boolean removeEldestEntry(final Map.Entry<String, PropertyPath> eldest) {
+					return size() > maximumSize;
+				}
+				
+			};
+		}
+		
+		public synchronized PropertyPath get(final String expression) {
+			return this.paths.get(expression);
+		}
+		
+		public synchronized void put(final String expression, final PropertyPath propertyPath) {
+			this.paths.put(expression, propertyPath);
+		}
+		
+		public synchronized int size() {
+			return this.paths.size();
+		}
+		
+		public synchronized void clear() {
+			this.paths.clear();
+		}
+		
+	}
+	
+}
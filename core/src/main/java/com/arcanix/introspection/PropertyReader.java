@@ -0,0 +1,413 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.metrics.CacheType;
+import com.arcanix.introspection.metrics.Metrics;
+import com.arcanix.introspection.util.ReflectionUtils;
+import com.arcanix.introspection.wrapper.ConvertedKey;
+import com.arcanix.introspection.wrapper.PropertyWrapperFactory;
+import com.arcanix.introspection.wrapper.SetWrapper;
+
+/**
+ * Compiled chain of reads for a nested property expression, following the same
+ * rules as the property wrappers but without creating missing intermediates nor
+ * allocating wrappers. Readers are cached per bean class and expression.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class PropertyReader {
+
+	private static final int MAXIMUM_READERS_PER_CLASS = 1024;
+	
+	private static final ClassValue<ConcurrentMap<String, PropertyReader>> PROPERTY_READERS =
+			new ClassValue<ConcurrentMap<String, PropertyReader>>() {
+		
+		@Override
+		protected ConcurrentMap<String, PropertyReader> computeValue(final Class<?> beanClass) {
+			return new ConcurrentHashMap<>();
+		}
+		
+	};
+	
+	private final String expression;
+	private final Step[] steps;
+	
+	private PropertyReader(final String expression, final Step[] steps) {
+		this.expression = expression;
+		this.steps = steps;
+	}
+	
+	public static PropertyReader getPropertyReader(final Class<?> beanClass, final PropertyPath propertyPath) {
+		ConcurrentMap<String, PropertyReader> propertyReaders = PROPERTY_READERS.get(beanClass);
+		PropertyReader propertyReader = propertyReaders.get(propertyPath.getExpression());
+		if (propertyReader == null) {
+			Metrics.getMetrics().cacheMiss(CacheType.PROPERTY_READER);
+			propertyReader = compile(beanClass, propertyPath);
+			// past the limit readers are still compiled, just not retained
+			if (propertyReaders.size() < MAXIMUM_READERS_PER_CLASS) {
+				propertyReaders.putIfAbsent(propertyPath.getExpression(), propertyReader);
+			}
+		} else {
+			Metrics.getMetrics().cacheHit(CacheType.PROPERTY_READER);
+		}
+		return propertyReader;
+	}
+	
+	public static PropertyReader compile(final Type beanType, final PropertyPath propertyPath) {
+		int depth = 0;
+		for (Property property = propertyPath.getProperty(); property != null; property = property.getNextProperty()) {
+			depth++;
+		}
+		
+		Step[] steps = new Step[depth];
+		Type type = beanType;
+		boolean root = true;
+		int i = 0;
+		for (Property property = propertyPath.getProperty(); property != null; property = property.getNextProperty()) {
+			Class<?> clazz = ReflectionUtils.getClass(type);
+			Step step;
+			if (root || !isContainer(clazz)) {
+				step = new BeanStep(BeanInfoWrapper.getBeanInfoWrapper(clazz).getPropertyAccessor(property.getName()));
+			} else if (clazz.isArray()) {
+				if (!property.isIndexed()) {
+					throw new PropertyException("Property " + property + " must be indexed");
+				}
+				Type elementType = type instanceof GenericArrayType
+						? ((GenericArrayType) type).getGenericComponentType()
+						: clazz.getComponentType();
+				step = new ArrayStep(property.getIndex().intValue(), elementType);
+			} else if (PropertyWrapperFactory.isListType(clazz)) {
+				if (!property.isIndexed()) {
+					throw new PropertyException("Property " + property + " must be indexed");
+				}
+				step = new ListStep(property.getIndex().intValue(), getTypeArgument(type, 0));
+			} else if (PropertyWrapperFactory.isSetType(clazz)) {
+				Type elementType = getTypeArgument(type, 0);
+				step = new SetStep(getKey(property), elementType);
+			} else {
+				step = new MapStep(getKey(property), ReflectionUtils.getClass(getTypeArgument(type, 0)), getTypeArgument(type, 1));
+			}
+			steps[i++] = step;
+			type = step.getType();
+			root = false;
+		}
+		return new PropertyReader(propertyPath.getExpression(), steps);
+	}
+	
+	public String getExpression() {
+		return this.expression;
+	}
+	
+	/**
+	 * @return the declared type of the property read
+	 */
+	public Type getPropertyType() {
+		return this.steps[this.steps.length - 1].getType();
+	}
+	
+	public Object getValue(final Object bean, final Converters converters) throws ConversionException {
+		Object target = getTarget(bean, converters);
+		if (target == null) {
+			return null;
+		}
+		return this.steps[this.steps.length - 1].getValue(target, converters);
+	}
+	
+	public int getInt(final Object bean, final Converters converters) throws ConversionException {
+		return this.steps[this.steps.length - 1].getInt(getRequiredTarget(bean, converters), converters);
+	}
+	
+	public long getLong(final Object bean, final Converters converters) throws ConversionException {
+		return this.steps[this.steps.length - 1].getLong(getRequiredTarget(bean, converters), converters);
+	}
+	
+	public double getDouble(final Object bean, final Converters converters) throws ConversionException {
+		return this.steps[this.steps.length - 1].getDouble(getRequiredTarget(bean, converters), converters);
+	}
+	
+	public boolean getBoolean(final Object bean, final Converters converters) throws ConversionException {
+		return this.steps[this.steps.length - 1].getBoolean(getRequiredTarget(bean, converters), converters);
+	}
+	
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+	
+	/**
+	 * @return the object holding the last property, {@code null} if any intermediate is missing
+	 */
+	private Object getTarget(final Object bean, final Converters converters) throws ConversionException {
+		Object target = bean;
+		for (int i = 0; i < this.steps.length - 1 && target != null; i++) {
+			target = this.steps[i].getValue(target, converters);
+		}
+		return target;
+	}
+	
+	private Object getRequiredTarget(final Object bean, final Converters converters) throws ConversionException {
+		Object target = getTarget(bean, converters);
+		if (target == null) {
+			throw new PropertyException("Nested property " + this.expression + " is null");
+		}
+		return target;
+	}
+	
+	private static boolean isContainer(final Class<?> clazz) {
+		return clazz.isArray()
+				|| PropertyWrapperFactory.isListType(clazz)
+				|| PropertyWrapperFactory.isSetType(clazz)
+				|| PropertyWrapperFactory.isMapType(clazz);
+	}
+	
+	private static String getKey(final Property property) {
+		return property.isMapped() ? property.getKey() : property.getName();
+	}
+	
+	private static Type getTypeArgument(final Type type, final int index) {
+		if (!(type instanceof ParameterizedType)) {
+			throw new IllegalArgumentException(ReflectionUtils.getClass(type).getSimpleName() + " must be parameterized");
+		}
+		return ((ParameterizedType) type).getActualTypeArguments()[index];
+	}
+	
+	private abstract static class Step {
+		
+		public abstract Type getType();
+		
+		public abstract Object getValue(Object target, Converters converters) throws ConversionException;
+		
+		public int getInt(final Object target, final Converters converters) throws ConversionException {
+			return toNumber(getValue(target, converters)).intValue();
+		}
+		
+		public long getLong(final Object target, final Converters converters) throws ConversionException {
+			return toNumber(getValue(target, converters)).longValue();
+		}
+		
+		public double getDouble(final Object target, final Converters converters) throws ConversionException {
+			return toNumber(getValue(target, converters)).doubleValue();
+		}
+		
+		public boolean getBoolean(final Object target, final Converters converters) throws ConversionException {
+			Object value = getValue(target, converters);
+			if (!(value instanceof Boolean)) {
+				throw new PropertyException("Value is not a boolean: " + value);
+			}
+			return ((Boolean) value).booleanValue();
+		}
+		
+		private static Number toNumber(final Object value) {
+			if (!(value instanceof Number)) {
+				throw new PropertyException("Value is not a number: " + value);
+			}
+			return (Number) value;
+		}
+		
+	}
+	
+	private static final class BeanStep extends Step {
+		
+		private final PropertyAccessor propertyAccessor;
+		
+		public BeanStep(final PropertyAccessor propertyAccessor) {
+			this.propertyAccessor = propertyAccessor;
+		}
+		
+		@Override
+		public Type getType() {
+			return this.propertyAccessor.getPropertyType();
+		}
+		
+		@Override
+		public Object getValue(final Object target, final Converters converters) {
+			return this.propertyAccessor.getValue(target);
+		}
+		
+		@Override
+		public int getInt(final Object target, final Converters converters) {
+			return this.propertyAccessor.getInt(target);
+		}
+		
+		@Override
+		public long getLong(final Object target, final Converters converters) {
+			return this.propertyAccessor.getLong(target);
+		}
+		
+		@Override
+		public double getDouble(final Object target, final Converters converters) {
+			return this.propertyAccessor.getDouble(target);
+		}
+		
+		@Override
+		public boolean getBoolean(final Object target, final Converters converters) {
+			return this.propertyAccessor.getBoolean(target);
+		}
+		
+	}
+	
+	private static final class ListStep extends Step {
+		
+		private final int index;
+		private final Type elementType;
+		
+		public ListStep(final int index, final Type elementType) {
+			this.index = index;
+			this.elementType = elementType;
+		}
+		
+		@Override
+		public Type getType() {
+			return this.elementType;
+		}
+		
+		@Override
+		public Object getValue(final Object target, final Converters converters) {
+			List<?> list = (List<?>) target;
+			if (this.index >= list.size()) {
+				return null;
+			}
+			return list.get(this.index);
+		}
+		
+	}
+	
+	/**
+	 * Elements of {@code int}, {@code long}, {@code double} and {@code boolean} arrays are read
+	 * without boxing by the typed getters.
+	 */
+	private static final class ArrayStep extends Step {
+		
+		private final int index;
+		private final Type elementType;
+		
+		public ArrayStep(final int index, final Type elementType) {
+			this.index = index;
+			this.elementType = elementType;
+		}
+		
+		@Override
+		public Type getType() {
+			return this.elementType;
+		}
+		
+		@Override
+		public Object getValue(final Object target, final Converters converters) {
+			if (this.index >= Array.getLength(target)) {
+				return null;
+			}
+			return Array.get(target, this.index);
+		}
+		
+		@Override
+		public int getInt(final Object target, final Converters converters) throws ConversionException {
+			if (target instanceof int[]) {
+				return ((int[]) target)[checkIndex(((int[]) target).length)];
+			}
+			return super.getInt(target, converters);
+		}
+		
+		@Override
+		public long getLong(final Object target, final Converters converters) throws ConversionException {
+			if (target instanceof long[]) {
+				return ((long[]) target)[checkIndex(((long[]) target).length)];
+			}
+			return super.getLong(target, converters);
+		}
+		
+		@Override
+		public double getDouble(final Object target, final Converters converters) throws ConversionException {
+			if (target instanceof double[]) {
+				return ((double[]) target)[checkIndex(((double[]) target).length)];
+			}
+			return super.getDouble(target, converters);
+		}
+		
+		@Override
+		public boolean getBoolean(final Object target, final Converters converters) throws ConversionException {
+			if (target instanceof boolean[]) {
+				return ((boolean[]) target)[checkIndex(((boolean[]) target).length)];
+			}
+			return super.getBoolean(target, converters);
+		}
+		
+		private int checkIndex(final int length) {
+			if (this.index >= length) {
+				throw new PropertyException("Index " + this.index + " is out of bounds for an array of length " + length);
+			}
+			return this.index;
+		}
+		
+	}
+	
+	private static final class MapStep extends Step {
+		
+		private final ConvertedKey key;
+		private final Type valueType;
+		
+		public MapStep(final String key, final Class<?> keyType, final Type valueType) {
+			this.key = new ConvertedKey(key, keyType);
+			this.valueType = valueType;
+		}
+		
+		@Override
+		public Type getType() {
+			return this.valueType;
+		}
+		
+		@Override
+		public Object getValue(final Object target, final Converters converters) throws ConversionException {
+			return ((Map<?, ?>) target).get(this.key.getValue(converters));
+		}
+		
+	}
+	
+	private static final class SetStep extends Step {
+		
+		private final ConvertedKey element;
+		private final Type elementType;
+		
+		public SetStep(final String element, final Type elementType) {
+			this.element = new ConvertedKey(element, ReflectionUtils.getClass(elementType));
+			this.elementType = elementType;
+		}
+		
+		@Override
+		public Type getType() {
+			return this.elementType;
+		}
+		
+		@Override
+		public Object getValue(final Object target, final Converters converters) throws ConversionException {
+			return SetWrapper.getElement((Set<?>) target, this.element.getValue(converters));
+		}
+		
+	}
+	
+}
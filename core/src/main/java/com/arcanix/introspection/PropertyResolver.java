@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import com.arcanix.introspection.metrics.Metrics;
+
+/**
+ * Single-pass scanner turning an expression such as {@code customer.addresses[0].city}
+ * into a {@link Property} chain. Nothing is allocated besides the resulting nodes and
+ * the name and key strings they hold.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class PropertyResolver {
+	
+	private static final char NESTED = Property.NESTED.charAt(0);
+	private static final char INDEXED_START = Property.INDEXED_START.charAt(0);
+	private static final char INDEXED_END = Property.INDEXED_END.charAt(0);
+	private static final char MAPPED_START = Property.MAPPED_START.charAt(0);
+	private static final char MAPPED_END = Property.MAPPED_END.charAt(0);
+	
+	private boolean isIndexed(final String property) {
+		if (property == null || property.length() == 0) {
+			return false;
+		}
+		int end = property.length() - 1;
+		if (property.charAt(end) != INDEXED_END) {
+			return false;
+		}
+		int start = end - 1;
+		while (start >= 0 && isDigit(property.charAt(start))) {
+			start--;
+		}
+		return start >= 0 && start < end - 1 && property.charAt(start) == INDEXED_START;
+	}
+	
+	public boolean isMapped(final String property) {
+		if (property == null || property.length() == 0) {
+			return false;
+		}
+		return property.charAt(property.length() - 1) == MAPPED_END
+				&& property.indexOf(MAPPED_START) >= 0;
+	}
+	
+	public Integer getIndex(final String property) {
+		if (isIndexed(property)) {
+			int start = property.indexOf(INDEXED_START);
+			return Integer.valueOf(parseIndex(property, start + 1, property.indexOf(INDEXED_END, start)));
+		}
+		return null;		
+	}
+	
+	public String getKey(final String property) {
+		if (isMapped(property)) {
+			return property.substring(
+					property.indexOf(MAPPED_START) + 1,
+					property.indexOf(MAPPED_END));
+		}
+		return null;
+	}
+	
+	public String getProperty(final String property) {
+		if (property == null) {
+			return null;
+		}
+		return property.substring(0, scanName(property, 0));
+	}
+	
+	public PropertyPath compile(final String nestedProperty) {
+		return new PropertyPath(nestedProperty, resolve(nestedProperty, null));
+	}
+	
+	public Property resolve(final String nestedProperty, final String value) {
+		if (nestedProperty == null) {
+			throw new NullPointerException("Nested property cannot be null");
+		}
+		if (!Metrics.isEnabled()) {
+			return resolveProperty(nestedProperty, value, 0);
+		}
+		long start = System.nanoTime();
+		Property property = resolveProperty(nestedProperty, value, 0);
+		Metrics.getMetrics().expressionParsed(nestedProperty, System.nanoTime() - start);
+		return property;
+	}
+	
+	private Property resolveProperty(final String expression, final String value, final int start) {
+		int end = scanName(expression, start);
+		if (end == start) {
+			throw invalidExpression(expression, "expected property name", start);
+		}
+		if (end < expression.length()
+				&& (expression.charAt(end) == INDEXED_END || expression.charAt(end) == MAPPED_END)) {
+			throw invalidExpression(expression, "unexpected '" + expression.charAt(end) + "'", end);
+		}
+		
+		String name = expression.substring(start, end);
+		return new Property(value, name, null, null, resolveCollectionProperties(expression, value, name, end));
+	}
+	
+	private Property resolveCollectionProperties(
+			final String expression,
+			final String value,
+			final String name,
+			final int position) {
+		
+		if (position == expression.length()) {
+			return null;
+		}
+		
+		char c = expression.charAt(position);
+		if (c == NESTED) {
+			return resolveProperty(expression, value, position + 1);
+		} else if (c == INDEXED_START) {
+			int end = position + 1;
+			while (end < expression.length() && isDigit(expression.charAt(end))) {
+				end++;
+			}
+			if (end == position + 1) {
+				throw invalidExpression(expression, "expected index", end);
+			}
+			if (end == expression.length() || expression.charAt(end) != INDEXED_END) {
+				throw invalidExpression(expression, "expected '" + INDEXED_END + "'", end);
+			}
+			Integer index = Integer.valueOf(parseIndex(expression, position + 1, end));
+			return new Property(value, name, index, null, resolveCollectionProperties(expression, value, name, end + 1));
+		} else if (c == MAPPED_START) {
+			int end = expression.indexOf(MAPPED_END, position + 1);
+			if (end < 0) {
+				throw invalidExpression(expression, "expected '" + MAPPED_END + "'", expression.length());
+			}
+			String key = expression.substring(position + 1, end);
+			return new Property(value, name, null, key, resolveCollectionProperties(expression, value, name, end + 1));
+		}
+		throw invalidExpression(expression, "unexpected '" + c + "'", position);
+	}
+	
+	private static int scanName(final String expression, final int start) {
+		int end = start;
+		while (end < expression.length()) {
+			char c = expression.charAt(end);
+			if (c == NESTED || c == INDEXED_START || c == INDEXED_END || c == MAPPED_START || c == MAPPED_END) {
+				break;
+			}
+			end++;
+		}
+		return end;
+	}
+	
+	private static int parseIndex(final String expression, final int start, final int end) {
+		int index = 0;
+		for (int i = start; i < end; i++) {
+			int digit = expression.charAt(i) - '0';
+			if (index > (Integer.MAX_VALUE - digit) / 10) {
+				throw invalidExpression(expression, "index out of range", start);
+			}
+			index = index * 10 + digit;
+		}
+		return index;
+	}
+	
+	private static boolean isDigit(final char c) {
+		return c >= '0' && c <= '9';
+	}
+	
+	private static PropertyException invalidExpression(
+			final String expression,
+			final String message,
+			final int position) {
+		
+		return new PropertyException("Invalid property expression '" + expression + "': "
+				+ message + " at position " + position);
+	}
+	
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prefix tree merging several nested property expressions so that shared
+ * intermediates, i.e.: {@code order.customer} in {@code order.customer.name} and
+ * {@code order.customer.email}, are only visited once. Children are kept in
+ * insertion order.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class PropertyTree {
+
+	private final Map<Segment, PropertyTree> children = new LinkedHashMap<>();
+	private Property property;
+	private boolean leaf;
+	
+	public PropertyTree() {
+		this(null);
+	}
+	
+	private PropertyTree(final Property property) {
+		this.property = property;
+	}
+	
+	public void add(final PropertyPath propertyPath, final String value) {
+		PropertyTree tree = this;
+		Property property = propertyPath.getProperty();
+		while (property != null) {
+			Segment segment = new Segment(property);
+			PropertyTree child = tree.children.get(segment);
+			if (child == null) {
+				// intermediates carry the value of the first expression going through them
+				child = new PropertyTree(unlink(property, value));
+				tree.children.put(segment, child);
+			}
+			if (property.getNextProperty() == null) {
+				child.property = unlink(property, value);
+				child.leaf = true;
+			}
+			tree = child;
+			property = property.getNextProperty();
+		}
+	}
+	
+	/**
+	 * @return the property of this node without any next property, {@code null} for the root
+	 */
+	public Property getProperty() {
+		return this.property;
+	}
+	
+	/**
+	 * @return whether an expression ends on this node
+	 */
+	public boolean isLeaf() {
+		return this.leaf;
+	}
+	
+	public boolean hasChildren() {
+		return !this.children.isEmpty();
+	}
+	
+	public int getChildCount() {
+		return this.children.size();
+	}
+	
+	public Collection<PropertyTree> getChildren() {
+		return this.children.values();
+	}
+	
+	private static Property unlink(final Property property, final String value) {
+		return new Property(value, property.getName(), property.getIndex(), property.getKey(), null);
+	}
+	
+	private static final class Segment {
+		
+		private final String name;
+		private final Integer index;
+		private final String key;
+		
+		public Segment(final Property property) {
+			this.name = property.getName();
+			this.index = property.getIndex();
+			this.key = property.getKey();
+		}
+		
+		@Override
+		public int hashCode() {
+			int hash = this.name == null ? 0 : this.name.hashCode();
+			hash = 31 * hash + (this.index == null ? 0 : this.index.hashCode());
+			return 31 * hash + (this.key == null ? 0 : this.key.hashCode());
+		}
+		
+		@Override
+		public boolean equals(final Object object) {
+			if (this == object) {
+				return true;
+			}
+			if (!(object instanceof Segment)) {
+				return false;
+			}
+			Segment other = (Segment) object;
+			return equals(this.name, other.name) && equals(this.index, other.index) && equals(this.key, other.key);
+		}
+		
+		private static boolean equals(final Object first, final Object second) {
+			return first == null ? second == null : first.equals(second);
+		}
+		
+	}
+	
+}
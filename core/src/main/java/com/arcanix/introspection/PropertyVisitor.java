@@ -0,0 +1,31 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+/**
+ * Receives the leaf values of a bean graph flattened by {@link PropertyFlattener}.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public interface PropertyVisitor {
+
+	/**
+	 * @param expression nested property expression of the value, as produced by {@link Property#toExpression()}
+	 * @param value the value, {@code null} for null leaves and null intermediates
+	 */
+	void visitProperty(String expression, Object value);
+	
+}
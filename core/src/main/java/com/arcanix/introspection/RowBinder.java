@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.metrics.Metrics;
+import com.arcanix.introspection.util.CsvReader;
+import com.arcanix.introspection.wrapper.PropertyWrapper;
+import com.arcanix.introspection.wrapper.PropertyWrapperFactory;
+
+/**
+ * Binds tabular rows to new beans. The header, one nested property expression per column,
+ * is compiled once; each row then only binds its cells to the compiled paths. Empty cells
+ * are skipped, leaving the property, and any intermediate leading to it, untouched.
+ * Conversion failures are reported with the column, and the line when read from a
+ * {@link CsvReader}, of the offending cell.
+ * 
+ * <p>Binders are immutable and can be shared between threads.</p>
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class RowBinder<T> {
+
+	private final Class<T> beanClass;
+	private final PropertyWrapper beanWrapper;
+	private final PropertyPath[] columns;
+	private final Converters converters;
+	
+	public RowBinder(final Class<T> beanClass, final String[] header) {
+		this(beanClass, header, Converters.getDefaultConverters());
+	}
+	
+	public RowBinder(final Class<T> beanClass, final String[] header, final Converters converters) {
+		if (beanClass == null) {
+			throw new NullPointerException("Bean class cannot be null");
+		}
+		if (header == null) {
+			throw new NullPointerException("Header cannot be null");
+		}
+		if (converters == null) {
+			throw new NullPointerException("Converters cannot be null");
+		}
+		this.beanClass = beanClass;
+		this.beanWrapper = PropertyWrapperFactory.getPropertyWrapper(beanClass);
+		this.converters = converters;
+		
+		PropertyResolver resolver = new PropertyResolver();
+		this.columns = new PropertyPath[header.length];
+		for (int i = 0; i < header.length; i++) {
+			this.columns[i] = resolver.compile(header[i].trim());
+		}
+	}
+	
+	/**
+	 * Reads the header from the first row of the given input, then binds the remaining rows.
+	 * 
+	 * @return the number of rows bound
+	 */
+	public static <T> long bindCsv(
+			final Class<T> beanClass,
+			final Reader reader,
+			final Converters converters,
+			final RowHandler<? super T> rowHandler) throws IOException, ConversionException {
+		
+		CsvReader csvReader = new CsvReader(reader);
+		String[] header = csvReader.readRow();
+		if (header == null) {
+			return 0;
+		}
+		return new RowBinder<>(beanClass, header, converters).bindRows(csvReader, rowHandler);
+	}
+	
+	public static <T> long bindCsv(
+			final Class<T> beanClass,
+			final ReadableByteChannel channel,
+			final Charset charset,
+			final Converters converters,
+			final RowHandler<? super T> rowHandler) throws IOException, ConversionException {
+		
+		return bindCsv(beanClass, Channels.newReader(channel, charset.newDecoder(), -1), converters, rowHandler);
+	}
+	
+	public Class<T> getBeanClass() {
+		return this.beanClass;
+	}
+	
+	public int getColumnCount() {
+		return this.columns.length;
+	}
+	
+	/**
+	 * @return the number of rows bound
+	 */
+	public long bindRows(final CsvReader csvReader, final RowHandler<? super T> rowHandler) throws IOException, ConversionException {
+		if (rowHandler == null) {
+			throw new NullPointerException("Row handler cannot be null");
+		}
+		long count = 0;
+		String[] row = csvReader.readRow();
+		while (row != null) {
+			if (row.length > this.columns.length) {
+				throw new PropertyException("Row on line " + csvReader.getRowLineNumber() + " has "
+						+ row.length + " cells, the header has " + this.columns.length);
+			}
+			T bean = this.beanClass.cast(this.beanWrapper.newInstance());
+			bindCells(bean, row, csvReader.getRowLineNumber());
+			rowHandler.handleRow(bean);
+			count++;
+			row = csvReader.readRow();
+		}
+		return count;
+	}
+	
+	public T bindRow(final String[] row) throws ConversionException {
+		T bean = this.beanClass.cast(this.beanWrapper.newInstance());
+		bindRow(bean, row);
+		return bean;
+	}
+	
+	/**
+	 * Binds the cells of the given row, missing trailing cells are treated as empty.
+	 */
+	public void bindRow(final T bean, final String[] row) throws ConversionException {
+		bindCells(bean, row, -1);
+	}
+	
+	/**
+	 * @param lineNumber the line of the row, -1 when unknown
+	 */
+	private void bindCells(final T bean, final String[] row, final long lineNumber) throws ConversionException {
+		if (!Metrics.isEnabled()) {
+			bindCellsUntimed(bean, row, lineNumber);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			bindCellsUntimed(bean, row, lineNumber);
+		} finally {
+			Metrics.getMetrics().beanBound(this.beanClass, System.nanoTime() - start);
+		}
+	}
+	
+	private void bindCellsUntimed(final T bean, final String[] row, final long lineNumber) throws ConversionException {
+		int cellCount = Math.min(row.length, this.columns.length);
+		for (int i = 0; i < cellCount; i++) {
+			String cell = row[i];
+			if (cell != null && !cell.isEmpty()) {
+				try {
+					this.beanWrapper.setProperty(bean, this.columns[i].bind(cell), this.converters);
+				} catch (ConversionException e) {
+					throw new ConversionException("Cannot bind '" + cell + "' to column " + (i + 1)
+							+ " (" + this.columns[i].getExpression() + ")"
+							+ (lineNumber >= 0 ? " on line " + lineNumber : ""), e);
+				}
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,335 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.metrics.Metrics;
+
+/**
+ * Conversion of string values to a single target type, bound once per type and
+ * {@link Converters} instance so writes no longer resolve the target type per call.
+ * Values bound to {@code String} are passed through without conversion.
+ * <p>
+ * Numbers and booleans in their plain form are parsed directly: an optional minus sign
+ * followed by ASCII digits for integers, with an optional fraction for doubles, and the
+ * lowercase {@code true} and {@code false} for booleans. Every other value, including
+ * exponents, signs, hexadecimal, {@code NaN}, {@code Infinity}, type suffixes, surrounding
+ * whitespace and out of range numbers, is left to the {@link Converters}, so the values
+ * accepted are the same whichever path is taken.
+ * <p>
+ * Subclasses of {@link Converters} may change any conversion, such as trimming values or
+ * parsing localized numbers: with them, every value goes through the supplied instance.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public abstract class ValueConverter {
+
+	private static final ClassValue<BoundValueConverters> VALUE_CONVERTERS = new ClassValue<BoundValueConverters>() {
+		
+		@Override
+		protected BoundValueConverters computeValue(final Class<?> type) {
+			return new BoundValueConverters(type);
+		}
+		
+	};
+	
+	private final Class<?> type;
+	private final Converters converters;
+	
+	protected ValueConverter(final Class<?> type, final Converters converters) {
+		if (type == null) {
+			throw new NullPointerException("Type cannot be null");
+		}
+		if (converters == null) {
+			throw new NullPointerException("Converters cannot be null");
+		}
+		this.type = type;
+		this.converters = converters;
+	}
+	
+	public static ValueConverter getValueConverter(final Class<?> type, final Converters converters) {
+		return VALUE_CONVERTERS.get(type).getValueConverter(converters);
+	}
+	
+	public final Class<?> getType() {
+		return this.type;
+	}
+	
+	public final Converters getConverters() {
+		return this.converters;
+	}
+	
+	public abstract Object convert(String value) throws ConversionException;
+	
+	public int convertInt(final String value) throws ConversionException {
+		return toNumber(convert(value)).intValue();
+	}
+	
+	public long convertLong(final String value) throws ConversionException {
+		return toNumber(convert(value)).longValue();
+	}
+	
+	public double convertDouble(final String value) throws ConversionException {
+		return toNumber(convert(value)).doubleValue();
+	}
+	
+	public boolean convertBoolean(final String value) throws ConversionException {
+		Object converted = convert(value);
+		if (!(converted instanceof Boolean)) {
+			throw new PropertyException("Cannot convert " + value + " to " + this.type.getName());
+		}
+		return ((Boolean) converted).booleanValue();
+	}
+	
+	/**
+	 * Fallback for values the direct parsers reject, conversion errors are reported by the converters.
+	 */
+	protected final Object convertWithConverters(final String value) throws ConversionException {
+		if (!Metrics.isEnabled()) {
+			return this.converters.convert(this.type, value);
+		}
+		long start = System.nanoTime();
+		try {
+			return this.converters.convert(this.type, value);
+		} catch (ConversionException e) {
+			Metrics.getMetrics().conversionFailed(this.type, value, e);
+			throw e;
+		} finally {
+			Metrics.getMetrics().valueConverted(this.type, System.nanoTime() - start);
+		}
+	}
+	
+	protected final Number toNumber(final Object converted) {
+		if (!(converted instanceof Number)) {
+			throw new PropertyException("Cannot convert " + converted + " to " + this.type.getName());
+		}
+		return (Number) converted;
+	}
+	
+	/**
+	 * @return whether the value is an optional minus sign followed by ASCII digits and, when
+	 *         allowed, a fraction with digits on both sides of the point
+	 */
+	static boolean isPlainNumber(final String value, final boolean fraction) {
+		if (value == null) {
+			return false;
+		}
+		int length = value.length();
+		int i = length > 0 && value.charAt(0) == '-' ? 1 : 0;
+		int digits = 0;
+		while (i < length && isDigit(value.charAt(i))) {
+			i++;
+			digits++;
+		}
+		if (digits == 0) {
+			return false;
+		}
+		if (i < length && fraction && value.charAt(i) == '.') {
+			i++;
+			int fractionDigits = 0;
+			while (i < length && isDigit(value.charAt(i))) {
+				i++;
+				fractionDigits++;
+			}
+			if (fractionDigits == 0) {
+				return false;
+			}
+		}
+		return i == length;
+	}
+	
+	private static boolean isDigit(final char c) {
+		return c >= '0' && c <= '9';
+	}
+	
+	private static ValueConverter createValueConverter(final Class<?> type, final Converters converters) {
+		if (converters.getClass() != Converters.class) {
+			return new DefaultValueConverter(type, converters);
+		}
+		if (type == String.class) {
+			return new StringValueConverter(converters);
+		} else if (type == int.class || type == Integer.class) {
+			return new IntValueConverter(type, converters);
+		} else if (type == long.class || type == Long.class) {
+			return new LongValueConverter(type, converters);
+		} else if (type == double.class || type == Double.class) {
+			return new DoubleValueConverter(type, converters);
+		} else if (type == boolean.class || type == Boolean.class) {
+			return new BooleanValueConverter(type, converters);
+		}
+		return new DefaultValueConverter(type, converters);
+	}
+	
+	private static final class StringValueConverter extends ValueConverter {
+		
+		public StringValueConverter(final Converters converters) {
+			super(String.class, converters);
+		}
+		
+		@Override
+		public Object convert(final String value) {
+			return value;
+		}
+		
+	}
+	
+	private static final class IntValueConverter extends ValueConverter {
+		
+		public IntValueConverter(final Class<?> type, final Converters converters) {
+			super(type, converters);
+		}
+		
+		@Override
+		public Object convert(final String value) throws ConversionException {
+			if (value == null) {
+				return convertWithConverters(value);
+			}
+			return Integer.valueOf(convertInt(value));
+		}
+		
+		@Override
+		public int convertInt(final String value) throws ConversionException {
+			if (isPlainNumber(value, false)) {
+				try {
+					return Integer.parseInt(value);
+				} catch (NumberFormatException e) {
+					// out of range, reported by the converters
+				}
+			}
+			return toNumber(convertWithConverters(value)).intValue();
+		}
+		
+	}
+	
+	private static final class LongValueConverter extends ValueConverter {
+		
+		public LongValueConverter(final Class<?> type, final Converters converters) {
+			super(type, converters);
+		}
+		
+		@Override
+		public Object convert(final String value) throws ConversionException {
+			if (value == null) {
+				return convertWithConverters(value);
+			}
+			return Long.valueOf(convertLong(value));
+		}
+		
+		@Override
+		public long convertLong(final String value) throws ConversionException {
+			if (isPlainNumber(value, false)) {
+				try {
+					return Long.parseLong(value);
+				} catch (NumberFormatException e) {
+					// out of range, reported by the converters
+				}
+			}
+			return toNumber(convertWithConverters(value)).longValue();
+		}
+		
+	}
+	
+	private static final class DoubleValueConverter extends ValueConverter {
+		
+		public DoubleValueConverter(final Class<?> type, final Converters converters) {
+			super(type, converters);
+		}
+		
+		@Override
+		public Object convert(final String value) throws ConversionException {
+			if (value == null) {
+				return convertWithConverters(value);
+			}
+			return Double.valueOf(convertDouble(value));
+		}
+		
+		@Override
+		public double convertDouble(final String value) throws ConversionException {
+			if (isPlainNumber(value, true)) {
+				return Double.parseDouble(value);
+			}
+			return toNumber(convertWithConverters(value)).doubleValue();
+		}
+		
+	}
+	
+	private static final class BooleanValueConverter extends ValueConverter {
+		
+		public BooleanValueConverter(final Class<?> type, final Converters converters) {
+			super(type, converters);
+		}
+		
+		@Override
+		public Object convert(final String value) throws ConversionException {
+			if ("true".equals(value)) {
+				return Boolean.TRUE;
+			} else if ("false".equals(value)) {
+				return Boolean.FALSE;
+			}
+			return convertWithConverters(value);
+		}
+		
+		@Override
+		public boolean convertBoolean(final String value) throws ConversionException {
+			if ("true".equals(value)) {
+				return true;
+			} else if ("false".equals(value)) {
+				return false;
+			}
+			return super.convertBoolean(value);
+		}
+		
+	}
+	
+	private static final class DefaultValueConverter extends ValueConverter {
+		
+		public DefaultValueConverter(final Class<?> type, final Converters converters) {
+			super(type, converters);
+		}
+		
+		@Override
+		public Object convert(final String value) throws ConversionException {
+			return convertWithConverters(value);
+		}
+		
+	}
+	
+	/**
+	 * Remembers the converter of the last {@link Converters} instance used with a type,
+	 * applications rarely use more than one.
+	 */
+	private static final class BoundValueConverters {
+		
+		private final Class<?> type;
+		private volatile ValueConverter valueConverter;
+		
+		public BoundValueConverters(final Class<?> type) {
+			this.type = type;
+		}
+		
+		public ValueConverter getValueConverter(final Converters converters) {
+			ValueConverter valueConverter = this.valueConverter;
+			if (valueConverter == null || valueConverter.getConverters() != converters) {
+				valueConverter = createValueConverter(this.type, converters);
+				this.valueConverter = valueConverter;
+			}
+			return valueConverter;
+		}
+		
+	}
+	
+}
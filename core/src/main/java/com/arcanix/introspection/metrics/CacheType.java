@@ -0,0 +1,45 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.metrics;
+
+/**
+ * Metadata caches reporting their hits and misses.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public enum CacheType {
+
+	/**
+	 * Compiled property expressions, see {@code PropertyPathCache}.
+	 */
+	PROPERTY_PATH,
+	
+	/**
+	 * Compiled property readers, per bean class and expression.
+	 */
+	PROPERTY_READER,
+	
+	/**
+	 * Default bean mappers, per pair of classes.
+	 */
+	BEAN_MAPPER,
+	
+	/**
+	 * Class metadata. It is attached to the classes themselves, only its misses are reported.
+	 */
+	BEAN_INFO
+	
+}
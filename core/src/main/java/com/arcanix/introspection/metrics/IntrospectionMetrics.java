@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.metrics;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.introspection.PropertyPath;
+
+/**
+ * Service provider interface receiving the measurements of the library. Implementations are
+ * called from the binding hot paths, from any thread, and must be thread safe and cheap. They
+ * are installed with {@link Metrics#setMetrics(IntrospectionMetrics)} or registered as a
+ * {@link java.util.ServiceLoader} service, all of them are reported to. Times are in nanoseconds.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public interface IntrospectionMetrics {
+
+	/**
+	 * Called before each measured operation, callers skip timing and reporting when no installed
+	 * implementation is enabled. Implementations reporting elsewhere, such as to a recording that
+	 * may not be running, return whether they currently want measurements.
+	 */
+	boolean isEnabled();
+	
+	void expressionParsed(String expression, long nanos);
+	
+	/**
+	 * Called once per class when its properties are introspected.
+	 */
+	void metadataBuilt(Class<?> beanClass, long nanos);
+	
+	void cacheHit(CacheType cacheType);
+	
+	void cacheMiss(CacheType cacheType);
+	
+	void wrapperCreated(Class<?> wrapperClass);
+	
+	/**
+	 * Called for each read or write invoking a property accessor method handle.
+	 */
+	void accessorInvoked();
+	
+	/**
+	 * Called for the conversions delegated to the {@code Converters}, direct parses of strings,
+	 * numbers and booleans are not reported.
+	 */
+	void valueConverted(Class<?> targetType, long nanos);
+	
+	void conversionFailed(Class<?> targetType, String value, ConversionException e);
+	
+	/**
+	 * Called by {@code BeanUtils.setNestedProperty} for each expression written, with its
+	 * compiled path.
+	 */
+	void propertyWritten(Class<?> beanClass, PropertyPath path, long nanos);
+	
+	/**
+	 * Called by {@code BeanUtils.getNestedProperty} and its typed variants for each expression
+	 * read, with its compiled path.
+	 */
+	void propertyRead(Class<?> beanClass, PropertyPath path, long nanos);
+	
+	/**
+	 * Called for each bean bound from several values at once: by
+	 * {@code BeanUtils.setNestedProperties}, thus for each record of {@code BeanUtils.bindAll},
+	 * and for each row of a {@code RowBinder}.
+	 */
+	void beanBound(Class<?> beanClass, long nanos);
+	
+}
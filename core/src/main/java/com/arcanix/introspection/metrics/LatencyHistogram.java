@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.metrics;
+
+/**
+ * Latency histogram with power of two buckets: bucket {@code i} counts the samples in
+ * {@code [2^(i-1), 2^i)} nanoseconds, bucket 0 the samples below one nanosecond. Buckets and
+ * the total time share one row of {@link StripedCells}, rows are only added for the threads
+ * that contend on the histogram.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class LatencyHistogram {
+
+	public static final int BUCKET_COUNT = 64;
+	
+	// column of the total time, following the buckets
+	private static final int TOTAL_NANOS = BUCKET_COUNT;
+	
+	private final StripedCells cells = new StripedCells(BUCKET_COUNT + 1);
+	
+	public void record(final long nanos) {
+		long value = Math.max(0L, nanos);
+		int bucket = BUCKET_COUNT - Long.numberOfLeadingZeros(value);
+		this.cells.add(Math.min(bucket, BUCKET_COUNT - 1), 1L);
+		this.cells.add(TOTAL_NANOS, value);
+	}
+	
+	/**
+	 * @return the number of samples per bucket
+	 */
+	public long[] getCounts() {
+		long[] counts = new long[BUCKET_COUNT];
+		System.arraycopy(this.cells.sums(), 0, counts, 0, BUCKET_COUNT);
+		return counts;
+	}
+	
+	public long getCount() {
+		long count = 0L;
+		for (long bucketCount : getCounts()) {
+			count += bucketCount;
+		}
+		return count;
+	}
+	
+	public long getTotalNanos() {
+		return this.cells.sum(TOTAL_NANOS);
+	}
+	
+	/**
+	 * @param percentile between 0 and 100
+	 * @return the upper bound in nanoseconds of the bucket holding the percentile, 0 when empty
+	 */
+	public long getPercentileUpperBound(final double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Percentile must be between 0 and 100");
+		}
+		long[] counts = getCounts();
+		long count = 0L;
+		for (long bucketCount : counts) {
+			count += bucketCount;
+		}
+		if (count == 0L) {
+			return 0L;
+		}
+		long rank = (long) Math.ceil(count * percentile / 100.0);
+		long seen = 0L;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= Math.max(1L, rank)) {
+				return i == BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << i;
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+	
+	public void reset() {
+		this.cells.reset();
+	}
+	
+	int getRowCount() {
+		return this.cells.getRowCount();
+	}
+	
+}
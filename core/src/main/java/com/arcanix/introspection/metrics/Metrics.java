@@ -0,0 +1,273 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.metrics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.introspection.PropertyPath;
+
+/**
+ * Holds the {@link IntrospectionMetrics} of the library: the implementations registered as
+ * {@link ServiceLoader} services, found at startup, and the one installed by the application.
+ * Measurements are reported to all of them, and only taken while at least one is enabled.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class Metrics {
+
+	private static final IntrospectionMetrics NOOP = new NoOpMetrics();
+	
+	private static final List<IntrospectionMetrics> PROVIDERS = loadProviders();
+	
+	private static volatile IntrospectionMetrics metrics = combine(null);
+	
+	/**
+	 * Utility class. Can't instantiate.
+	 */
+	private Metrics() {
+		throw new AssertionError();
+	}
+	
+	public static IntrospectionMetrics getMetrics() {
+		return metrics;
+	}
+	
+	/**
+	 * Installs the metrics of the application, reported to along with the service providers.
+	 * 
+	 * @param introspectionMetrics the metrics to report to, {@code null} to only report to the
+	 *        service providers
+	 */
+	public static void setMetrics(final IntrospectionMetrics introspectionMetrics) {
+		metrics = combine(introspectionMetrics);
+	}
+	
+	/**
+	 * @return whether measurements are reported, callers skip timing otherwise
+	 */
+	public static boolean isEnabled() {
+		return metrics.isEnabled();
+	}
+	
+	private static IntrospectionMetrics combine(final IntrospectionMetrics introspectionMetrics) {
+		List<IntrospectionMetrics> allMetrics = new ArrayList<>(PROVIDERS);
+		if (introspectionMetrics != null) {
+			allMetrics.add(introspectionMetrics);
+		}
+		if (allMetrics.isEmpty()) {
+			return NOOP;
+		} else if (allMetrics.size() == 1) {
+			return allMetrics.get(0);
+		}
+		return new CompositeMetrics(allMetrics.toArray(new IntrospectionMetrics[allMetrics.size()]));
+	}
+	
+	private static List<IntrospectionMetrics> loadProviders() {
+		List<IntrospectionMetrics> providers = new ArrayList<>();
+		try {
+			Iterator<IntrospectionMetrics> iterator = ServiceLoader.load(
+					IntrospectionMetrics.class, Metrics.class.getClassLoader()).iterator();
+			while (iterator.hasNext()) {
+				providers.add(iterator.next());
+			}
+		} catch (ServiceConfigurationError e) {
+			// a broken provider leaves the others out rather than breaking binding
+			providers.clear();
+		}
+		return providers;
+	}
+	
+	/**
+	 * Reports to each of its metrics that is enabled.
+	 */
+	private static final class CompositeMetrics implements IntrospectionMetrics {
+		
+		private final IntrospectionMetrics[] metrics;
+		
+		public CompositeMetrics(final IntrospectionMetrics[] metrics) {
+			this.metrics = metrics;
+		}
+		
+		@Override
+		public boolean isEnabled() {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					return true;
+				}
+			}
+			return false;
+		}
+		
+		@Override
+		public void expressionParsed(final String expression, final long nanos) {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					introspectionMetrics.expressionParsed(expression, nanos);
+				}
+			}
+		}
+		
+		@Override
+		public void metadataBuilt(final Class<?> beanClass, final long nanos) {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					introspectionMetrics.metadataBuilt(beanClass, nanos);
+				}
+			}
+		}
+		
+		@Override
+		public void cacheHit(final CacheType cacheType) {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					introspectionMetrics.cacheHit(cacheType);
+				}
+			}
+		}
+		
+		@Override
+		public void cacheMiss(final CacheType cacheType) {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					introspectionMetrics.cacheMiss(cacheType);
+				}
+			}
+		}
+		
+		@Override
+		public void wrapperCreated(final Class<?> wrapperClass) {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					introspectionMetrics.wrapperCreated(wrapperClass);
+				}
+			}
+		}
+		
+		@Override
+		public void accessorInvoked() {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					introspectionMetrics.accessorInvoked();
+				}
+			}
+		}
+		
+		@Override
+		public void valueConverted(final Class<?> targetType, final long nanos) {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					introspectionMetrics.valueConverted(targetType, nanos);
+				}
+			}
+		}
+		
+		@Override
+		public void conversionFailed(final Class<?> targetType, final String value, final ConversionException e) {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					introspectionMetrics.conversionFailed(targetType, value, e);
+				}
+			}
+		}
+		
+		@Override
+		public void propertyWritten(final Class<?> beanClass, final PropertyPath path, final long nanos) {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					introspectionMetrics.propertyWritten(beanClass, path, nanos);
+				}
+			}
+		}
+		
+		@Override
+		public void propertyRead(final Class<?> beanClass, final PropertyPath path, final long nanos) {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					introspectionMetrics.propertyRead(beanClass, path, nanos);
+				}
+			}
+		}
+		
+		@Override
+		public void beanBound(final Class<?> beanClass, final long nanos) {
+			for (IntrospectionMetrics introspectionMetrics : this.metrics) {
+				if (introspectionMetrics.isEnabled()) {
+					introspectionMetrics.beanBound(beanClass, nanos);
+				}
+			}
+		}
+		
+	}
+	
+	private static final class NoOpMetrics implements IntrospectionMetrics {
+		
+		@Override
+		public boolean isEnabled() {
+			return false;
+		}
+		
+		@Override
+		public void expressionParsed(final String expression, final long nanos) {
+		}
+		
+		@Override
+		public void metadataBuilt(final Class<?> beanClass, final long nanos) {
+		}
+		
+		@Override
+		public void cacheHit(final CacheType cacheType) {
+		}
+		
+		@Override
+		public void cacheMiss(final CacheType cacheType) {
+		}
+		
+		@Override
+		public void wrapperCreated(final Class<?> wrapperClass) {
+		}
+		
+		@Override
+		public void accessorInvoked() {
+		}
+		
+		@Override
+		public void valueConverted(final Class<?> targetType, final long nanos) {
+		}
+		
+		@Override
+		public void conversionFailed(final Class<?> targetType, final String value, final ConversionException e) {
+		}
+		
+		@Override
+		public void propertyWritten(final Class<?> beanClass, final PropertyPath path, final long nanos) {
+		}
+		
+		@Override
+		public void propertyRead(final Class<?> beanClass, final PropertyPath path, final long nanos) {
+		}
+		
+		@Override
+		public void beanBound(final Class<?> beanClass, final long nanos) {
+		}
+		
+	}
+	
+}
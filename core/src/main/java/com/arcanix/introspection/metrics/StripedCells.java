@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rows of atomic longs updated by concurrent threads. There is a single row to begin with;
+ * a thread whose update fails because of a concurrent one moves to another row and the rows
+ * are doubled, up to a power of two at least twice the number of processors. Memory thus
+ * only grows where threads actually contend. Reads sum the rows and are not atomic with
+ * respect to concurrent updates.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+final class StripedCells {
+
+	private static final int MAXIMUM_ROWS = getMaximumRows();
+	
+	// per thread row selector, changed whenever the thread contends
+	private static final ThreadLocal<int[]> PROBES = new ThreadLocal<int[]>() {
+		
+		@Override
+		protected int[] initialValue() {
+			// thread identifiers are sequential, mixing spreads neighbours over distinct rows
+			long id = Thread.currentThread().getId();
+			int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+			return new int[] { (hash ^ (hash >>> 16)) | 1 };
+		}
+	
+	};
+	
+	private final int width;
+	private volatile AtomicLongArray[] rows;
+	
+	/**
+	 * @param width the number of longs per row
+	 */
+	public StripedCells(final int width) {
+		this.width = width;
+		this.rows = new AtomicLongArray[] { new AtomicLongArray(width) };
+	}
+	
+	public void add(final int column, final long delta) {
+		AtomicLongArray[] rows = this.rows;
+		if (rows.length == 1) {
+			AtomicLongArray row = rows[0];
+			long value = row.get(column);
+			if (row.compareAndSet(column, value, value + delta)) {
+				return;
+			}
+			rows = grow(rows);
+		}
+		int[] probe = PROBES.get();
+		AtomicLongArray row = rows[probe[0] & (rows.length - 1)];
+		long value = row.get(column);
+		if (!row.compareAndSet(column, value, value + delta)) {
+			probe[0] = nextProbe(probe[0]);
+			rows = grow(rows);
+			rows[probe[0] & (rows.length - 1)].getAndAdd(column, delta);
+		}
+	}
+	
+	public long sum(final int column) {
+		long sum = 0L;
+		for (AtomicLongArray row : this.rows) {
+			sum += row.get(column);
+		}
+		return sum;
+	}
+	
+	/**
+	 * @return the sum of each column
+	 */
+	public long[] sums() {
+		long[] sums = new long[this.width];
+		for (AtomicLongArray row : this.rows) {
+			for (int i = 0; i < this.width; i++) {
+				sums[i] += row.get(i);
+			}
+		}
+		return sums;
+	}
+	
+	public void reset() {
+		for (AtomicLongArray row : this.rows) {
+			for (int i = 0; i < this.width; i++) {
+				row.set(i, 0L);
+			}
+		}
+	}
+	
+	int getRowCount() {
+		return this.rows.length;
+	}
+	
+	private AtomicLongArray[] grow(final AtomicLongArray[] rows) {
+		if (rows.length >= MAXIMUM_ROWS) {
+			return rows;
+		}
+		synchronized (this) {
+			AtomicLongArray[] currentRows = this.rows;
+			if (currentRows != rows) {
+				// grown by another thread meanwhile
+				return currentRows;
+			}
+			// existing rows are kept, updates made to them while growing are not lost
+			AtomicLongArray[] newRows = new AtomicLongArray[rows.length << 1];
+			System.arraycopy(rows, 0, newRows, 0, rows.length);
+			for (int i = rows.length; i < newRows.length; i++) {
+				newRows[i] = new AtomicLongArray(this.width);
+			}
+			this.rows = newRows;
+			return newRows;
+		}
+	}
+	
+	private static int nextProbe(final int probe) {
+		// xorshift
+		int next = probe ^ (probe << 13);
+		next ^= next >>> 17;
+		return next ^ (next << 5);
+	}
+	
+	static int getMaximumRows() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		int rows = 1;
+		while (rows < processors * 2) {
+			rows <<= 1;
+		}
+		return rows;
+	}
+
+}
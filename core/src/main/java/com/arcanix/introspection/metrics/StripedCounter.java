@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.metrics;
+
+/**
+ * Counter spreading its updates over cells owned by different threads, each on its own cache
+ * line, so that concurrent increments do not contend. Cells are added as threads contend, an
+ * uncontended counter holds a single one, see {@link StripedCells}. Reads sum the cells and are
+ * not atomic with respect to concurrent updates.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class StripedCounter {
+
+	// longs per 64 bytes cache line, the value of each cell is padded to one line
+	static final int PADDING = 8;
+	
+	private final StripedCells cells = new StripedCells(PADDING);
+	
+	public void increment() {
+		add(1L);
+	}
+	
+	public void add(final long delta) {
+		this.cells.add(0, delta);
+	}
+	
+	public long sum() {
+		return this.cells.sum(0);
+	}
+	
+	public void reset() {
+		this.cells.reset();
+	}
+	
+	int getCellCount() {
+		return this.cells.getRowCount();
+	}
+	
+	@Override
+	public String toString() {
+		return Long.toString(sum());
+	}
+
+}
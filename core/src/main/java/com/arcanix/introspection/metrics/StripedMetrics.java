@@ -0,0 +1,253 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.introspection.PropertyPath;
+
+/**
+ * {@link IntrospectionMetrics} aggregating the measurements in memory with striped counters, to
+ * be read back or exported by the application.
+ * <p>
+ * Latencies are kept per path shape, {@link PropertyPath#getShape()}, so that the elements of a
+ * list share their histogram. At most {@code maxPaths} shapes are kept, the following ones are
+ * aggregated under {@link #OTHER_PATHS}.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class StripedMetrics implements IntrospectionMetrics {
+
+	public static final String OTHER_PATHS = "*";
+	
+	private static final int DEFAULT_MAX_PATHS = 256;
+	
+	private final int maxPaths;
+	
+	private final LatencyHistogram expressionParses = new LatencyHistogram();
+	private final LatencyHistogram metadataBuilds = new LatencyHistogram();
+	private final StripedCounter conversionFailures = new StripedCounter();
+	private final StripedCounter accessorInvocations = new StripedCounter();
+	
+	private final Map<CacheType, StripedCounter> cacheHits = newCacheCounters();
+	private final Map<CacheType, StripedCounter> cacheMisses = newCacheCounters();
+	
+	private final ConcurrentMap<Class<?>, StripedCounter> wrapperCreations = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Class<?>, LatencyHistogram> conversions = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LatencyHistogram> writes = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, LatencyHistogram> reads = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Class<?>, LatencyHistogram> beanBinds = new ConcurrentHashMap<>();
+	
+	public StripedMetrics() {
+		this(DEFAULT_MAX_PATHS);
+	}
+	
+	public StripedMetrics(final int maxPaths) {
+		if (maxPaths < 0) {
+			throw new IllegalArgumentException("Maximum number of paths cannot be negative");
+		}
+		this.maxPaths = maxPaths;
+	}
+	
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+	
+	@Override
+	public void expressionParsed(final String expression, final long nanos) {
+		this.expressionParses.record(nanos);
+	}
+	
+	@Override
+	public void metadataBuilt(final Class<?> beanClass, final long nanos) {
+		this.metadataBuilds.record(nanos);
+	}
+	
+	@Override
+	public void cacheHit(final CacheType cacheType) {
+		this.cacheHits.get(cacheType).increment();
+	}
+	
+	@Override
+	public void cacheMiss(final CacheType cacheType) {
+		this.cacheMisses.get(cacheType).increment();
+	}
+	
+	@Override
+	public void wrapperCreated(final Class<?> wrapperClass) {
+		StripedCounter counter = this.wrapperCreations.get(wrapperClass);
+		if (counter == null) {
+			StripedCounter newCounter = new StripedCounter();
+			counter = this.wrapperCreations.putIfAbsent(wrapperClass, newCounter);
+			if (counter == null) {
+				counter = newCounter;
+			}
+		}
+		counter.increment();
+	}
+	
+	@Override
+	public void accessorInvoked() {
+		this.accessorInvocations.increment();
+	}
+	
+	@Override
+	public void valueConverted(final Class<?> targetType, final long nanos) {
+		getHistogram(this.conversions, targetType).record(nanos);
+	}
+	
+	@Override
+	public void conversionFailed(final Class<?> targetType, final String value, final ConversionException e) {
+		this.conversionFailures.increment();
+	}
+	
+	@Override
+	public void propertyWritten(final Class<?> beanClass, final PropertyPath path, final long nanos) {
+		getPathHistogram(this.writes, path.getShape()).record(nanos);
+	}
+	
+	@Override
+	public void propertyRead(final Class<?> beanClass, final PropertyPath path, final long nanos) {
+		getPathHistogram(this.reads, path.getShape()).record(nanos);
+	}
+	
+	@Override
+	public void beanBound(final Class<?> beanClass, final long nanos) {
+		getHistogram(this.beanBinds, beanClass).record(nanos);
+	}
+	
+	public LatencyHistogram getExpressionParses() {
+		return this.expressionParses;
+	}
+	
+	public LatencyHistogram getMetadataBuilds() {
+		return this.metadataBuilds;
+	}
+	
+	public long getConversionFailures() {
+		return this.conversionFailures.sum();
+	}
+	
+	public long getAccessorInvocations() {
+		return this.accessorInvocations.sum();
+	}
+	
+	public long getCacheHits(final CacheType cacheType) {
+		return this.cacheHits.get(cacheType).sum();
+	}
+	
+	public long getCacheMisses(final CacheType cacheType) {
+		return this.cacheMisses.get(cacheType).sum();
+	}
+	
+	/**
+	 * @return the number of wrappers created, per wrapper class
+	 */
+	public Map<Class<?>, Long> getWrapperCreations() {
+		Map<Class<?>, Long> creations = new HashMap<>();
+		for (Map.Entry<Class<?>, StripedCounter> entry : this.wrapperCreations.entrySet()) {
+			creations.put(entry.getKey(), entry.getValue().sum());
+		}
+		return creations;
+	}
+	
+	public Map<Class<?>, LatencyHistogram> getConversions() {
+		return Collections.unmodifiableMap(this.conversions);
+	}
+	
+	/**
+	 * @return the latencies of the writes, per path shape
+	 */
+	public Map<String, LatencyHistogram> getPropertyWrites() {
+		return Collections.unmodifiableMap(this.writes);
+	}
+	
+	/**
+	 * @return the latencies of the reads, per path shape
+	 */
+	public Map<String, LatencyHistogram> getPropertyReads() {
+		return Collections.unmodifiableMap(this.reads);
+	}
+	
+	/**
+	 * @return the latencies of the beans bound from several values at once, per bean class
+	 */
+	public Map<Class<?>, LatencyHistogram> getBeanBinds() {
+		return Collections.unmodifiableMap(this.beanBinds);
+	}
+	
+	/**
+	 * Clears the measurements. Measurements reported concurrently may be partially kept.
+	 */
+	public void reset() {
+		this.expressionParses.reset();
+		this.metadataBuilds.reset();
+		this.conversionFailures.reset();
+		this.accessorInvocations.reset();
+		for (CacheType cacheType : CacheType.values()) {
+			this.cacheHits.get(cacheType).reset();
+			this.cacheMisses.get(cacheType).reset();
+		}
+		this.wrapperCreations.clear();
+		this.conversions.clear();
+		this.writes.clear();
+		this.reads.clear();
+		this.beanBinds.clear();
+	}
+	
+	private LatencyHistogram getPathHistogram(
+			final ConcurrentMap<String, LatencyHistogram> histograms, final String shape) {
+		
+		LatencyHistogram histogram = histograms.get(shape);
+		if (histogram != null) {
+			return histogram;
+		}
+		if (histograms.size() >= this.maxPaths) {
+			return getHistogram(histograms, OTHER_PATHS);
+		}
+		return getHistogram(histograms, shape);
+	}
+	
+	private static <K> LatencyHistogram getHistogram(
+			final ConcurrentMap<K, LatencyHistogram> histograms, final K key) {
+		
+		LatencyHistogram histogram = histograms.get(key);
+		if (histogram == null) {
+			LatencyHistogram newHistogram = new LatencyHistogram();
+			histogram = histograms.putIfAbsent(key, newHistogram);
+			if (histogram == null) {
+				histogram = newHistogram;
+			}
+		}
+		return histogram;
+	}
+	
+	private static Map<CacheType, StripedCounter> newCacheCounters() {
+		Map<CacheType, StripedCounter> counters = new EnumMap<>(CacheType.class);
+		for (CacheType cacheType : CacheType.values()) {
+			counters.put(cacheType, new StripedCounter());
+		}
+		return counters;
+	}
+	
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of delimiter separated rows, quoted as described by RFC 4180: fields
+ * containing separators, quotes or line breaks are enclosed in double quotes, and quotes
+ * are escaped by doubling them. Blank lines are skipped. Rows are read through a fixed size
+ * buffer, memory does not grow with the length of the input.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class CsvReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final int NONE = -2;
+	private static final char QUOTE = '"';
+	
+	private final Reader reader;
+	private final char separator;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private final StringBuilder field = new StringBuilder();
+	private final List<String> fields = new ArrayList<>();
+	
+	private int position;
+	private int limit;
+	private int pushback = NONE;
+	private long lineNumber = 1;
+	private long rowLineNumber;
+	
+	public CsvReader(final Reader reader) {
+		this(reader, ',');
+	}
+	
+	public CsvReader(final Reader reader, final char separator) {
+		if (reader == null) {
+			throw new NullPointerException("Reader cannot be null");
+		}
+		if (separator == QUOTE || separator == '\r' || separator == '\n') {
+			throw new IllegalArgumentException("Invalid separator: " + separator);
+		}
+		this.reader = reader;
+		this.separator = separator;
+	}
+	
+	/**
+	 * @return the line the last row read started on, counting from 1
+	 */
+	public long getRowLineNumber() {
+		return this.rowLineNumber;
+	}
+	
+	/**
+	 * @return the fields of the next row, or {@code null} at the end of the input
+	 */
+	public String[] readRow() throws IOException {
+		int c = read();
+		while (c == '\r' || c == '\n') {
+			c = skipLineBreak(c);
+		}
+		if (c == -1) {
+			return null;
+		}
+		
+		this.fields.clear();
+		this.field.setLength(0);
+		boolean quoted = false;
+		boolean fieldStart = true;
+		this.rowLineNumber = this.lineNumber;
+		
+		while (true) {
+			if (quoted) {
+				if (c == -1) {
+					throw new IOException("Unterminated quoted field starting on line " + this.rowLineNumber);
+				}
+				if (c == QUOTE) {
+					c = read();
+					if (c != QUOTE) {
+						// closing quote, the current character belongs to the unquoted part
+						quoted = false;
+						continue;
+					}
+				} else if (c == '\n') {
+					this.lineNumber++;
+				}
+				this.field.append((char) c);
+			} else if (c == QUOTE && fieldStart) {
+				quoted = true;
+				fieldStart = false;
+			} else if (c == this.separator) {
+				this.fields.add(this.field.toString());
+				this.field.setLength(0);
+				fieldStart = true;
+			} else if (c == '\r' || c == '\n') {
+				this.pushback = skipLineBreak(c);
+				break;
+			} else if (c == -1) {
+				break;
+			} else {
+				this.field.append((char) c);
+				fieldStart = false;
+			}
+			c = read();
+		}
+		this.fields.add(this.field.toString());
+		return this.fields.toArray(new String[this.fields.size()]);
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+	
+	/**
+	 * Consumes a line break, {@code \r\n} counting as a single one.
+	 * 
+	 * @return the character following the line break
+	 */
+	private int skipLineBreak(final int c) throws IOException {
+		this.lineNumber++;
+		int next = read();
+		if (c == '\r' && next == '\n') {
+			next = read();
+		}
+		return next;
+	}
+	
+	private int read() throws IOException {
+		if (this.pushback != NONE) {
+			int c = this.pushback;
+			this.pushback = NONE;
+			return c;
+		}
+		if (this.position == this.limit) {
+			int count = this.reader.read(this.buffer, 0, this.buffer.length);
+			while (count == 0) {
+				count = this.reader.read(this.buffer, 0, this.buffer.length);
+			}
+			if (count < 0) {
+				return -1;
+			}
+			this.position = 0;
+			this.limit = count;
+		}
+		return this.buffer[this.position++];
+	}
+	
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.util;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * Hash based {@link java.util.Set} mapping each element to itself, so the stored
+ * instance equal to a given object can be retrieved in constant time with
+ * {@link #get(Object)}. Created by default for sets bound by the
+ * {@link com.arcanix.introspection.wrapper.SetWrapper}, beans can also use it
+ * for their own sets to get constant time nested writes.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class IndexedSet<E> extends AbstractSet<E> implements Serializable {
+
+	private static final long serialVersionUID = 0L;
+	
+	private final HashMap<E, E> elements;
+	
+	public IndexedSet() {
+		this.elements = new HashMap<>();
+	}
+	
+	public IndexedSet(final int initialCapacity) {
+		this.elements = new HashMap<>(initialCapacity);
+	}
+	
+	public IndexedSet(final Collection<? extends E> collection) {
+		this.elements = new HashMap<>(Math.max((int) (collection.size() / .75f) + 1, 16));
+		addAll(collection);
+	}
+	
+	/**
+	 * @return the element of this set equal to the given object, {@code null} if none
+	 */
+	public E get(final Object object) {
+		return this.elements.get(object);
+	}
+	
+	@Override
+	public boolean add(final E element) {
+		if (this.elements.containsKey(element)) {
+			return false;
+		}
+		this.elements.put(element, element);
+		return true;
+	}
+	
+	@Override
+	public boolean remove(final Object object) {
+		if (!this.elements.containsKey(object)) {
+			return false;
+		}
+		this.elements.remove(object);
+		return true;
+	}
+	
+	@Override
+	public boolean contains(final Object object) {
+		return this.elements.containsKey(object);
+	}
+	
+	@Override
+	public Iterator<E> iterator() {
+		return this.elements.keySet().iterator();
+	}
+	
+	@Override
+	public int size() {
+		return this.elements.size();
+	}
+	
+	@Override
+	public void clear() {
+		this.elements.clear();
+	}
+	
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.util;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class ReflectionUtils {
+
+	/**
+	 * Utility class. Can't instantiate.
+	 */
+	private ReflectionUtils() {
+		throw new AssertionError();
+	}
+	
+    public static Class<?> getClass(final Type type) {
+        if (type instanceof Class<?>) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return getClass(((ParameterizedType) type).getRawType());
+        } else if (type instanceof GenericArrayType) {
+            Type componentType = ((GenericArrayType) type).getGenericComponentType();
+            Class<?> componentClass = getClass(componentType);
+            if (componentClass != null) {
+                return Array.newInstance(componentClass, 0).getClass();
+            }
+        }
+        return null;
+    }
+	
+	/**
+	 * @return the class of the given type, or of one of its type arguments, loaded by the most
+	 *         specific class loader. Values cached on that class are released together with all
+	 *         the class loaders the type refers to.
+	 */
+	public static Class<?> getAnchorClass(final Type type) {
+		Class<?> anchorClass = getAnchorClass(type, null);
+		return anchorClass != null ? anchorClass : Object.class;
+	}
+	
+	/**
+	 * @return the wrapper class of the given primitive class, the class itself otherwise
+	 */
+	public static Class<?> getBoxedClass(final Class<?> clazz) {
+		if (!clazz.isPrimitive()) {
+			return clazz;
+		} else if (clazz == int.class) {
+			return Integer.class;
+		} else if (clazz == long.class) {
+			return Long.class;
+		} else if (clazz == double.class) {
+			return Double.class;
+		} else if (clazz == boolean.class) {
+			return Boolean.class;
+		} else if (clazz == float.class) {
+			return Float.class;
+		} else if (clazz == short.class) {
+			return Short.class;
+		} else if (clazz == byte.class) {
+			return Byte.class;
+		} else if (clazz == char.class) {
+			return Character.class;
+		}
+		return Void.class;
+	}
+	
+	private static Class<?> getAnchorClass(final Type type, final Class<?> anchorClass) {
+		if (type instanceof Class<?>) {
+			Class<?> clazz = (Class<?>) type;
+			if (anchorClass == null || isDescendant(clazz.getClassLoader(), anchorClass.getClassLoader())) {
+				return clazz;
+			}
+			return anchorClass;
+		} else if (type instanceof ParameterizedType) {
+			ParameterizedType parameterizedType = (ParameterizedType) type;
+			Class<?> parameterizedAnchor = getAnchorClass(parameterizedType.getRawType(), anchorClass);
+			if (parameterizedType.getOwnerType() != null) {
+				parameterizedAnchor = getAnchorClass(parameterizedType.getOwnerType(), parameterizedAnchor);
+			}
+			for (Type typeArgument : parameterizedType.getActualTypeArguments()) {
+				parameterizedAnchor = getAnchorClass(typeArgument, parameterizedAnchor);
+			}
+			return parameterizedAnchor;
+		} else if (type instanceof GenericArrayType) {
+			return getAnchorClass(((GenericArrayType) type).getGenericComponentType(), anchorClass);
+		} else if (type instanceof WildcardType) {
+			WildcardType wildcardType = (WildcardType) type;
+			Class<?> wildcardAnchor = anchorClass;
+			for (Type bound : wildcardType.getUpperBounds()) {
+				wildcardAnchor = getAnchorClass(bound, wildcardAnchor);
+			}
+			for (Type bound : wildcardType.getLowerBounds()) {
+				wildcardAnchor = getAnchorClass(bound, wildcardAnchor);
+			}
+			return wildcardAnchor;
+		}
+		// type variables are resolved by the classes declaring them
+		return anchorClass;
+	}
+	
+	/**
+	 * @return whether the class loader is a strict descendant of the other one, all loaders
+	 *         descend from the bootstrap loader
+	 */
+	private static boolean isDescendant(final ClassLoader classLoader, final ClassLoader ancestor) {
+		if (classLoader == ancestor || classLoader == null) {
+			return false;
+		}
+		for (ClassLoader parent = classLoader.getParent(); parent != null; parent = parent.getParent()) {
+			if (parent == ancestor) {
+				return true;
+			}
+		}
+		return ancestor == null;
+	}
+	
+}
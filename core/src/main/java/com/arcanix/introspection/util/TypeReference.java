@@ -0,0 +1,43 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.util;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Captures a generic type through an anonymous subclass, i.e.:
+ * {@code new TypeReference<List<String>>() {}.getType()}.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public abstract class TypeReference<T> {
+
+	private final Type type;
+	
+	protected TypeReference() {
+		Type superclass = getClass().getGenericSuperclass();
+		if (!(superclass instanceof ParameterizedType)) {
+			throw new IllegalStateException("Type reference must be parameterized");
+		}
+		this.type = ((ParameterizedType) superclass).getActualTypeArguments()[0];
+	}
+	
+	public final Type getType() {
+		return this.type;
+	}
+	
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.PropertyTree;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public abstract class AbstractWrapper implements PropertyWrapper {
+
+	@Override
+	public final void setProperty(
+			final Object target,
+			final Property property,
+			final Converters converters) throws ConversionException {
+		
+		if (property == null) {
+			throw new NullPointerException("Property cannot be null");
+		}
+		PropertyWrapper nextWrapper = getPropertyWrapper(property);
+		if (property.getNextProperty() != null) {
+			Object nextTarget = getOrCreateValue(target, property, nextWrapper, converters, 0,
+					getRequiredLength(property.getNextProperty()), false);
+			nextWrapper.setProperty(nextTarget, property.getNextProperty(), converters);
+		} else if (nextWrapper.isContainer() && isEmbedded(property, nextWrapper)) {
+			// embedded wrappers (i.e.: map of lists or map of sets)
+			Object nextTarget = getOrCreateValue(target, property, nextWrapper, converters, 0, 0, false);
+			nextWrapper.setLocalProperty(nextTarget, property, converters);
+		} else {
+			setLocalProperty(target, property, converters);
+		}
+	}
+	
+	@Override
+	public final void setProperties(
+			final Object target,
+			final PropertyTree propertyTree,
+			final Converters converters) throws ConversionException {
+		
+		if (propertyTree == null) {
+			throw new NullPointerException("Property tree cannot be null");
+		}
+		prepareProperties(target, propertyTree);
+		for (PropertyTree child : propertyTree.getChildren()) {
+			Property property = child.getProperty();
+			if (child.isLeaf()) {
+				setProperty(target, property, converters);
+			}
+			if (child.hasChildren()) {
+				// shared intermediate, resolved (or created and sized) once for all of its children
+				PropertyWrapper nextWrapper = getPropertyWrapper(property);
+				int requiredLength = nextWrapper instanceof ArrayWrapper ? getRequiredLength(child) : 0;
+				Object nextTarget = getOrCreateValue(target, property, nextWrapper, converters,
+						child.getChildCount(), requiredLength, true);
+				nextWrapper.setProperties(nextTarget, child, converters);
+			}
+		}
+	}
+	
+	/**
+	 * Called once before the children of the given tree are set on the target, so that
+	 * containers can size themselves for the whole batch.
+	 */
+	protected void prepareProperties(final Object target, final PropertyTree propertyTree) {
+	}
+	
+	/**
+	 * Creates the missing intermediate of the given property.
+	 * 
+	 * @param expectedSize the number of properties about to be set on the intermediate, 0 when unknown
+	 */
+	protected Object newValue(final Property property, final PropertyWrapper nextWrapper, final int expectedSize) {
+		return nextWrapper.newInstance(expectedSize);
+	}
+	
+	@Override
+	public final Object getOrCreateValue(
+			final Object target,
+			final Property property,
+			final Converters converters,
+			final int expectedSize,
+			final int requiredLength) throws ConversionException {
+		
+		return getOrCreateValue(target, property, getPropertyWrapper(property), converters, expectedSize, requiredLength, false);
+	}
+	
+	/**
+	 * Intermediates are only written back to the target when they are created or, for arrays,
+	 * replaced by a longer copy. Existing ones are mutated in place.
+	 * 
+	 * @param requiredLength the length arrays must have for the indices about to be written
+	 * @param exactLength whether arrays grow to the required length exactly, as for a batch
+	 *        covering all of their indices, or geometrically, as for single writes
+	 */
+	private Object getOrCreateValue(
+			final Object target,
+			final Property property,
+			final PropertyWrapper nextWrapper,
+			final Converters converters,
+			final int expectedSize,
+			final int requiredLength,
+			final boolean exactLength) throws ConversionException {
+		
+		Object value = getValue(target, property, converters);
+		Object nextValue = value != null ? value : newValue(property, nextWrapper, expectedSize);
+		if (requiredLength > 0 && nextWrapper instanceof ArrayWrapper) {
+			nextValue = ((ArrayWrapper) nextWrapper).ensureLength(nextValue, requiredLength, exactLength);
+		}
+		if (nextValue != value) {
+			setLocalProperty(target, property, nextValue, converters);
+		}
+		return nextValue;
+	}
+	
+	/**
+	 * @return whether the leaf property is set on the container it designates rather than on its owner,
+	 *         arrays being written by index only: other array values are converted by their owner as a whole
+	 */
+	private static boolean isEmbedded(final Property property, final PropertyWrapper nextWrapper) {
+		return !(nextWrapper instanceof ArrayWrapper) || property.isIndexed();
+	}
+	
+	private static int getRequiredLength(final Property nextProperty) {
+		return nextProperty.isIndexed() ? nextProperty.getIndex().intValue() + 1 : 0;
+	}
+	
+	/**
+	 * @return the length covering all the indices of the children, so that a batch grows an array once
+	 */
+	private static int getRequiredLength(final PropertyTree propertyTree) {
+		int requiredLength = 0;
+		for (PropertyTree child : propertyTree.getChildren()) {
+			requiredLength = Math.max(requiredLength, getRequiredLength(child.getProperty()));
+		}
+		return requiredLength;
+	}
+	
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Type;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.PropertyException;
+import com.arcanix.introspection.ValueConverter;
+import com.arcanix.introspection.util.ReflectionUtils;
+
+/**
+ * Wrapper of an array type, written by index. Arrays cannot grow in place: the wrapper owning
+ * the array replaces it by a copy long enough for the indices about to be written. Single
+ * writes grow arrays by half their length at least, so that an array filled one index at a
+ * time is copied a logarithmic number of times, its trailing elements keeping their default
+ * value. A batch of writes grows an array once, to the exact length its indices need.
+ * Elements of {@code int}, {@code long}, {@code double} and {@code boolean} arrays are
+ * converted and stored without boxing.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class ArrayWrapper extends AbstractWrapper {
+
+	private final Class<?> arrayClass;
+	private final Type elementType;
+	private final Class<?> elementClass;
+	private final Object emptyArray;
+	private volatile PropertyWrapper elementWrapper;
+	private volatile ValueConverter elementConverter;
+	
+	public ArrayWrapper(final Type type) {
+		this.arrayClass = ReflectionUtils.getClass(type);
+		if (this.arrayClass == null || !this.arrayClass.isArray()) {
+			throw new IllegalArgumentException(type + " must be an array type");
+		}
+		this.elementType = type instanceof GenericArrayType
+				? ((GenericArrayType) type).getGenericComponentType()
+				: this.arrayClass.getComponentType();
+		this.elementClass = this.arrayClass.getComponentType();
+		// empty arrays are immutable and can be shared by all the owners
+		this.emptyArray = Array.newInstance(this.elementClass, 0);
+	}
+	
+	@Override
+	public Object newInstance() {
+		return this.emptyArray;
+	}
+	
+	@Override
+	public Object newInstance(final int expectedSize) {
+		return this.emptyArray;
+	}
+	
+	@Override
+	public boolean isContainer() {
+		return true;
+	}
+	
+	@Override
+	public Class<?> getTargetClass() {
+		return this.arrayClass;
+	}
+	
+	@Override
+	public Type getPropertyType(final Property property) {
+		return this.elementType;
+	}
+	
+	@Override
+	public PropertyWrapper getPropertyWrapper(final Property property) {
+		PropertyWrapper propertyWrapper = this.elementWrapper;
+		if (propertyWrapper == null) {
+			propertyWrapper = PropertyWrapperFactory.getPropertyWrapper(this.elementType);
+			this.elementWrapper = propertyWrapper;
+		}
+		return propertyWrapper;
+	}
+	
+	/**
+	 * @param exact whether the copy has the given length, or grows the array by half its length
+	 *        at least
+	 * @return the given array if it is long enough, a longer copy of it otherwise
+	 */
+	public Object ensureLength(final Object array, final int length, final boolean exact) {
+		int currentLength = Array.getLength(array);
+		if (currentLength >= length) {
+			return array;
+		}
+		int newLength = exact ? length : Math.max(length, currentLength + (currentLength >> 1));
+		Object copy = Array.newInstance(this.elementClass, newLength);
+		System.arraycopy(array, 0, copy, 0, currentLength);
+		return copy;
+	}
+	
+	@Override
+	public void setLocalProperty(
+			final Object target,
+			final Property property,
+			final Converters converters) throws ConversionException {
+		
+		int index = getIndex(target, property);
+		ValueConverter valueConverter = getElementConverter(converters);
+		String value = property.getValue();
+		if (this.elementClass == double.class) {
+			((double[]) target)[index] = valueConverter.convertDouble(value);
+		} else if (this.elementClass == int.class) {
+			((int[]) target)[index] = valueConverter.convertInt(value);
+		} else if (this.elementClass == long.class) {
+			((long[]) target)[index] = valueConverter.convertLong(value);
+		} else if (this.elementClass == boolean.class) {
+			((boolean[]) target)[index] = valueConverter.convertBoolean(value);
+		} else if (this.elementClass.isPrimitive()) {
+			Array.set(target, index, valueConverter.convert(value));
+		} else {
+			((Object[]) target)[index] = valueConverter.convert(value);
+		}
+	}
+	
+	@Override
+	public void setLocalProperty(
+			final Object target,
+			final Property property,
+			final Object value,
+			final Converters converters) {
+		
+		Array.set(target, getIndex(target, property), value);
+	}
+	
+	@Override
+	public Object getValue(final Object target, final Property property, final Converters converters) {
+		if (!property.isIndexed()) {
+			throw new IllegalArgumentException("Property must be indexed");
+		}
+		int index = property.getIndex().intValue();
+		if (index < 0 || index >= Array.getLength(target)) {
+			return null;
+		}
+		return Array.get(target, index);
+	}
+	
+	private ValueConverter getElementConverter(final Converters converters) {
+		ValueConverter valueConverter = this.elementConverter;
+		if (valueConverter == null || valueConverter.getConverters() != converters) {
+			valueConverter = ValueConverter.getValueConverter(this.elementClass, converters);
+			this.elementConverter = valueConverter;
+		}
+		return valueConverter;
+	}
+	
+	private static int getIndex(final Object array, final Property property) {
+		if (!property.isIndexed()) {
+			throw new PropertyException("Property " + property + " must be indexed");
+		}
+		int index = property.getIndex().intValue();
+		if (index < 0 || index >= Array.getLength(array)) {
+			throw new PropertyException("Index " + index + " is out of bounds for an array of length " + Array.getLength(array));
+		}
+		return index;
+	}
+	
+}
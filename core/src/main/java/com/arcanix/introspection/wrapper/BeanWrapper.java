@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.BeanInfoWrapper;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.util.ReflectionUtils;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class BeanWrapper extends AbstractWrapper implements PropertyWrapper {
+
+	private final Class<?> targetClass;
+	private final ConcurrentMap<String, PropertyWrapper> propertyWrappers = new ConcurrentHashMap<>();
+	
+	// introspected on first access, wrappers of simple leaf types are never introspected
+	private volatile BeanInfoWrapper beanInfoWrapper;
+	
+	public BeanWrapper(final Type type) {
+		this.targetClass = ReflectionUtils.getClass(type);
+	}
+	
+	@Override
+	public Class<?> getTargetClass() {
+		return this.targetClass;
+	}
+	
+	@Override
+	public boolean isContainer() {
+		return false;
+	}
+	
+	@Override
+	public Object newInstance() {
+		return getBeanInfoWrapper().newInstance();
+	}
+	
+	@Override
+	public Object newInstance(final int expectedSize) {
+		return newInstance();
+	}
+	
+	@Override
+	protected Object newValue(final Property property, final PropertyWrapper nextWrapper, final int expectedSize) {
+		if (nextWrapper.isContainer()) {
+			CollectionFactory collectionFactory = CollectionFactories.getCollectionFactory(this.targetClass, property.getName());
+			if (collectionFactory != null) {
+				return collectionFactory.newInstance(getPropertyType(property), expectedSize);
+			}
+		}
+		return nextWrapper.newInstance(expectedSize);
+	}
+	
+	@Override
+	public Type getPropertyType(final Property property) {
+		return getBeanInfoWrapper().getPropertyAccessor(property.getName()).getPropertyType();
+	}
+	
+	@Override
+	public PropertyWrapper getPropertyWrapper(final Property property) {
+		PropertyWrapper propertyWrapper = this.propertyWrappers.get(property.getName());
+		if (propertyWrapper == null) {
+			propertyWrapper = PropertyWrapperFactory.getPropertyWrapper(getPropertyType(property));
+			this.propertyWrappers.putIfAbsent(property.getName(), propertyWrapper);
+		}
+		return propertyWrapper;
+	}
+	
+	@Override
+	public void setLocalProperty(
+			final Object target,
+			final Property property,
+			final Converters converters) throws ConversionException {
+		
+		getBeanInfoWrapper().getPropertyAccessor(property.getName()).bindValue(target, property.getValue(), converters);
+	}
+	
+	@Override
+	public void setLocalProperty(
+			final Object target,
+			final Property property,
+			final Object value,
+			final Converters converters) {
+		
+		getBeanInfoWrapper().getPropertyAccessor(property.getName()).setValue(target, value);
+	}
+	
+	@Override
+	public Object getValue(final Object target, final Property property, final Converters converters) {
+		return getBeanInfoWrapper().getPropertyAccessor(property.getName()).getValue(target);
+	}
+	
+	private BeanInfoWrapper getBeanInfoWrapper() {
+		BeanInfoWrapper beanInfoWrapper = this.beanInfoWrapper;
+		if (beanInfoWrapper == null) {
+			beanInfoWrapper = BeanInfoWrapper.getBeanInfoWrapper(this.targetClass);
+			this.beanInfoWrapper = beanInfoWrapper;
+		}
+		return beanInfoWrapper;
+	}
+	
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.arcanix.introspection.Instantiators;
+import com.arcanix.introspection.util.IndexedSet;
+import com.arcanix.introspection.util.ReflectionUtils;
+
+/**
+ * Registry of the {@link CollectionFactory}s creating the missing containers of nested writes.
+ * Factories are registered per declared type, i.e.: {@code SortedMap.class}, or per bean
+ * property, the latter taking precedence. Registrations are attached to the declared class or
+ * bean class and collected with its class loader; factories registered for the classes of another
+ * class loader, such as the JDK collection interfaces, are kept until they are unregistered.
+ * <p>
+ * The default factories create the most specific of {@link ArrayList}, {@link IndexedSet},
+ * {@link HashMap}, their linked and sorted variants and {@link ConcurrentHashMap} assignable to
+ * the declared type, sized for the expected number of elements. Sets of enums and maps with enum
+ * keys are created as {@link EnumSet} and {@link EnumMap}. Other concrete declared types are
+ * created through {@link Instantiators}.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class CollectionFactories {
+
+	public static final CollectionFactory LIST_FACTORY = new ListFactory();
+	public static final CollectionFactory SET_FACTORY = new SetFactory();
+	public static final CollectionFactory MAP_FACTORY = new MapFactory();
+	
+	private static final ClassValue<Registrations> REGISTRATIONS = new ClassValue<Registrations>() {
+		
+		@Override
+		protected Registrations computeValue(final Class<?> type) {
+			return new Registrations();
+		}
+		
+	};
+	
+	// lookups are skipped until a first factory of each kind is registered
+	private static volatile boolean typeFactoriesRegistered;
+	private static volatile boolean propertyFactoriesRegistered;
+	
+	/**
+	 * Utility class. Can't instantiate.
+	 */
+	private CollectionFactories() {
+		throw new AssertionError();
+	}
+	
+	public static void register(final Class<?> declaredClass, final CollectionFactory collectionFactory) {
+		if (declaredClass == null) {
+			throw new NullPointerException("Declared class cannot be null");
+		}
+		if (collectionFactory == null) {
+			throw new NullPointerException("Collection factory cannot be null");
+		}
+		REGISTRATIONS.get(declaredClass).typeFactory = collectionFactory;
+		typeFactoriesRegistered = true;
+	}
+	
+	public static void register(
+			final Class<?> beanClass,
+			final String propertyName,
+			final CollectionFactory collectionFactory) {
+		
+		if (beanClass == null) {
+			throw new NullPointerException("Bean class cannot be null");
+		}
+		if (propertyName == null) {
+			throw new NullPointerException("Property name cannot be null");
+		}
+		if (collectionFactory == null) {
+			throw new NullPointerException("Collection factory cannot be null");
+		}
+		REGISTRATIONS.get(beanClass).propertyFactories.put(propertyName, collectionFactory);
+		propertyFactoriesRegistered = true;
+	}
+	
+	public static void unregister(final Class<?> declaredClass) {
+		REGISTRATIONS.get(declaredClass).typeFactory = null;
+	}
+	
+	public static void unregister(final Class<?> beanClass, final String propertyName) {
+		REGISTRATIONS.get(beanClass).propertyFactories.remove(propertyName);
+	}
+	
+	/**
+	 * @return the factory registered for the declared class, {@code null} if none
+	 */
+	public static CollectionFactory getCollectionFactory(final Class<?> declaredClass) {
+		if (!typeFactoriesRegistered) {
+			return null;
+		}
+		return REGISTRATIONS.get(declaredClass).typeFactory;
+	}
+	
+	/**
+	 * @return the factory registered for the property of the bean class, {@code null} if none
+	 */
+	public static CollectionFactory getCollectionFactory(final Class<?> beanClass, final String propertyName) {
+		if (!propertyFactoriesRegistered) {
+			return null;
+		}
+		return REGISTRATIONS.get(beanClass).propertyFactories.get(propertyName);
+	}
+	
+	/**
+	 * @return the initial capacity of a hash table holding the expected number of elements
+	 *         without being resized, 0 when the size is unknown
+	 */
+	static int getCapacity(final int expectedSize) {
+		if (expectedSize <= 0) {
+			return 0;
+		}
+		return (int) Math.min(Integer.MAX_VALUE, (long) (expectedSize / 0.75f) + 1L);
+	}
+	
+	private static Class<?> getEnumClass(final Type type, final int argumentIndex) {
+		if (!(type instanceof ParameterizedType)) {
+			return null;
+		}
+		Class<?> clazz = ReflectionUtils.getClass(((ParameterizedType) type).getActualTypeArguments()[argumentIndex]);
+		return clazz.isEnum() ? clazz : null;
+	}
+	
+	/**
+	 * Factories registered for a class, as a declared type or as a bean class.
+	 */
+	private static final class Registrations {
+		
+		private final ConcurrentMap<String, CollectionFactory> propertyFactories = new ConcurrentHashMap<>();
+		private volatile CollectionFactory typeFactory;
+		
+	}
+	
+	private static final class ListFactory implements CollectionFactory {
+		
+		@Override
+		public Object newInstance(final Type type, final int expectedSize) {
+			Class<?> clazz = ReflectionUtils.getClass(type);
+			if (clazz.isAssignableFrom(ArrayList.class)) {
+				return expectedSize > 0 ? new ArrayList<>(expectedSize) : new ArrayList<>();
+			} else if (clazz.isAssignableFrom(LinkedList.class)) {
+				return new LinkedList<>();
+			}
+			return Instantiators.newInstance(clazz);
+		}
+		
+	}
+	
+	private static final class SetFactory implements CollectionFactory {
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		public Object newInstance(final Type type, final int expectedSize) {
+			Class<?> clazz = ReflectionUtils.getClass(type);
+			int capacity = getCapacity(expectedSize);
+			Class<?> enumClass = getEnumClass(type, 0);
+			if (enumClass != null && clazz.isAssignableFrom(EnumSet.class)) {
+				return EnumSet.noneOf(enumClass.asSubclass(Enum.class));
+			} else if (clazz.isAssignableFrom(IndexedSet.class)) {
+				// indexed sets return the stored instances of bean elements in constant time
+				return capacity > 0 ? new IndexedSet<>(capacity) : new IndexedSet<>();
+			} else if (clazz.isAssignableFrom(HashSet.class)) {
+				return capacity > 0 ? new HashSet<>(capacity) : new HashSet<>();
+			} else if (clazz.isAssignableFrom(LinkedHashSet.class)) {
+				return capacity > 0 ? new LinkedHashSet<>(capacity) : new LinkedHashSet<>();
+			} else if (clazz.isAssignableFrom(TreeSet.class)) {
+				return new TreeSet<>();
+			}
+			return Instantiators.newInstance(clazz);
+		}
+		
+	}
+	
+	private static final class MapFactory implements CollectionFactory {
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		public Object newInstance(final Type type, final int expectedSize) {
+			Class<?> clazz = ReflectionUtils.getClass(type);
+			int capacity = getCapacity(expectedSize);
+			Class<?> enumClass = getEnumClass(type, 0);
+			if (enumClass != null && clazz.isAssignableFrom(EnumMap.class)) {
+				return new EnumMap<>(enumClass.asSubclass(Enum.class));
+			} else if (clazz.isAssignableFrom(HashMap.class)) {
+				return capacity > 0 ? new HashMap<>(capacity) : new HashMap<>();
+			} else if (clazz.isAssignableFrom(LinkedHashMap.class)) {
+				return capacity > 0 ? new LinkedHashMap<>(capacity) : new LinkedHashMap<>();
+			} else if (clazz.isAssignableFrom(TreeMap.class)) {
+				return new TreeMap<>();
+			} else if (clazz.isAssignableFrom(ConcurrentHashMap.class)) {
+				return capacity > 0 ? new ConcurrentHashMap<>(capacity) : new ConcurrentHashMap<>();
+			}
+			return Instantiators.newInstance(clazz);
+		}
+		
+	}
+	
+}
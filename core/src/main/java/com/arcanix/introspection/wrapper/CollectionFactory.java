@@ -17,20 +17,17 @@ package com.arcanix.introspection.wrapper;
 
 import java.lang.reflect.Type;
 
-import com.arcanix.convert.ConversionException;
-import com.arcanix.introspection.Property;
-
 /**
+ * Creates the collections and maps of the container properties, see {@link CollectionFactories}.
+ * 
  * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
  */
-public interface PropertyWrapper {
+public interface CollectionFactory {
 
-	void setProperty(Property property) throws ConversionException;
-	Object getResult();
-	Class<?> getTargetClass();
-	Type getPropertyType(Property property);
-	void setLocalProperty(Property property) throws ConversionException;
-	void setLocalProperty(Property property, PropertyWrapper propertyWrapper) throws ConversionException;
-	Object getValue(Property property) throws ConversionException;
+	/**
+	 * @param type the declared type of the property, parameterized
+	 * @param expectedSize the number of elements about to be added, 0 when unknown
+	 */
+	Object newInstance(Type type, int expectedSize);
 	
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.ValueConverter;
+import com.arcanix.introspection.util.ReflectionUtils;
+
+/**
+ * Wrapper of a parameterized collection type. The element type, its wrapper and its
+ * converter are resolved once per type and linked, so that nested generic types are
+ * dispatched without further lookups.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public abstract class ContainerWrapper extends AbstractWrapper {
+
+	private final Type type;
+	private final Class<?> declaredClass;
+	private final Type elementType;
+	private final Class<?> elementClass;
+	private volatile PropertyWrapper elementWrapper;
+	private volatile ValueConverter elementConverter;
+	
+	protected ContainerWrapper(final Type type, final int elementIndex) {
+		if (!(type instanceof ParameterizedType)) {
+			throw new IllegalArgumentException(
+					ReflectionUtils.getClass(type).getSimpleName() + " must be parameterized");
+		}
+		this.type = type;
+		this.declaredClass = ReflectionUtils.getClass(type);
+		this.elementType = ((ParameterizedType) type).getActualTypeArguments()[elementIndex];
+		this.elementClass = ReflectionUtils.getClass(this.elementType);
+	}
+	
+	/**
+	 * @return the factory used when no factory is registered for the declared type
+	 */
+	protected abstract CollectionFactory getDefaultFactory();
+	
+	@Override
+	public final Object newInstance() {
+		return newInstance(0);
+	}
+	
+	@Override
+	public final Object newInstance(final int expectedSize) {
+		CollectionFactory collectionFactory = CollectionFactories.getCollectionFactory(this.declaredClass);
+		if (collectionFactory == null) {
+			collectionFactory = getDefaultFactory();
+		}
+		return collectionFactory.newInstance(this.type, expectedSize);
+	}
+	
+	protected final Type getType() {
+		return this.type;
+	}
+	
+	protected final Type getElementType() {
+		return this.elementType;
+	}
+	
+	protected final Class<?> getElementClass() {
+		return this.elementClass;
+	}
+	
+	protected final ValueConverter getElementConverter(final Converters converters) {
+		ValueConverter valueConverter = this.elementConverter;
+		if (valueConverter == null || valueConverter.getConverters() != converters) {
+			valueConverter = ValueConverter.getValueConverter(this.elementClass, converters);
+			this.elementConverter = valueConverter;
+		}
+		return valueConverter;
+	}
+	
+	@Override
+	public final boolean isContainer() {
+		return true;
+	}
+	
+	@Override
+	public final Type getPropertyType(final Property property) {
+		return this.elementType;
+	}
+	
+	@Override
+	public final PropertyWrapper getPropertyWrapper(final Property property) {
+		PropertyWrapper propertyWrapper = this.elementWrapper;
+		if (propertyWrapper == null) {
+			propertyWrapper = PropertyWrapperFactory.getPropertyWrapper(this.elementType);
+			this.elementWrapper = propertyWrapper;
+		}
+		return propertyWrapper;
+	}
+	
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.UUID;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.ValueConverter;
+
+/**
+ * Map key or set element of a property expression, converted once per {@link Converters}
+ * instance. {@code String} keys are never converted.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class ConvertedKey {
+
+	private final String key;
+	private final Class<?> keyType;
+	private volatile Conversion conversion;
+	
+	public ConvertedKey(final String key, final Class<?> keyType) {
+		if (keyType == null) {
+			throw new NullPointerException("Key type cannot be null");
+		}
+		this.key = key;
+		this.keyType = keyType;
+	}
+	
+	public Object getValue(final Converters converters) throws ConversionException {
+		if (this.keyType == String.class) {
+			return this.key;
+		}
+		Conversion conversion = this.conversion;
+		if (conversion == null || conversion.converters != converters) {
+			conversion = new Conversion(converters,
+					ValueConverter.getValueConverter(this.keyType, converters).convert(this.key));
+			this.conversion = conversion;
+		}
+		return conversion.value;
+	}
+	
+	/**
+	 * @return whether converted keys of the given type can be shared by several maps and sets,
+	 *         i.e.: strings, boxed primitives, enums and the immutable JDK value types
+	 */
+	public static boolean isShareable(final Class<?> keyType) {
+		return keyType == String.class
+				|| keyType == Integer.class
+				|| keyType == Long.class
+				|| keyType == Short.class
+				|| keyType == Byte.class
+				|| keyType == Double.class
+				|| keyType == Float.class
+				|| keyType == Boolean.class
+				|| keyType == Character.class
+				|| keyType == BigInteger.class
+				|| keyType == BigDecimal.class
+				|| keyType == UUID.class
+				|| keyType.isEnum();
+	}
+	
+	private static final class Conversion {
+		
+		private final Converters converters;
+		private final Object value;
+		
+		public Conversion(final Converters converters, final Object value) {
+			this.converters = converters;
+			this.value = value;
+		}
+		
+	}
+
+}
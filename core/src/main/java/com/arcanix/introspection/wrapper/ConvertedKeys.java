@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.ValueConverter;
+
+/**
+ * Keys of the properties of a map or set wrapper, converted once per distinct key. Converted
+ * keys are kept by the wrapper and follow the lifecycle of its type. Keys of types that
+ * cannot be shared, such as mutable beans, are converted on each call so that every map gets
+ * its own instance.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+final class ConvertedKeys {
+
+	// distinct keys kept per wrapper, others are converted on each call
+	static final int MAX_SIZE = 1024;
+	
+	private final Class<?> keyType;
+	private final boolean shareable;
+	private final ConcurrentMap<String, ConvertedKey> convertedKeys = new ConcurrentHashMap<>();
+	
+	public ConvertedKeys(final Class<?> keyType) {
+		this.keyType = keyType;
+		this.shareable = ConvertedKey.isShareable(keyType);
+	}
+	
+	/**
+	 * @return the key designated by the property, its key when mapped and its name otherwise
+	 */
+	public Object getKey(final Property property, final Converters converters) throws ConversionException {
+		String key = property.isMapped() ? property.getKey() : property.getName();
+		if (this.keyType == String.class) {
+			return key;
+		}
+		if (!this.shareable || key == null) {
+			return ValueConverter.getValueConverter(this.keyType, converters).convert(key);
+		}
+		ConvertedKey convertedKey = this.convertedKeys.get(key);
+		if (convertedKey == null) {
+			convertedKey = new ConvertedKey(key, this.keyType);
+			if (this.convertedKeys.size() < MAX_SIZE) {
+				ConvertedKey existingKey = this.convertedKeys.putIfAbsent(key, convertedKey);
+				if (existingKey != null) {
+					convertedKey = existingKey;
+				}
+			}
+		}
+		return convertedKey.getValue(converters);
+	}
+	
+	int size() {
+		return this.convertedKeys.size();
+	}
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.PropertyTree;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class ListWrapper extends ContainerWrapper {
+
+	public ListWrapper(final Type type) {
+		super(type, 0);
+	}
+	
+	@Override
+	public Class<?> getTargetClass() {
+		return List.class;
+	}
+	
+	@Override
+	protected CollectionFactory getDefaultFactory() {
+		return CollectionFactories.LIST_FACTORY;
+	}
+	
+	@Override
+	public void setLocalProperty(
+			final Object target,
+			final Property property,
+			final Converters converters) throws ConversionException {
+		
+		if (getElementClass().getClass() == Class.class) {
+			Object value = getElementConverter(converters).convert(property.getValue());
+			if (property.isIndexed()) {
+				setElement(getList(target), property.getIndex().intValue(), value);
+			} else {
+				getList(target).add(value);
+			}
+		} else {
+			throw new IllegalStateException("Cannot set local property of this container");
+		}
+	}
+	
+	@Override
+	public void setLocalProperty(
+			final Object target,
+			final Property property,
+			final Object value,
+			final Converters converters) {
+		
+		setElement(getList(target), property.getIndex().intValue(), value);
+	}
+	
+	@Override
+	protected void prepareProperties(final Object target, final PropertyTree propertyTree) {
+		int maximumIndex = -1;
+		for (PropertyTree child : propertyTree.getChildren()) {
+			Property property = child.getProperty();
+			if (property.isIndexed() && property.getIndex().intValue() > maximumIndex) {
+				maximumIndex = property.getIndex().intValue();
+			}
+		}
+		List<Object> list = getList(target);
+		if (maximumIndex >= list.size() && list instanceof ArrayList) {
+			// a single allocation for the whole batch, whatever the order of the indices
+			((ArrayList<Object>) list).ensureCapacity(maximumIndex + 1);
+		}
+	}
+
+	@Override
+	public Object getValue(final Object target, final Property property, final Converters converters) {
+		if (!property.isIndexed()) {
+			throw new IllegalArgumentException("Property must be indexed");
+		}
+		List<Object> list = getList(target);
+		if (property.getIndex().intValue() < 0 || property.getIndex().intValue() >= list.size()) {
+			return null;
+		}
+		return list.get(property.getIndex().intValue());
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static List<Object> getList(final Object target) {
+		return (List<Object>) target;
+	}
+	
+	private static void setElement(final List<Object> list, final int index, final Object value) {
+		if (index < 0) {
+			throw new IllegalArgumentException("Index cannot be negative: " + index);
+		}
+		int size = list.size();
+		if (index < size) {
+			list.set(index, value);
+		} else {
+			if (index > size) {
+				// pads the gap in one bulk copy rather than one insertion per missing element
+				list.addAll(Collections.nCopies(index - size, null));
+			}
+			list.add(value);
+		}
+	}
+	
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.util.ReflectionUtils;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class MapWrapper extends ContainerWrapper implements PropertyWrapper {
+
+	private final ConvertedKeys convertedKeys;
+	
+	public MapWrapper(final Type type) {
+		// values are the elements of the map
+		super(type, 1);
+		this.convertedKeys = new ConvertedKeys(
+				ReflectionUtils.getClass(((ParameterizedType) type).getActualTypeArguments()[0]));
+	}
+	
+	@Override
+	protected CollectionFactory getDefaultFactory() {
+		return CollectionFactories.MAP_FACTORY;
+	}
+	
+	@Override
+	public Class<?> getTargetClass() {
+		return Map.class;
+	}
+	
+	@Override
+	public void setLocalProperty(
+			final Object target,
+			final Property property,
+			final Converters converters) throws ConversionException {
+		
+		getMap(target).put(getKey(property, converters), getElementConverter(converters).convert(property.getValue()));
+	}
+	
+	@Override
+	public void setLocalProperty(
+			final Object target,
+			final Property property,
+			final Object value,
+			final Converters converters) throws ConversionException {
+		
+		getMap(target).put(getKey(property, converters), value);
+	}
+	
+	@Override
+	public Object getValue(
+			final Object target,
+			final Property property,
+			final Converters converters) throws ConversionException {
+		
+		return getMap(target).get(getKey(property, converters));
+	}
+	
+	private Object getKey(final Property property, final Converters converters) throws ConversionException {
+		return this.convertedKeys.getKey(property, converters);
+	}
+	
+	ConvertedKeys getConvertedKeys() {
+		return this.convertedKeys;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static Map<Object, Object> getMap(final Object target) {
+		return (Map<Object, Object>) target;
+	}
+	
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.lang.reflect.Type;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.PropertyTree;
+
+/**
+ * Stateless handler for the values of a given type. Wrappers are cached per type by
+ * {@link PropertyWrapperFactory} and receive the target object on every call. Each wrapper
+ * links to the wrappers of its property types, forming a graph resolved once per type.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public interface PropertyWrapper {
+
+	void setProperty(Object target, Property property, Converters converters) throws ConversionException;
+	void setProperties(Object target, PropertyTree propertyTree, Converters converters) throws ConversionException;
+	Object newInstance();
+	
+	/**
+	 * @param expectedSize the number of properties about to be set, 0 when unknown
+	 */
+	Object newInstance(int expectedSize);
+	boolean isContainer();
+	Class<?> getTargetClass();
+	Type getPropertyType(Property property);
+	PropertyWrapper getPropertyWrapper(Property property);
+	void setLocalProperty(Object target, Property property, Converters converters) throws ConversionException;
+	void setLocalProperty(Object target, Property property, Object value, Converters converters) throws ConversionException;
+	Object getValue(Object target, Property property, Converters converters) throws ConversionException;
+	
+	/**
+	 * Returns the value of the property, creating it when missing, as the intermediates of
+	 * {@link #setProperty(Object, Property, Converters)} are. Created values, and arrays grown
+	 * to the required length, are written back to the target.
+	 * 
+	 * @param expectedSize the number of properties about to be set on the value, 0 when unknown
+	 * @param requiredLength the length an array value must have, 0 for none
+	 */
+	Object getOrCreateValue(
+			Object target,
+			Property property,
+			Converters converters,
+			int expectedSize,
+			int requiredLength) throws ConversionException;
+	
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.arcanix.introspection.metrics.Metrics;
+import com.arcanix.introspection.util.ReflectionUtils;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class PropertyWrapperFactory {
+
+	// wrappers follow the lifecycle of the class loaders of their type: plain classes carry their wrapper,
+	// parameterized types are kept on their class loaded by the most specific loader, i.e.: Foo for List<Foo>
+	private static final ClassValue<PropertyWrapper> CLASS_WRAPPERS = new ClassValue<PropertyWrapper>() {
+		@Override
+		protected PropertyWrapper computeValue(final Class<?> type) {
+			return createPropertyWrapper(type);
+		}
+	};
+	private static final ClassValue<ConcurrentMap<Type, PropertyWrapper>> TYPE_WRAPPERS =
+			new ClassValue<ConcurrentMap<Type, PropertyWrapper>>() {
+		@Override
+		protected ConcurrentMap<Type, PropertyWrapper> computeValue(final Class<?> anchorClass) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+	
+	private PropertyWrapperFactory() {
+	}
+	
+	/**
+	 * @return the wrapper for the given type, created on first use and shared afterwards
+	 */
+	public static PropertyWrapper getPropertyWrapper(final Type type) {
+		if (type instanceof Class) {
+			return CLASS_WRAPPERS.get((Class<?>) type);
+		}
+		ConcurrentMap<Type, PropertyWrapper> typeWrappers = TYPE_WRAPPERS.get(ReflectionUtils.getAnchorClass(type));
+		PropertyWrapper propertyWrapper = typeWrappers.get(type);
+		if (propertyWrapper == null) {
+			propertyWrapper = createPropertyWrapper(type);
+			PropertyWrapper existing = typeWrappers.putIfAbsent(type, propertyWrapper);
+			if (existing != null) {
+				propertyWrapper = existing;
+			}
+		}
+		return propertyWrapper;
+	}
+	
+	private static PropertyWrapper createPropertyWrapper(final Type type) {
+		PropertyWrapper propertyWrapper = newPropertyWrapper(type);
+		Metrics.getMetrics().wrapperCreated(propertyWrapper.getClass());
+		return propertyWrapper;
+	}
+	
+	private static PropertyWrapper newPropertyWrapper(final Type type) {
+		Class<?> clazz = ReflectionUtils.getClass(type);
+		if (clazz.isArray()) {
+			return new ArrayWrapper(type);
+		} else if (isListType(clazz)) {
+			return new ListWrapper(type);
+		} else if (isSetType(clazz)) {
+			return new SetWrapper(type);
+		} else if (isMapType(clazz)) {
+			return new MapWrapper(type);
+		} else {
+			return new BeanWrapper(type);
+		}
+	}
+	
+	/**
+	 * @return whether the class is {@code List} or one of its implementations, supertypes such
+	 *         as {@code Collection} or {@code Object} are not lists
+	 */
+	public static boolean isListType(final Class<?> clazz) {
+		return List.class.isAssignableFrom(clazz);
+	}
+	
+	public static boolean isSetType(final Class<?> clazz) {
+		return Set.class.isAssignableFrom(clazz);
+	}
+	
+	public static boolean isMapType(final Class<?> clazz) {
+		return Map.class.isAssignableFrom(clazz);
+	}
+	
+	public static boolean isWrapperType(final Type type) {
+		Class<?> clazz = ReflectionUtils.getClass(type);
+		if (clazz.isArray()
+				|| List.class.isAssignableFrom(clazz)
+				|| Set.class.isAssignableFrom(clazz)
+				|| Map.class.isAssignableFrom(clazz)) {
+		
+			return true;
+		}
+		return false;
+	}
+	
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.lang.reflect.Type;
+import java.util.Set;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.util.IndexedSet;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class SetWrapper extends ContainerWrapper {
+
+	private final ConvertedKeys convertedElements;
+	
+	public SetWrapper(final Type type) {
+		super(type, 0);
+		this.convertedElements = new ConvertedKeys(getElementClass());
+	}
+	
+	@Override
+	protected CollectionFactory getDefaultFactory() {
+		return CollectionFactories.SET_FACTORY;
+	}
+	
+	@Override
+	public Class<?> getTargetClass() {
+		return getElementClass();
+	}
+	
+	@Override
+	public void setLocalProperty(
+			final Object target,
+			final Property property,
+			final Converters converters) throws ConversionException {
+		
+		if (getElementClass().getClass() == Class.class) {
+			getSet(target).add(getElementConverter(converters).convert(property.getValue()));
+		} else {
+			throw new IllegalStateException("Cannot set local property of this container");
+		}
+	}
+	
+	@Override
+	public void setLocalProperty(
+			final Object target,
+			final Property property,
+			final Object value,
+			final Converters converters) {
+		
+		getSet(target).add(value);
+	}
+	
+	@Override
+	public Object getValue(
+			final Object target,
+			final Property property,
+			final Converters converters) throws ConversionException {
+		
+		// elements are looked up like map keys, by key when mapped or by name otherwise
+		return getElement(getSet(target), this.convertedElements.getKey(property, converters));
+	}
+	
+	/**
+	 * @return the instance stored in the set equal to the given element, in constant time for indexed
+	 *         sets and for elements absent from hash based sets
+	 */
+	public static Object getElement(final Set<?> set, final Object element) {
+		if (set instanceof IndexedSet) {
+			return ((IndexedSet<?>) set).get(element);
+		}
+		if (!set.contains(element)) {
+			return null;
+		}
+		for (Object candidate : set) {
+			if (element.equals(candidate)) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static Set<Object> getSet(final Object target) {
+		return (Set<Object>) target;
+	}
+	
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class BeanInfoWrapperTest {
+
+	@Test
+	public void testSameInstanceForSameClass() {
+		BeanInfoWrapper beanInfoWrapper = BeanInfoWrapper.getBeanInfoWrapper(MockBean.class);
+		assertSame(beanInfoWrapper, BeanInfoWrapper.getBeanInfoWrapper(MockBean.class));
+	}
+	
+	@Test
+	public void testPropertyDescriptors() {
+		BeanInfoWrapper beanInfoWrapper = BeanInfoWrapper.getBeanInfoWrapper(MockBean.class);
+		assertTrue(beanInfoWrapper.hasPropertyDescriptor("name"));
+		assertFalse(beanInfoWrapper.hasPropertyDescriptor("unknown"));
+		assertEquals("name", beanInfoWrapper.getPropertyDescriptor("name").getName());
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testUnknownPropertyDescriptor() {
+		BeanInfoWrapper.getBeanInfoWrapper(MockBean.class).getPropertyDescriptor("unknown");
+	}
+	
+	public static class MockBean {
+		
+		private String name;
+		
+		public String getName() {
+			return this.name;
+		}
+		
+		public void setName(String name) {
+			this.name = name;
+		}
+		
+	}
+	
+}
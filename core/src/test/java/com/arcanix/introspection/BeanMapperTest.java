@@ -0,0 +1,265 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.BeanUtilsTest.MockBean;
+import com.arcanix.introspection.wrapper.CollectionFactories;
+import com.arcanix.introspection.wrapper.CollectionFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class BeanMapperTest {
+
+	private final Converters converters = Converters.getDefaultConverters();
+	
+	@Test
+	public void testCopyProperties() throws ConversionException {
+		OrderDto dto = new OrderDto();
+		dto.setReference("ORD-1");
+		dto.setQuantity(3);
+		dto.setPrice("12.5");
+		dto.setLines(Arrays.asList("first", "second"));
+		
+		Order order = new Order();
+		new BeanUtils().copyProperties(dto, order);
+		
+		assertEquals("ORD-1", order.getReference());
+		assertEquals(3, order.getQuantity());
+		assertEquals(12.5, order.getPrice(), 0.0);
+		assertSame(dto.getLines(), order.getLines());
+	}
+	
+	@Test
+	public void testDefaultMapperIsCached() {
+		assertSame(
+				BeanMapper.getBeanMapper(OrderDto.class, Order.class),
+				BeanMapper.getBeanMapper(OrderDto.class, Order.class));
+	}
+	
+	@Test
+	public void testNullValues() throws ConversionException {
+		Order order = new Order();
+		order.setReference("ORD-1");
+		order.setQuantity(3);
+		
+		BeanMapper.getBeanMapper(OrderDto.class, Order.class).copy(new OrderDto(), order, this.converters);
+		
+		assertNull(order.getReference());
+		assertEquals(0, order.getQuantity());
+	}
+	
+	@Test
+	public void testNestedPathMapping() throws ConversionException {
+		Map<String, String> pathMapping = new LinkedHashMap<>();
+		pathMapping.put("reference", "message");
+		pathMapping.put("quantity", "count");
+		pathMapping.put("customerName", "customer.name");
+		pathMapping.put("lines[1]", "names[2]");
+		pathMapping.put("price", "addresses(price)");
+		pathMapping.put("lines[0]", "tags(first)");
+		BeanMapper<OrderDto, MockBean> beanMapper = BeanMapper.compile(OrderDto.class, MockBean.class, pathMapping);
+		
+		OrderDto dto = new OrderDto();
+		dto.setReference("ORD-1");
+		dto.setQuantity(3);
+		dto.setCustomerName("John Smith");
+		dto.setPrice("12.5");
+		dto.setLines(Arrays.asList("first", "second"));
+		
+		MockBean mock = beanMapper.map(dto, this.converters);
+		
+		assertEquals("ORD-1", mock.getMessage());
+		assertEquals(Integer.valueOf(3), mock.getCount());
+		assertEquals("John Smith", mock.getCustomer().getName());
+		assertEquals(3, mock.getNames().size());
+		assertEquals("second", mock.getNames().get(2));
+		assertEquals("12.5", mock.getAddresses().get("price"));
+		assertTrue(mock.getTags().contains("first"));
+	}
+	
+	@Test
+	public void testPropertyFactoryCreatesTargetContainer() throws ConversionException {
+		CollectionFactories.register(MockBean.class, "addresses", new CollectionFactory() {
+			@Override
+			public Object newInstance(final Type type, final int expectedSize) {
+				return new TreeMap<>();
+			}
+		});
+		try {
+			Map<String, String> pathMapping = new LinkedHashMap<>();
+			pathMapping.put("price", "addresses(price)");
+			BeanMapper<OrderDto, MockBean> beanMapper = BeanMapper.compile(OrderDto.class, MockBean.class, pathMapping);
+			
+			OrderDto dto = new OrderDto();
+			dto.setPrice("12.5");
+			MockBean mock = beanMapper.map(dto, this.converters);
+			
+			assertTrue(mock.getAddresses() instanceof TreeMap);
+			assertEquals("12.5", mock.getAddresses().get("price"));
+		} finally {
+			CollectionFactories.unregister(MockBean.class, "addresses");
+		}
+	}
+	
+	@Test
+	public void testArrayTargetIsCreatedAndGrown() throws ConversionException {
+		Map<String, String> pathMapping = new LinkedHashMap<>();
+		pathMapping.put("price", "buffer[3]");
+		BeanMapper<Order, Order> beanMapper = BeanMapper.compile(Order.class, Order.class, pathMapping);
+		
+		Order source = new Order();
+		source.setPrice(12.5);
+		assertArrayEquals(new double[] { 0, 0, 0, 12.5 }, beanMapper.map(source, this.converters).getBuffer(), 0.0);
+		
+		Order order = new Order();
+		order.setBuffer(new double[] { 1 });
+		beanMapper.copy(source, order, this.converters);
+		assertArrayEquals(new double[] { 1, 0, 0, 12.5 }, order.getBuffer(), 0.0);
+	}
+	
+	@Test
+	public void testMissingNestedSourceCreatesNoIntermediate() throws ConversionException {
+		Map<String, String> pathMapping = new LinkedHashMap<>();
+		pathMapping.put("customer.name", "customer.name");
+		BeanMapper<MockBean, MockBean> beanMapper = BeanMapper.compile(MockBean.class, MockBean.class, pathMapping);
+		
+		MockBean mock = beanMapper.map(new MockBean(), this.converters);
+		
+		assertNull(mock.getCustomer());
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testUnknownSourceProperty() {
+		Map<String, String> pathMapping = new LinkedHashMap<>();
+		pathMapping.put("unknown", "message");
+		BeanMapper.compile(OrderDto.class, MockBean.class, pathMapping);
+	}
+	
+	public static class OrderDto {
+		
+		private String reference;
+		private int quantity;
+		private String price;
+		private String customerName;
+		private List<String> lines;
+		
+		public String getReference() {
+			return this.reference;
+		}
+		
+		public void setReference(String reference) {
+			this.reference = reference;
+		}
+		
+		public int getQuantity() {
+			return this.quantity;
+		}
+		
+		public void setQuantity(int quantity) {
+			this.quantity = quantity;
+		}
+		
+		public String getPrice() {
+			return this.price;
+		}
+		
+		public void setPrice(String price) {
+			this.price = price;
+		}
+		
+		public String getCustomerName() {
+			return this.customerName;
+		}
+		
+		public void setCustomerName(String customerName) {
+			this.customerName = customerName;
+		}
+		
+		public List<String> getLines() {
+			return this.lines;
+		}
+		
+		public void setLines(List<String> lines) {
+			this.lines = lines;
+		}
+		
+	}
+	
+	public static class Order {
+		
+		private String reference;
+		private int quantity;
+		private double price;
+		private List<String> lines;
+		private double[] buffer;
+		
+		public String getReference() {
+			return this.reference;
+		}
+		
+		public void setReference(String reference) {
+			this.reference = reference;
+		}
+		
+		public int getQuantity() {
+			return this.quantity;
+		}
+		
+		public void setQuantity(int quantity) {
+			this.quantity = quantity;
+		}
+		
+		public double getPrice() {
+			return this.price;
+		}
+		
+		public void setPrice(double price) {
+			this.price = price;
+		}
+		
+		public List<String> getLines() {
+			return this.lines;
+		}
+		
+		public void setLines(List<String> lines) {
+			this.lines = lines;
+		}
+		
+		public double[] getBuffer() {
+			return this.buffer;
+		}
+		
+		public void setBuffer(double[] buffer) {
+			this.buffer = buffer;
+		}
+		
+	}
+	
+}
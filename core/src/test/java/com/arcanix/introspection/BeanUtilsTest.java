@@ -0,0 +1,537 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.util.IndexedSet;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class BeanUtilsTest {
+
+	@Test
+	public void testSimpleProperty() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(mock, "message", "hello world");
+		
+		assertEquals("hello world", mock.getMessage());
+	}
+	
+	@Test
+	public void testSimpleConvertedProperty() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(mock, "count", "3");
+	}
+	
+	@Test
+	public void testSimpleIndexedProperty() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(mock, "names[0]", "John Smith");
+		beanUtils.setNestedProperty(mock, "names[1]", "John Doe");
+		
+		assertEquals(2, mock.getNames().size());
+		assertEquals("John Smith", mock.getNames().get(0));
+		assertEquals("John Doe", mock.getNames().get(1));
+	}
+	
+	@Test
+	public void testSparseIndexedProperty() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(mock, "names[5000]", "John Smith");
+		beanUtils.setNestedProperty(mock, "names[2]", "John Doe");
+		beanUtils.setNestedProperty(mock, "names[2]", "Jane Doe");
+		
+		assertEquals(5001, mock.getNames().size());
+		assertNull(mock.getNames().get(0));
+		assertEquals("Jane Doe", mock.getNames().get(2));
+		assertEquals("John Smith", mock.getNames().get(5000));
+	}
+	
+	@Test
+	public void testReverseIndexedProperties() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		Map<String, String> nestedProperties = new LinkedHashMap<>();
+		for (int i = 99; i >= 0; i--) {
+			nestedProperties.put("names[" + i + "]", "name" + i);
+			nestedProperties.put("phones[" + i + "](area)", "area" + i);
+		}
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperties(mock, nestedProperties);
+		
+		assertEquals(100, mock.getNames().size());
+		assertEquals(100, mock.getPhones().size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals("name" + i, mock.getNames().get(i));
+			assertEquals("area" + i, mock.getPhones().get(i).get("area"));
+		}
+	}
+	
+	@Test
+	public void testSimpleMappedProperty() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(mock, "addresses(residence)", "123 Main Street");
+		beanUtils.setNestedProperty(mock, "addresses(work)", "456 King Street");
+		
+		assertEquals(2, mock.getAddresses().size());
+		assertEquals("123 Main Street", mock.getAddresses().get("residence"));
+		assertEquals("456 King Street", mock.getAddresses().get("work"));
+	}
+	
+	@Test
+	public void testListOfMapProperty() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(mock, "phones[0](area)", "111");
+		beanUtils.setNestedProperty(mock, "phones[0](number)", "123-4567");
+		beanUtils.setNestedProperty(mock, "phones[1](area)", "222");
+		beanUtils.setNestedProperty(mock, "phones[1](number)", "987-6543");
+		
+		assertEquals(2, mock.getPhones().size());
+		assertEquals("111", mock.getPhones().get(0).get("area"));
+		assertEquals("123-4567", mock.getPhones().get(0).get("number"));
+		assertEquals("222", mock.getPhones().get(1).get("area"));
+		assertEquals("987-6543", mock.getPhones().get(1).get("number"));
+	}
+	
+	@Test
+	public void testNestedProperties() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		Map<String, String> nestedProperties = new LinkedHashMap<>();
+		nestedProperties.put("message", "hello world");
+		nestedProperties.put("customer.name", "John Smith");
+		nestedProperties.put("customer.email", "john@smith.com");
+		nestedProperties.put("phones[0](area)", "111");
+		nestedProperties.put("phones[1](area)", "222");
+		nestedProperties.put("phones[0](number)", "123-4567");
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperties(mock, nestedProperties);
+		
+		assertEquals("hello world", mock.getMessage());
+		assertEquals("John Smith", mock.getCustomer().getName());
+		assertEquals("john@smith.com", mock.getCustomer().getEmail());
+		assertEquals(2, mock.getPhones().size());
+		assertEquals("111", mock.getPhones().get(0).get("area"));
+		assertEquals("123-4567", mock.getPhones().get(0).get("number"));
+		assertEquals("222", mock.getPhones().get(1).get("area"));
+	}
+	
+	@Test
+	public void testNestedPropertiesVisitSharedPrefixOnce() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		Map<String, String> nestedProperties = new LinkedHashMap<>();
+		nestedProperties.put("customer.name", "John Smith");
+		nestedProperties.put("customer.email", "john@smith.com");
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperties(mock, nestedProperties);
+		
+		assertEquals(1, mock.getCustomerReads());
+	}
+	
+	@Test
+	public void testExistingIntermediateIsNotWrittenBack() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(mock, "customer.name", "John Smith");
+		beanUtils.setNestedProperty(mock, "customer.email", "john@smith.com");
+		
+		assertEquals("John Smith", mock.getCustomer().getName());
+		assertEquals("john@smith.com", mock.getCustomer().getEmail());
+		assertEquals(1, mock.getCustomerWrites());
+	}
+	
+	@Test
+	public void testBindAll() throws ConversionException {
+		List<Map<String, String>> records = createRecords(1000);
+		
+		List<MockBean> beans = new BeanUtils().bindAll(MockBean.class, records);
+		
+		assertEquals(1000, beans.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals("message" + i, beans.get(i).getMessage());
+			assertEquals(Integer.valueOf(i), beans.get(i).getCount());
+			assertEquals("name" + i, beans.get(i).getCustomer().getName());
+		}
+	}
+	
+	@Test
+	public void testBindAllWithExecutor() throws ConversionException {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<MockBean> beans = new BeanUtils().bindAll(MockBean.class, createRecords(1000), executor);
+			
+			assertEquals(1000, beans.size());
+			assertEquals("message999", beans.get(999).getMessage());
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void testBindAllStreaming() throws ConversionException {
+		final AtomicInteger countSum = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			long count = new BeanUtils().bindAll(MockBean.class, createRecords(1000).iterator(), new RowHandler<MockBean>() {
+				@Override
+				public void handleRow(final MockBean bean) {
+					countSum.addAndGet(bean.getCount().intValue());
+				}
+			}, executor);
+			
+			assertEquals(1000, count);
+			assertEquals(999 * 1000 / 2, countSum.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void testBindAllStreamingDeliversBoundBatches() throws Exception {
+		final List<Map<String, String>> records = createRecords(512);
+		records.get(10).put("count", "ten");
+		
+		// the worker waits until the last record is read, both batches of 256 records are then submitted
+		final CountDownLatch submitted = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws InterruptedException {
+				submitted.await();
+				return null;
+			}
+		});
+		final Iterator<Map<String, String>> iterator = records.iterator();
+		Iterator<Map<String, String>> recordIterator = new Iterator<Map<String, String>>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+			
+			@Override
+			public Map<String, String> next() {
+				Map<String, String> record = iterator.next();
+				if (!iterator.hasNext()) {
+					submitted.countDown();
+				}
+				return record;
+			}
+			
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+		
+		final List<MockBean> beans = Collections.synchronizedList(new ArrayList<MockBean>());
+		try {
+			new BeanUtils().bindAll(MockBean.class, recordIterator, new RowHandler<MockBean>() {
+				@Override
+				public void handleRow(final MockBean bean) {
+					beans.add(bean);
+				}
+			}, executor);
+			fail("Expected a conversion failure");
+		} catch (ConversionException e) {
+			// the failing batch hands over nothing, the other one is complete
+			assertEquals(256, beans.size());
+			for (MockBean bean : beans) {
+				assertTrue(bean.getCount().intValue() >= 256);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test
+	public void testBindAllOnConfiguredExecutor() throws ConversionException {
+		final AtomicInteger tasks = new AtomicInteger();
+		ExecutorService executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>()) {
+			@Override
+			protected void beforeExecute(final Thread thread, final Runnable runnable) {
+				tasks.incrementAndGet();
+			}
+		};
+		try {
+			BeanUtils beanUtils = new BeanUtils(Converters.getDefaultConverters(), new PropertyPathCache(), executor);
+			List<MockBean> beans = beanUtils.bindAll(MockBean.class, createRecords(100));
+			
+			assertEquals(100, beans.size());
+			assertTrue(tasks.get() > 0);
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	@Test(expected = ConversionException.class)
+	public void testBindAllConversionFailure() throws ConversionException {
+		List<Map<String, String>> records = createRecords(100);
+		records.get(50).put("count", "fifty");
+		
+		new BeanUtils().bindAll(MockBean.class, records);
+	}
+	
+	private static List<Map<String, String>> createRecords(final int count) {
+		List<Map<String, String>> records = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Map<String, String> record = new HashMap<>();
+			record.put("message", "message" + i);
+			record.put("count", String.valueOf(i));
+			record.put("customer.name", "name" + i);
+			records.add(record);
+		}
+		return records;
+	}
+	
+	@Test
+	public void testGetNestedProperty() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(mock, "customer.name", "John Smith");
+		beanUtils.setNestedProperty(mock, "phones[0](area)", "111");
+		beanUtils.setNestedProperty(mock, "count", "3");
+		
+		assertEquals("John Smith", beanUtils.getNestedProperty(mock, "customer.name"));
+		assertEquals("111", beanUtils.getNestedProperty(mock, "phones[0](area)"));
+		assertEquals(3, beanUtils.getNestedInt(mock, "count"));
+		assertEquals(3L, beanUtils.getNestedLong(mock, "count"));
+	}
+	
+	@Test
+	public void testGetMissingNestedProperty() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		assertNull(beanUtils.getNestedProperty(mock, "customer.name"));
+		assertNull(beanUtils.getNestedProperty(mock, "phones[3](area)"));
+		
+		// reading does not create intermediates
+		assertNull(mock.getCustomer());
+		assertNull(mock.getPhones());
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testGetMissingNestedInt() throws ConversionException {
+		new BeanUtils().getNestedInt(new MockBean(), "count");
+	}
+	
+	@Test
+	public void testSetProperty() throws ConversionException {
+		MockBean mock = new MockBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(mock, "tags(red)", "red");
+		beanUtils.setNestedProperty(mock, "tags(blue)", "blue");
+		
+		assertEquals(2, mock.getTags().size());
+		assertTrue(mock.getTags() instanceof IndexedSet);
+		assertEquals("red", beanUtils.getNestedProperty(mock, "tags(red)"));
+		assertNull(beanUtils.getNestedProperty(mock, "tags(green)"));
+	}
+	
+	@Test
+	public void testObjectTypedProperties() throws ConversionException {
+		MockUntypedBean mock = new MockUntypedBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(mock, "payload", "x");
+		beanUtils.setNestedProperty(mock, "attributes(color)", "red");
+		beanUtils.setNestedProperty(mock, "items[0]", "x");
+		
+		assertEquals("x", mock.getPayload());
+		assertEquals("red", mock.getAttributes().get("color"));
+		assertEquals("x", mock.getItems().get(0));
+		assertEquals("red", beanUtils.getNestedProperty(mock, "attributes(color)"));
+		assertEquals("x", beanUtils.getNestedProperty(mock, "items[0]"));
+	}
+	
+	public static class MockBean {
+		
+		private String message;
+		private Integer count;
+		private List<String> names;
+		private Map<String, String> addresses;
+		private List<Map<String, String>> phones;
+		private MockCustomer customer;
+		private Set<String> tags;
+		private int customerReads;
+		private int customerWrites;
+		
+		public void setMessage(String message) {
+			this.message = message;
+		}
+		
+		public String getMessage() {
+			return this.message;
+		}
+		
+		public void setCount(Integer count) {
+			this.count = count;
+		}
+		
+		public Integer getCount() {
+			return this.count;
+		}
+		
+		public List<String> getNames() {
+			return this.names;
+		}
+		
+		public void setNames(List<String> names) {
+			this.names = names;
+		}
+		
+		public Map<String, String> getAddresses() {
+			return this.addresses;
+		}
+		
+		public void setAddresses(Map<String, String> addresses) {
+			this.addresses = addresses;
+		}
+		
+		public List<Map<String, String>> getPhones() {
+			return this.phones;
+		}
+		
+		public void setPhones(List<Map<String, String>> phones) {
+			this.phones = phones;
+		}
+		
+		public MockCustomer getCustomer() {
+			this.customerReads++;
+			return this.customer;
+		}
+		
+		public void setCustomer(MockCustomer customer) {
+			this.customerWrites++;
+			this.customer = customer;
+		}
+		
+		public Set<String> getTags() {
+			return this.tags;
+		}
+		
+		public void setTags(Set<String> tags) {
+			this.tags = tags;
+		}
+		
+		public int getCustomerReads() {
+			return this.customerReads;
+		}
+		
+		public int getCustomerWrites() {
+			return this.customerWrites;
+		}
+		
+	}
+	
+	public static class MockCustomer {
+		
+		private String name;
+		private String email;
+		
+		public String getName() {
+			return this.name;
+		}
+		
+		public void setName(String name) {
+			this.name = name;
+		}
+		
+		public String getEmail() {
+			return this.email;
+		}
+		
+		public void setEmail(String email) {
+			this.email = email;
+		}
+		
+	}
+	
+	public static class MockUntypedBean {
+		
+		private Object payload;
+		private Map<String, Object> attributes;
+		private List<Object> items;
+		
+		public Object getPayload() {
+			return this.payload;
+		}
+		
+		public void setPayload(Object payload) {
+			this.payload = payload;
+		}
+		
+		public Map<String, Object> getAttributes() {
+			return this.attributes;
+		}
+		
+		public void setAttributes(Map<String, Object> attributes) {
+			this.attributes = attributes;
+		}
+		
+		public List<Object> getItems() {
+			return this.items;
+		}
+		
+		public void setItems(List<Object> items) {
+			this.items = items;
+		}
+		
+	}
+	
+}
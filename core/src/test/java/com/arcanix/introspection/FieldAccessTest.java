@@ -0,0 +1,173 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.Test;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class FieldAccessTest {
+
+	@Test
+	public void testFieldAccessors() {
+		BeanInfoWrapper beanInfoWrapper = BeanInfoWrapper.getBeanInfoWrapper(Reading.class);
+		
+		assertTrue(beanInfoWrapper.hasPropertyAccessor("sensor"));
+		assertTrue(beanInfoWrapper.hasPropertyAccessor("value"));
+		assertTrue(beanInfoWrapper.hasPropertyAccessor("id"));
+		assertFalse(beanInfoWrapper.hasPropertyAccessor("COUNT"));
+		assertEquals(List.class, beanInfoWrapper.getPropertyAccessor("tags").getPropertyClass());
+	}
+	
+	@Test
+	public void testBindFields() throws ConversionException {
+		Reading reading = new Reading();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(reading, "id", "7");
+		beanUtils.setNestedProperty(reading, "sensor", "thermometer");
+		beanUtils.setNestedProperty(reading, "value", "21.5");
+		beanUtils.setNestedProperty(reading, "tags[0]", "indoor");
+		beanUtils.setNestedProperty(reading, "location.room", "kitchen");
+		
+		assertEquals(7L, reading.id);
+		assertEquals("thermometer", reading.sensor);
+		assertEquals(21.5, reading.value, 0.0);
+		assertEquals("indoor", reading.tags.get(0));
+		assertEquals("kitchen", reading.location.room);
+		
+		assertEquals(21.5, beanUtils.getNestedDouble(reading, "value"), 0.0);
+		assertEquals("kitchen", beanUtils.getNestedProperty(reading, "location.room"));
+	}
+	
+	@Test
+	public void testPrimitiveFieldAccessor() {
+		Reading reading = new Reading();
+		PropertyAccessor accessor = BeanInfoWrapper.getBeanInfoWrapper(Reading.class).getPropertyAccessor("value");
+		
+		accessor.setDouble(reading, 3.5);
+		
+		assertEquals(3.5, accessor.getDouble(reading), 0.0);
+	}
+	
+	@Test
+	public void testDefaultAccessStrategy() throws Exception {
+		// the default is process-wide, it is changed in a class loader of its own
+		URLClassLoader classLoader = newIsolatedClassLoader();
+		@SuppressWarnings("unchecked")
+		Callable<List<Object>> defaultFieldAccess = (Callable<List<Object>>) classLoader
+				.loadClass(DefaultFieldAccess.class.getName()).newInstance();
+		
+		List<Object> results = defaultFieldAccess.call();
+		
+		assertEquals("probe", results.get(0));
+		assertEquals(Boolean.TRUE, results.get(1));
+		assertEquals(Boolean.TRUE, results.get(2));
+		assertEquals(AccessStrategy.PROPERTY, BeanInfoWrapper.getDefaultAccessStrategy());
+	}
+	
+	@Test
+	public void testDefaultAccessStrategyCannotChangeOnceUsed() {
+		BeanInfoWrapper.getBeanInfoWrapper(Probe.class);
+		BeanInfoWrapper.setDefaultAccessStrategy(AccessStrategy.PROPERTY);
+		
+		try {
+			BeanInfoWrapper.setDefaultAccessStrategy(AccessStrategy.FIELD);
+			fail("Expected the default access strategy to be in use");
+		} catch (IllegalStateException e) {
+			assertEquals(AccessStrategy.PROPERTY, BeanInfoWrapper.getDefaultAccessStrategy());
+		}
+	}
+	
+	private static URLClassLoader newIsolatedClassLoader() {
+		return new URLClassLoader(new URL[] {
+				getLocation(FieldAccessTest.class),
+				getLocation(BeanInfoWrapper.class),
+				getLocation(Converters.class) }, null);
+	}
+	
+	private static URL getLocation(final Class<?> clazz) {
+		return clazz.getProtectionDomain().getCodeSource().getLocation();
+	}
+	
+	public static class DefaultFieldAccess implements Callable<List<Object>> {
+		
+		@Override
+		public List<Object> call() throws ConversionException {
+			BeanInfoWrapper.setDefaultAccessStrategy(AccessStrategy.FIELD);
+			
+			Probe probe = new Probe();
+			new BeanUtils().setNestedProperty(probe, "name", "probe");
+			
+			// java.* classes keep their properties
+			boolean javaProperties = BeanInfoWrapper.getBeanInfoWrapper(Date.class).hasPropertyAccessor("time");
+			boolean locked;
+			try {
+				BeanInfoWrapper.setDefaultAccessStrategy(AccessStrategy.PROPERTY);
+				locked = false;
+			} catch (IllegalStateException e) {
+				locked = true;
+			}
+			return Arrays.<Object> asList(probe.name, javaProperties, locked);
+		}
+		
+	}
+	
+	@Access(AccessStrategy.FIELD)
+	public static class Reading extends Measure {
+		
+		private static int COUNT;
+		
+		private String sensor;
+		private double value;
+		private List<String> tags;
+		private Location location;
+		
+	}
+	
+	public static class Measure {
+		
+		protected long id;
+		
+	}
+	
+	@Access(AccessStrategy.FIELD)
+	public static class Location {
+		
+		private String room;
+		
+	}
+	
+	public static class Probe {
+		
+		private String name;
+		
+	}
+	
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class GeneratedPropertyAccessorTest {
+
+	@Test
+	public void testPrimitivePropertiesAreNotBoxed() throws ConversionException {
+		Counter counter = new Counter();
+		PropertyAccessor countAccessor = new GeneratedPropertyAccessor(getCounterAccessor(), "count");
+		PropertyAccessor enabledAccessor = new GeneratedPropertyAccessor(getCounterAccessor(), "enabled");
+		
+		// the boxed accessors of the test accessor fail, only the typed ones may be called
+		countAccessor.setInt(counter, 3);
+		assertEquals(3, countAccessor.getInt(counter));
+		countAccessor.bindValue(counter, "4", Converters.getDefaultConverters());
+		assertEquals(4, counter.count);
+		
+		enabledAccessor.setBoolean(counter, true);
+		assertTrue(enabledAccessor.getBoolean(counter));
+		enabledAccessor.bindValue(counter, "false", Converters.getDefaultConverters());
+		assertFalse(counter.enabled);
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testOtherTypesAreBoxed() {
+		new GeneratedPropertyAccessor(getCounterAccessor(), "count").setLong(new Counter(), 3L);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static BeanAccessor<Object> getCounterAccessor() {
+		return (BeanAccessor<Object>) (BeanAccessor<?>) new CounterAccessor();
+	}
+	
+	public static class Counter {
+		
+		private int count;
+		private boolean enabled;
+		
+	}
+	
+	private static final class CounterAccessor implements BeanAccessor<Counter> {
+		
+		private static final Set<String> PROPERTY_NAMES = Collections.unmodifiableSet(
+				new LinkedHashSet<String>(Arrays.asList("count", "enabled")));
+		
+		@Override
+		public Class<Counter> getBeanClass() {
+			return Counter.class;
+		}
+		
+		@Override
+		public Counter newInstance() {
+			return new Counter();
+		}
+		
+		@Override
+		public Set<String> getPropertyNames() {
+			return PROPERTY_NAMES;
+		}
+		
+		@Override
+		public Type getPropertyType(final String propertyName) {
+			return propertyName.equals("count") ? int.class : boolean.class;
+		}
+		
+		@Override
+		public boolean isReadable(final String propertyName) {
+			return true;
+		}
+		
+		@Override
+		public boolean isWritable(final String propertyName) {
+			return true;
+		}
+		
+		@Override
+		public Object getValue(final Counter bean, final String propertyName) {
+			throw new UnsupportedOperationException("Boxed read of " + propertyName);
+		}
+		
+		@Override
+		public void setValue(final Counter bean, final String propertyName, final Object value) {
+			throw new UnsupportedOperationException("Boxed write of " + propertyName);
+		}
+		
+		@Override
+		public int getInt(final Counter bean, final String propertyName) {
+			return bean.count;
+		}
+		
+		@Override
+		public void setInt(final Counter bean, final String propertyName, final int value) {
+			bean.count = value;
+		}
+		
+		@Override
+		public long getLong(final Counter bean, final String propertyName) {
+			throw new PropertyException("Property " + propertyName + " is not a readable long");
+		}
+		
+		@Override
+		public void setLong(final Counter bean, final String propertyName, final long value) {
+			throw new PropertyException("Property " + propertyName + " is not a writable long");
+		}
+		
+		@Override
+		public double getDouble(final Counter bean, final String propertyName) {
+			throw new PropertyException("Property " + propertyName + " is not a readable double");
+		}
+		
+		@Override
+		public void setDouble(final Counter bean, final String propertyName, final double value) {
+			throw new PropertyException("Property " + propertyName + " is not a writable double");
+		}
+		
+		@Override
+		public boolean getBoolean(final Counter bean, final String propertyName) {
+			return bean.enabled;
+		}
+		
+		@Override
+		public void setBoolean(final Counter bean, final String propertyName, final boolean value) {
+			bean.enabled = value;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class InstantiatorsTest {
+
+	@After
+	public void tearDown() {
+		Instantiators.unregister(Shape.class);
+		Instantiators.unregister(Circle.class);
+	}
+	
+	@Test
+	public void testNoArgConstructor() {
+		Circle circle = Instantiators.newInstance(Circle.class);
+		assertNotNull(circle);
+		assertNotSame(circle, Instantiators.newInstance(Circle.class));
+		assertSame(Instantiators.getInstantiator(Circle.class), Instantiators.getInstantiator(Circle.class));
+	}
+	
+	@Test
+	public void testPrivateConstructor() {
+		assertNotNull(Instantiators.newInstance(Hidden.class));
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testInterfaceWithoutFactory() {
+		Instantiators.newInstance(Shape.class);
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testNoNoArgConstructor() {
+		Instantiators.newInstance(Square.class);
+	}
+	
+	@Test
+	public void testRegisteredFactoryTakesPrecedence() {
+		Instantiators.newInstance(Circle.class);
+		Instantiators.register(Circle.class, new Instantiator<Circle>() {
+			@Override
+			public Circle newInstance() {
+				Circle circle = new Circle();
+				circle.setName("registered");
+				return circle;
+			}
+		});
+		
+		assertTrue(Instantiators.isRegistered(Circle.class));
+		assertEquals("registered", Instantiators.newInstance(Circle.class).getName());
+		
+		Instantiators.unregister(Circle.class);
+		assertNull(Instantiators.newInstance(Circle.class).getName());
+	}
+	
+	@Test
+	public void testNestedWriteCreatesInterfaceValue() throws Exception {
+		Instantiators.register(Shape.class, new Instantiator<Shape>() {
+			@Override
+			public Shape newInstance() {
+				return new Circle();
+			}
+		});
+		
+		Drawing drawing = new Drawing();
+		new BeanUtils().setNestedProperty(drawing, "shape.name", "round");
+		
+		assertTrue(drawing.getShape() instanceof Circle);
+		assertEquals("round", drawing.getShape().getName());
+	}
+	
+	@Test
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	public void testRegistrationsFollowTheirClassLoader() throws Exception {
+		URL testClasses = Circle.class.getProtectionDomain().getCodeSource().getLocation();
+		URLClassLoader classLoader = new URLClassLoader(new URL[] { testClasses }, null);
+		Class<?> circleClass = classLoader.loadClass(Circle.class.getName());
+		assertNotSame(Circle.class, circleClass);
+		
+		Instantiators.register((Class) circleClass, new Instantiator<Object>() {
+			@Override
+			public Object newInstance() {
+				return null;
+			}
+		});
+		assertTrue(Instantiators.isRegistered(circleClass));
+		
+		ReferenceQueue<ClassLoader> queue = new ReferenceQueue<>();
+		WeakReference<ClassLoader> classLoaderReference = new WeakReference<ClassLoader>(classLoader, queue);
+		classLoader.close();
+		classLoader = null;
+		circleClass = null;
+		for (int i = 0; i < 50 && classLoaderReference.get() != null; i++) {
+			System.gc();
+			queue.remove(100);
+		}
+		assertNull("registered instantiator retains its class loader", classLoaderReference.get());
+	}
+	
+	public interface Shape {
+		
+		String getName();
+		
+		void setName(String name);
+		
+	}
+	
+	public static class Circle implements Shape {
+		
+		private String name;
+		
+		@Override
+		public String getName() {
+			return this.name;
+		}
+		
+		@Override
+		public void setName(String name) {
+			this.name = name;
+		}
+		
+	}
+	
+	public static class Square extends Circle {
+		
+		public Square(int side) {
+		}
+		
+	}
+	
+	public static class Hidden {
+		
+		private Hidden() {
+		}
+		
+	}
+	
+	public static class Drawing {
+		
+		private Shape shape;
+		
+		public Shape getShape() {
+			return this.shape;
+		}
+		
+		public void setShape(Shape shape) {
+			this.shape = shape;
+		}
+		
+	}
+	
+}
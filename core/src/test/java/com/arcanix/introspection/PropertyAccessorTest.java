@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class PropertyAccessorTest {
+
+	@Test
+	public void testGetAndSetValue() {
+		PropertyAccessor accessor = BeanInfoWrapper.getBeanInfoWrapper(MockBean.class).getPropertyAccessor("name");
+		MockBean mock = new MockBean();
+		
+		accessor.setValue(mock, "John Smith");
+		
+		assertEquals("John Smith", mock.getName());
+		assertEquals("John Smith", accessor.getValue(mock));
+		assertEquals(String.class, accessor.getPropertyClass());
+	}
+	
+	@Test
+	public void testPrimitiveProperty() {
+		PropertyAccessor accessor = BeanInfoWrapper.getBeanInfoWrapper(MockBean.class).getPropertyAccessor("count");
+		MockBean mock = new MockBean();
+		
+		accessor.setValue(mock, Integer.valueOf(3));
+		
+		assertEquals(3, mock.getCount());
+		assertEquals(Integer.valueOf(3), accessor.getValue(mock));
+		assertEquals(3, accessor.getInt(mock));
+		assertEquals(3L, accessor.getLong(mock));
+		assertEquals(int.class, accessor.getPropertyClass());
+	}
+	
+	@Test
+	public void testGenericPropertyType() throws NoSuchMethodException {
+		PropertyAccessor accessor = BeanInfoWrapper.getBeanInfoWrapper(MockBean.class).getPropertyAccessor("names");
+		
+		assertEquals(MockBean.class.getMethod("getNames").getGenericReturnType(), accessor.getPropertyType());
+		assertEquals(List.class, accessor.getPropertyClass());
+	}
+	
+	@Test
+	public void testNonPublicBeanClass() {
+		PropertyAccessor accessor = BeanInfoWrapper.getBeanInfoWrapper(HiddenBean.class).getPropertyAccessor("name");
+		HiddenBean hidden = new HiddenBean();
+		
+		accessor.setValue(hidden, "hidden");
+		
+		assertEquals("hidden", accessor.getValue(hidden));
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testReadOnlyProperty() {
+		PropertyAccessor accessor = BeanInfoWrapper.getBeanInfoWrapper(MockBean.class).getPropertyAccessor("readOnly");
+		assertFalse(accessor.isWritable());
+		accessor.setValue(new MockBean(), "value");
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testSetterExceptionIsWrapped() {
+		PropertyAccessor accessor = BeanInfoWrapper.getBeanInfoWrapper(MockBean.class).getPropertyAccessor("failing");
+		accessor.setValue(new MockBean(), "value");
+	}
+	
+	@Test
+	public void testBindPrimitiveValues() throws ConversionException {
+		BeanInfoWrapper beanInfoWrapper = BeanInfoWrapper.getBeanInfoWrapper(TelemetryBean.class);
+		Converters converters = Converters.getDefaultConverters();
+		TelemetryBean telemetry = new TelemetryBean();
+		
+		beanInfoWrapper.getPropertyAccessor("samples").bindValue(telemetry, "42", converters);
+		beanInfoWrapper.getPropertyAccessor("timestamp").bindValue(telemetry, "1381234567890", converters);
+		beanInfoWrapper.getPropertyAccessor("average").bindValue(telemetry, "12.5", converters);
+		beanInfoWrapper.getPropertyAccessor("healthy").bindValue(telemetry, "true", converters);
+		
+		assertEquals(42, telemetry.getSamples());
+		assertEquals(1381234567890L, telemetry.getTimestamp());
+		assertEquals(12.5, telemetry.getAverage(), 0);
+		assertTrue(telemetry.isHealthy());
+	}
+	
+	@Test
+	public void testTypedSetters() {
+		BeanInfoWrapper beanInfoWrapper = BeanInfoWrapper.getBeanInfoWrapper(TelemetryBean.class);
+		TelemetryBean telemetry = new TelemetryBean();
+		
+		beanInfoWrapper.getPropertyAccessor("samples").setInt(telemetry, 7);
+		beanInfoWrapper.getPropertyAccessor("average").setDouble(telemetry, 0.5);
+		
+		assertEquals(7, telemetry.getSamples());
+		assertEquals(0.5, beanInfoWrapper.getPropertyAccessor("average").getDouble(telemetry), 0);
+	}
+	
+	@Test(expected = ConversionException.class)
+	public void testBindInvalidPrimitiveValue() throws ConversionException {
+		BeanInfoWrapper.getBeanInfoWrapper(TelemetryBean.class).getPropertyAccessor("samples")
+				.bindValue(new TelemetryBean(), "forty-two", Converters.getDefaultConverters());
+	}
+	
+	public static class MockBean {
+		
+		private String name;
+		private int count;
+		private List<String> names;
+		
+		public String getName() {
+			return this.name;
+		}
+		
+		public void setName(String name) {
+			this.name = name;
+		}
+		
+		public int getCount() {
+			return this.count;
+		}
+		
+		public void setCount(int count) {
+			this.count = count;
+		}
+		
+		public List<String> getNames() {
+			return this.names;
+		}
+		
+		public void setNames(List<String> names) {
+			this.names = names;
+		}
+		
+		public String getReadOnly() {
+			return "read only";
+		}
+		
+		public String getFailing() {
+			return null;
+		}
+		
+		public void setFailing(String failing) {
+			throw new IllegalStateException("failing");
+		}
+		
+	}
+	
+	public static class TelemetryBean {
+		
+		private int samples;
+		private long timestamp;
+		private double average;
+		private boolean healthy;
+		
+		public int getSamples() {
+			return this.samples;
+		}
+		
+		public void setSamples(int samples) {
+			this.samples = samples;
+		}
+		
+		public long getTimestamp() {
+			return this.timestamp;
+		}
+		
+		public void setTimestamp(long timestamp) {
+			this.timestamp = timestamp;
+		}
+		
+		public double getAverage() {
+			return this.average;
+		}
+		
+		public void setAverage(double average) {
+			this.average = average;
+		}
+		
+		public boolean isHealthy() {
+			return this.healthy;
+		}
+		
+		public void setHealthy(boolean healthy) {
+			this.healthy = healthy;
+		}
+		
+	}
+	
+	static class HiddenBean {
+		
+		private String name;
+		
+		public String getName() {
+			return this.name;
+		}
+		
+		public void setName(String name) {
+			this.name = name;
+		}
+		
+	}
+	
+}
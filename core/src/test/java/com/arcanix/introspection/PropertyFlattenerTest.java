@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.introspection.BeanUtilsTest.MockBean;
+import com.arcanix.introspection.wrapper.ArrayWrapperTest.Sample;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class PropertyFlattenerTest {
+
+	@Test
+	public void testFlatten() throws ConversionException {
+		Map<String, String> nestedProperties = new LinkedHashMap<>();
+		nestedProperties.put("message", "hello world");
+		nestedProperties.put("count", "3");
+		nestedProperties.put("names[0]", "John Smith");
+		nestedProperties.put("names[1]", "John Doe");
+		nestedProperties.put("addresses(work)", "456 King Street");
+		nestedProperties.put("customer.name", "John Smith");
+		nestedProperties.put("phones[0](area)", "111");
+		nestedProperties.put("tags(red)", "red");
+		
+		BeanUtils beanUtils = new BeanUtils();
+		MockBean mock = new MockBean();
+		beanUtils.setNestedProperties(mock, nestedProperties);
+		
+		Map<String, Object> flattened = flatten(mock);
+		
+		for (Map.Entry<String, String> entry : nestedProperties.entrySet()) {
+			assertEquals(entry.getKey(), entry.getValue(), String.valueOf(flattened.get(entry.getKey())));
+		}
+		assertEquals(Integer.valueOf(3), flattened.get("count"));
+		assertTrue(flattened.containsKey("customer.email"));
+		assertNull(flattened.get("customer.email"));
+		assertFalse(flattened.containsKey("class"));
+	}
+	
+	@Test
+	public void testFlattenRoundTrip() throws ConversionException {
+		MockBean mock = new MockBean();
+		mock.setMessage("hello world");
+		mock.setNames(Arrays.asList("first", "second"));
+		
+		// read-only counters of the mock bean cannot be written back
+		Map<String, String> nestedProperties = new HashMap<>();
+		for (Map.Entry<String, Object> entry : flatten(mock).entrySet()) {
+			if (entry.getValue() != null && !entry.getKey().startsWith("customer")) {
+				nestedProperties.put(entry.getKey(), entry.getValue().toString());
+			}
+		}
+		MockBean copy = new MockBean();
+		new BeanUtils().setNestedProperties(copy, nestedProperties);
+		
+		assertEquals("hello world", copy.getMessage());
+		assertEquals(Arrays.asList("first", "second"), copy.getNames());
+	}
+	
+	@Test
+	public void testArraysAreFlattenedByIndex() throws ConversionException {
+		Sample sample = new Sample();
+		sample.setBuffer(new double[] { 1.5, 2.5 });
+		sample.setLabels(new String[] { "first", null });
+		sample.setMatrix(new double[][] { null, { 4.5 } });
+		
+		Map<String, Object> flattened = flatten(sample);
+		
+		assertEquals(Double.valueOf(1.5), flattened.get("buffer[0]"));
+		assertEquals(Double.valueOf(2.5), flattened.get("buffer[1]"));
+		assertFalse(flattened.containsKey("buffer"));
+		assertEquals("first", flattened.get("labels[0]"));
+		assertTrue(flattened.containsKey("labels[1]"));
+		assertEquals(Double.valueOf(4.5), flattened.get("matrix[1][0]"));
+		
+		// the write counter of the sample is read-only
+		Map<String, String> nestedProperties = new HashMap<>();
+		for (Map.Entry<String, Object> entry : flattened.entrySet()) {
+			if (entry.getValue() != null && !entry.getKey().equals("bufferWrites")) {
+				nestedProperties.put(entry.getKey(), entry.getValue().toString());
+			}
+		}
+		Sample copy = new Sample();
+		new BeanUtils().setNestedProperties(copy, nestedProperties);
+		
+		assertArrayEquals(sample.getBuffer(), copy.getBuffer(), 0.0);
+		assertArrayEquals(new String[] { "first" }, copy.getLabels());
+		assertArrayEquals(new double[] { 4.5 }, copy.getMatrix()[1], 0.0);
+	}
+	
+	@Test
+	public void testCyclesAreSkipped() {
+		Node parent = new Node();
+		parent.setName("parent");
+		Node child = new Node();
+		child.setName("child");
+		child.setParent(parent);
+		parent.getChildren().add(child);
+		
+		Map<String, Object> flattened = flatten(parent);
+		
+		assertEquals("parent", flattened.get("name"));
+		assertEquals("child", flattened.get("children[0].name"));
+		assertNull(flattened.get("parent"));
+		assertFalse(flattened.containsKey("children[0].parent"));
+		assertFalse(flattened.containsKey("children[0].parent.name"));
+	}
+	
+	private static Map<String, Object> flatten(final Object bean) {
+		final Map<String, Object> flattened = new LinkedHashMap<>();
+		PropertyFlattener.flatten(bean, new PropertyVisitor() {
+			@Override
+			public void visitProperty(final String expression, final Object value) {
+				flattened.put(expression, value);
+			}
+		});
+		return flattened;
+	}
+	
+	public static class Node {
+		
+		private String name;
+		private Node parent;
+		private List<Node> children = new ArrayList<>();
+		
+		public String getName() {
+			return this.name;
+		}
+		
+		public void setName(String name) {
+			this.name = name;
+		}
+		
+		public Node getParent() {
+			return this.parent;
+		}
+		
+		public void setParent(Node parent) {
+			this.parent = parent;
+		}
+		
+		public List<Node> getChildren() {
+			return this.children;
+		}
+		
+		public void setChildren(List<Node> children) {
+			this.children = children;
+		}
+		
+	}
+	
+}
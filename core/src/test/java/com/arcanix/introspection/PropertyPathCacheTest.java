@@ -0,0 +1,86 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class PropertyPathCacheTest {
+
+	@Test
+	public void testCompiledPathIsValueFree() {
+		PropertyPath path = new PropertyResolver().compile("employee.phones[0](area)");
+		
+		Property property = path.getProperty();
+		while (property != null) {
+			assertNull(property.getValue());
+			property = property.getNextProperty();
+		}
+	}
+	
+	@Test
+	public void testBind() {
+		PropertyPath path = new PropertyResolver().compile("phones[1](area)");
+		
+		Property property = path.bind("111");
+		assertEquals("phones", property.getName());
+		assertEquals("111", property.getValue());
+		assertEquals(Integer.valueOf(1), property.getNextProperty().getIndex());
+		assertEquals("111", property.getNextProperty().getValue());
+		assertEquals("area", property.getNextProperty().getNextProperty().getKey());
+		assertEquals("111", property.getNextProperty().getNextProperty().getValue());
+		assertNull(property.getNextProperty().getNextProperty().getNextProperty());
+		
+		assertEquals("222", path.bind("222").getValue());
+		assertNull(path.getProperty().getValue());
+	}
+	
+	@Test
+	public void testHitAndMissCounts() {
+		PropertyPathCache cache = new PropertyPathCache(16);
+		
+		PropertyPath path = cache.getPropertyPath("employee.name");
+		assertSame(path, cache.getPropertyPath("employee.name"));
+		assertSame(path, cache.getPropertyPath("employee.name"));
+		cache.getPropertyPath("employee.age");
+		
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(2, cache.size());
+	}
+	
+	@Test
+	public void testEviction() {
+		PropertyPathCache cache = new PropertyPathCache(1);
+		
+		PropertyPath path = cache.getPropertyPath("first");
+		cache.getPropertyPath("second");
+		
+		assertEquals(1, cache.size());
+		assertNotSame(path, cache.getPropertyPath("first"));
+		assertEquals(3, cache.getMissCount());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaximumSize() {
+		new PropertyPathCache(0);
+	}
+	
+}
@@ -32,6 +32,22 @@ public class PropertyResolverTest {
 		this.resolver = new PropertyResolver();
 	}
 	
+	@Test
+	public void testToExpression() {
+		String[] expressions = {
+			"message",
+			"employee.message",
+			"names[0]",
+			"customer.addresses[0].city",
+			"phones[0](area)",
+			"translations(fr).name",
+			"matrix[1][2]"
+		};
+		for (String expression : expressions) {
+			assertEquals(expression, this.resolver.resolve(expression, null).toExpression());
+		}
+	}
+	
 	@Test
 	public void testSimpleProperty() {
 		Property property = this.resolver.resolve("message", "Hello World!");
@@ -298,4 +314,70 @@ public class PropertyResolverTest {
 		assertNull(property.getNextProperty().getNextProperty().getNextProperty());
 	}
 	
+	@Test
+	public void testMultipleIndexedProperty() {
+		Property property = this.resolver.resolve("matrix[12][3456]", "1");
+		
+		assertEquals("matrix", property.getName());
+		assertEquals(Integer.valueOf(12), property.getNextProperty().getIndex());
+		assertEquals(Integer.valueOf(3456), property.getNextProperty().getNextProperty().getIndex());
+		assertEquals("matrix", property.getNextProperty().getNextProperty().getName());
+		assertNull(property.getNextProperty().getNextProperty().getNextProperty());
+	}
+	
+	@Test
+	public void testMappedPropertyWithNestedSeparator() {
+		Property property = this.resolver.resolve("translations(fr.ca).name", "nom");
+		
+		assertEquals("translations", property.getName());
+		assertEquals("fr.ca", property.getNextProperty().getKey());
+		assertEquals("name", property.getNextProperty().getNextProperty().getName());
+	}
+	
+	@Test
+	public void testTokenHelpers() {
+		assertEquals(Integer.valueOf(3), this.resolver.getIndex("components[3]"));
+		assertNull(this.resolver.getIndex("components"));
+		assertEquals("id", this.resolver.getKey("components(id)"));
+		assertNull(this.resolver.getKey("components"));
+		assertTrue(this.resolver.isMapped("components(id)"));
+		assertFalse(this.resolver.isMapped("components[0]"));
+		assertEquals("components", this.resolver.getProperty("components[0](id)"));
+	}
+	
+	@Test
+	public void testInvalidIndexReportsPosition() {
+		try {
+			this.resolver.resolve("components[a]", "test");
+			fail("Expected PropertyException");
+		} catch (PropertyException e) {
+			assertTrue(e.getMessage(), e.getMessage().endsWith("at position 11"));
+		}
+	}
+	
+	@Test
+	public void testUnclosedKeyReportsPosition() {
+		try {
+			this.resolver.resolve("components(id", "test");
+			fail("Expected PropertyException");
+		} catch (PropertyException e) {
+			assertTrue(e.getMessage(), e.getMessage().endsWith("at position 13"));
+		}
+	}
+	
+	@Test
+	public void testMissingNameReportsPosition() {
+		try {
+			this.resolver.resolve("employee..name", "test");
+			fail("Expected PropertyException");
+		} catch (PropertyException e) {
+			assertTrue(e.getMessage(), e.getMessage().endsWith("at position 9"));
+		}
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testIndexOutOfRange() {
+		this.resolver.resolve("components[2147483648]", "test");
+	}
+	
 }
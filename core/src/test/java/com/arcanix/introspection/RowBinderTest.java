@@ -0,0 +1,131 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.BeanUtilsTest.MockBean;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class RowBinderTest {
+
+	private static final String CSV =
+			"message,count,customer.name,names[1],phones[0](area)\n"
+			+ "hello,1,John Smith,John Doe,111\n"
+			+ "world,,,,\n";
+	
+	@Test
+	public void testBindRow() throws ConversionException {
+		RowBinder<MockBean> binder = new RowBinder<>(MockBean.class, new String[] { "message", "count", "customer.name" });
+		
+		MockBean mock = binder.bindRow(new String[] { "hello", "42", "John Smith" });
+		
+		assertEquals("hello", mock.getMessage());
+		assertEquals(Integer.valueOf(42), mock.getCount());
+		assertEquals("John Smith", mock.getCustomer().getName());
+	}
+	
+	@Test
+	public void testBindCsv() throws IOException, ConversionException {
+		List<MockBean> beans = new ArrayList<>();
+		long count = RowBinder.bindCsv(MockBean.class, new StringReader(CSV), Converters.getDefaultConverters(), collect(beans));
+		
+		assertEquals(2, count);
+		assertEquals("hello", beans.get(0).getMessage());
+		assertEquals(Integer.valueOf(1), beans.get(0).getCount());
+		assertEquals("John Smith", beans.get(0).getCustomer().getName());
+		assertNull(beans.get(0).getNames().get(0));
+		assertEquals("John Doe", beans.get(0).getNames().get(1));
+		assertEquals("111", beans.get(0).getPhones().get(0).get("area"));
+		
+		// empty cells leave properties and intermediates untouched
+		assertEquals("world", beans.get(1).getMessage());
+		assertNull(beans.get(1).getCount());
+		assertNull(beans.get(1).getCustomer());
+		assertNull(beans.get(1).getNames());
+	}
+	
+	@Test
+	public void testBindCsvFromChannel() throws IOException, ConversionException {
+		Charset charset = Charset.forName("UTF-8");
+		List<MockBean> beans = new ArrayList<>();
+		long count = RowBinder.bindCsv(
+				MockBean.class,
+				Channels.newChannel(new ByteArrayInputStream(CSV.getBytes(charset))),
+				charset,
+				Converters.getDefaultConverters(),
+				collect(beans));
+		
+		assertEquals(2, count);
+		assertEquals("hello", beans.get(0).getMessage());
+		assertEquals("world", beans.get(1).getMessage());
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testRowLongerThanHeader() throws IOException, ConversionException {
+		RowBinder.bindCsv(MockBean.class, new StringReader("message\nhello,world\n"),
+				Converters.getDefaultConverters(), collect(new ArrayList<MockBean>()));
+	}
+	
+	@Test
+	public void testConversionFailureReportsLineAndColumn() throws IOException {
+		List<MockBean> beans = new ArrayList<>();
+		try {
+			RowBinder.bindCsv(MockBean.class, new StringReader("message,count\nhello,1\nworld,many\n"),
+					Converters.getDefaultConverters(), collect(beans));
+			fail("Expected a conversion failure");
+		} catch (ConversionException e) {
+			assertEquals("Cannot bind 'many' to column 2 (count) on line 3", e.getMessage());
+			assertNotNull(e.getCause());
+		}
+		assertEquals(1, beans.size());
+	}
+	
+	@Test
+	public void testBindRowConversionFailureReportsColumn() {
+		RowBinder<MockBean> binder = new RowBinder<>(MockBean.class, new String[] { "message", "count" });
+		try {
+			binder.bindRow(new String[] { "hello", "many" });
+			fail("Expected a conversion failure");
+		} catch (ConversionException e) {
+			assertEquals("Cannot bind 'many' to column 2 (count)", e.getMessage());
+		}
+	}
+	
+	private static RowHandler<MockBean> collect(final List<MockBean> beans) {
+		return new RowHandler<MockBean>() {
+			@Override
+			public void handleRow(final MockBean bean) {
+				beans.add(bean);
+			}
+		};
+	}
+	
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.metrics.Metrics;
+import com.arcanix.introspection.metrics.StripedMetrics;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class ValueConverterTest {
+
+	private final Converters converters = Converters.getDefaultConverters();
+	
+	@Test
+	public void testStringIsPassedThrough() throws ConversionException {
+		ValueConverter valueConverter = ValueConverter.getValueConverter(String.class, this.converters);
+		String value = new String("John Smith");
+		
+		assertSame(value, valueConverter.convert(value));
+		assertNull(valueConverter.convert(null));
+		assertEquals(String.class, valueConverter.getType());
+	}
+	
+	@Test
+	public void testConvertersAreBoundPerType() throws ConversionException {
+		ValueConverter intConverter = ValueConverter.getValueConverter(int.class, this.converters);
+		
+		assertSame(intConverter, ValueConverter.getValueConverter(int.class, this.converters));
+		assertSame(this.converters, intConverter.getConverters());
+		assertEquals(int.class, intConverter.getType());
+		assertEquals(42, intConverter.convertInt("42"));
+		
+		ValueConverter integerConverter = ValueConverter.getValueConverter(Integer.class, this.converters);
+		assertNotSame(intConverter, integerConverter);
+		assertEquals(Integer.valueOf(42), integerConverter.convert("42"));
+	}
+	
+	@Test
+	public void testConverterIsReboundForOtherConverters() {
+		Converters otherConverters = new Converters();
+		ValueConverter valueConverter = ValueConverter.getValueConverter(long.class, this.converters);
+		
+		ValueConverter otherConverter = ValueConverter.getValueConverter(long.class, otherConverters);
+		assertNotSame(valueConverter, otherConverter);
+		assertSame(otherConverters, otherConverter.getConverters());
+		assertSame(otherConverter, ValueConverter.getValueConverter(long.class, otherConverters));
+		
+		// switching back binds a converter to the original instance again
+		assertSame(this.converters, ValueConverter.getValueConverter(long.class, this.converters).getConverters());
+	}
+	
+	@Test
+	public void testSubclassedConvertersAreAlwaysCalled() throws ConversionException {
+		CountingConverters countingConverters = new CountingConverters();
+		
+		assertEquals("John Smith", ValueConverter.getValueConverter(String.class, countingConverters).convert("John Smith"));
+		assertEquals(42, ValueConverter.getValueConverter(int.class, countingConverters).convertInt("42"));
+		assertTrue(ValueConverter.getValueConverter(boolean.class, countingConverters).convertBoolean("true"));
+		assertEquals(3, countingConverters.conversions);
+	}
+	
+	@Test
+	public void testPropertyAccessorBindsConverter() throws ConversionException {
+		PropertyAccessor propertyAccessor = BeanInfoWrapper.getBeanInfoWrapper(Item.class).getPropertyAccessor("quantity");
+		ValueConverter valueConverter = propertyAccessor.getValueConverter(this.converters);
+		
+		assertEquals(int.class, valueConverter.getType());
+		assertSame(valueConverter, propertyAccessor.getValueConverter(this.converters));
+		
+		Converters otherConverters = new Converters();
+		assertSame(otherConverters, propertyAccessor.getValueConverter(otherConverters).getConverters());
+		assertSame(this.converters, propertyAccessor.getValueConverter(this.converters).getConverters());
+		
+		Item item = new Item();
+		propertyAccessor.bindValue(item, "7", this.converters);
+		assertEquals(7, item.getQuantity());
+	}
+	
+	@Test
+	public void testPlainNumbers() {
+		assertTrue(ValueConverter.isPlainNumber("0", false));
+		assertTrue(ValueConverter.isPlainNumber("-42", false));
+		assertTrue(ValueConverter.isPlainNumber("-4.25", true));
+		
+		assertFalse(ValueConverter.isPlainNumber(null, false));
+		assertFalse(ValueConverter.isPlainNumber("", false));
+		assertFalse(ValueConverter.isPlainNumber("-", false));
+		assertFalse(ValueConverter.isPlainNumber("+1", false));
+		assertFalse(ValueConverter.isPlainNumber(" 1", false));
+		assertFalse(ValueConverter.isPlainNumber("1 ", false));
+		assertFalse(ValueConverter.isPlainNumber("1.5", false));
+		assertFalse(ValueConverter.isPlainNumber("\u0661", false));
+		assertFalse(ValueConverter.isPlainNumber("1.", true));
+		assertFalse(ValueConverter.isPlainNumber(".5", true));
+		assertFalse(ValueConverter.isPlainNumber("1e3", true));
+		assertFalse(ValueConverter.isPlainNumber("1d", true));
+		assertFalse(ValueConverter.isPlainNumber("0x1p3", true));
+		assertFalse(ValueConverter.isPlainNumber("NaN", true));
+		assertFalse(ValueConverter.isPlainNumber("Infinity", true));
+	}
+	
+	@Test
+	public void testOnlyPlainValuesAreParsedDirectly() throws ConversionException {
+		StripedMetrics metrics = new StripedMetrics();
+		Metrics.setMetrics(metrics);
+		try {
+			ValueConverter.getValueConverter(int.class, this.converters).convertInt("-42");
+			ValueConverter.getValueConverter(long.class, this.converters).convertLong("42");
+			ValueConverter.getValueConverter(double.class, this.converters).convertDouble("4.25");
+			ValueConverter.getValueConverter(boolean.class, this.converters).convertBoolean("true");
+			assertTrue(metrics.getConversions().isEmpty());
+			
+			assertEquals(1000.0, ValueConverter.getValueConverter(double.class, this.converters).convertDouble("1e3"), 0);
+			assertEquals(1, metrics.getConversions().get(double.class).getCount());
+			
+			assertEquals(42, ValueConverter.getValueConverter(int.class, this.converters).convertInt("+42"));
+			assertEquals(1, metrics.getConversions().get(int.class).getCount());
+			
+			assertTrue(ValueConverter.getValueConverter(boolean.class, this.converters).convertBoolean("TRUE"));
+			assertEquals(1, metrics.getConversions().get(boolean.class).getCount());
+		} finally {
+			Metrics.setMetrics(null);
+		}
+	}
+	
+	@Test(expected = ConversionException.class)
+	public void testOutOfRangeIsReportedByConverters() throws ConversionException {
+		ValueConverter.getValueConverter(int.class, this.converters).convertInt("2147483648");
+	}
+	
+	private static final class CountingConverters extends Converters {
+		
+		private int conversions;
+		
+		@Override
+		public Object convert(final Class<?> type, final String value) throws ConversionException {
+			this.conversions++;
+			return super.convert(type, value);
+		}
+		
+	}
+	
+	public static class Item {
+		
+		private int quantity;
+		
+		public int getQuantity() {
+			return this.quantity;
+		}
+		
+		public void setQuantity(int quantity) {
+			this.quantity = quantity;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,322 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.BeanInfoWrapper;
+import com.arcanix.introspection.BeanUtils;
+import com.arcanix.introspection.PropertyPathCache;
+import com.arcanix.introspection.PropertyResolver;
+import com.arcanix.introspection.RowBinder;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class StripedMetricsTest {
+
+	private StripedMetrics metrics;
+	
+	@Before
+	public void setUp() {
+		this.metrics = new StripedMetrics(2);
+		Metrics.setMetrics(this.metrics);
+	}
+	
+	@After
+	public void tearDown() {
+		Metrics.setMetrics(null);
+	}
+	
+	@Test
+	public void testDisabledByDefault() {
+		Metrics.setMetrics(null);
+		assertFalse(Metrics.isEnabled());
+		assertNotNull(Metrics.getMetrics());
+	}
+	
+	@Test
+	public void testDisabledMetricsAreNotReported() throws Exception {
+		StripedMetrics disabledMetrics = new StripedMetrics() {
+			@Override
+			public boolean isEnabled() {
+				return false;
+			}
+		};
+		Metrics.setMetrics(disabledMetrics);
+		
+		new BeanUtils(Converters.getDefaultConverters(), new PropertyPathCache()).setNestedProperty(new Measure(), "label", "kg");
+		
+		assertFalse(Metrics.isEnabled());
+		assertTrue(disabledMetrics.getPropertyWrites().isEmpty());
+		assertEquals(0L, disabledMetrics.getExpressionParses().getCount());
+	}
+	
+	@Test
+	public void testStripedCounterFromManyThreads() throws InterruptedException {
+		final StripedCounter counter = new StripedCounter();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						counter.increment();
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		
+		assertEquals(80000L, counter.sum());
+		counter.reset();
+		assertEquals(0L, counter.sum());
+	}
+	
+	@Test
+	public void testCellsAreAddedOnContention() throws InterruptedException {
+		final StripedCounter counter = new StripedCounter();
+		counter.increment();
+		assertEquals(1, counter.getCellCount());
+		
+		final CyclicBarrier barrier = new CyclicBarrier(4);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						barrier.await();
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+					for (int j = 0; j < 100000; j++) {
+						counter.increment();
+					}
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		
+		assertEquals(400001L, counter.sum());
+		assertTrue(counter.getCellCount() <= StripedCells.getMaximumRows());
+	}
+	
+	@Test
+	public void testUncontendedHistogramHasOneRow() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 1000; i++) {
+			histogram.record(i);
+		}
+		
+		assertEquals(1, histogram.getRowCount());
+		assertEquals(1000L, histogram.getCount());
+	}
+	
+	@Test
+	public void testLatencyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0L, histogram.getPercentileUpperBound(50));
+		
+		histogram.record(0);
+		histogram.record(100);
+		histogram.record(1000);
+		histogram.record(1000000);
+		
+		assertEquals(4L, histogram.getCount());
+		assertEquals(1001100L, histogram.getTotalNanos());
+		assertEquals(1L, histogram.getCounts()[0]);
+		assertEquals(1L, histogram.getCounts()[7]);
+		assertEquals(128L, histogram.getPercentileUpperBound(50));
+		assertEquals(1L << 20, histogram.getPercentileUpperBound(100));
+	}
+	
+	@Test
+	public void testBindingIsReported() throws Exception {
+		BeanUtils beanUtils = new BeanUtils(Converters.getDefaultConverters(), new PropertyPathCache());
+		Measure measure = new Measure();
+		
+		beanUtils.setNestedProperty(measure, "weight", "2.5");
+		beanUtils.setNestedProperty(measure, "weight", "3.5");
+		beanUtils.setNestedProperty(measure, "label", "kg");
+		assertEquals("kg", beanUtils.getNestedProperty(measure, "label"));
+		
+		assertEquals(3.5f, measure.getWeight(), 0f);
+		assertEquals(2L, this.metrics.getExpressionParses().getCount());
+		assertEquals(2L, this.metrics.getCacheMisses(CacheType.PROPERTY_PATH));
+		assertEquals(2L, this.metrics.getCacheHits(CacheType.PROPERTY_PATH));
+		assertEquals(1L, this.metrics.getCacheMisses(CacheType.PROPERTY_READER));
+		assertEquals(4L, this.metrics.getAccessorInvocations());
+		assertEquals(2L, this.metrics.getConversions().get(float.class).getCount());
+		assertEquals(2L, this.metrics.getPropertyWrites().get("weight").getCount());
+		assertEquals(1L, this.metrics.getPropertyWrites().get("label").getCount());
+		assertEquals(1L, this.metrics.getPropertyReads().get("label").getCount());
+	}
+	
+	@Test
+	public void testPathsAreKeyedByShape() throws Exception {
+		BeanUtils beanUtils = new BeanUtils(Converters.getDefaultConverters(), new PropertyPathCache());
+		Measure measure = new Measure();
+		
+		for (int i = 0; i < 300; i++) {
+			beanUtils.setNestedProperty(measure, "samples[" + i + "]", Integer.toString(i));
+		}
+		beanUtils.setNestedProperty(measure, "units(kg)", "kilogram");
+		beanUtils.setNestedProperty(measure, "units(lb)", "pound");
+		
+		assertEquals(2, this.metrics.getPropertyWrites().size());
+		assertEquals(300L, this.metrics.getPropertyWrites().get("samples[*]").getCount());
+		assertEquals(2L, this.metrics.getPropertyWrites().get("units(*)").getCount());
+		assertNull(this.metrics.getPropertyWrites().get(StripedMetrics.OTHER_PATHS));
+	}
+	
+	@Test
+	public void testTypedReadsAndBatchesAreReported() throws Exception {
+		BeanUtils beanUtils = new BeanUtils(Converters.getDefaultConverters(), new PropertyPathCache());
+		Measure measure = new Measure();
+		Map<String, String> values = new HashMap<>();
+		values.put("weight", "2.5");
+		values.put("count", "3");
+		
+		beanUtils.setNestedProperties(measure, values);
+		assertEquals(3, beanUtils.getNestedInt(measure, "count"));
+		assertEquals(3L, beanUtils.getNestedLong(measure, "count"));
+		assertEquals(3.0, beanUtils.getNestedDouble(measure, "count"), 0.0);
+		beanUtils.bindAll(Measure.class, Arrays.asList(values, values));
+		new RowBinder<>(Measure.class, new String[] { "count" }).bindRow(new String[] { "4" });
+		
+		assertEquals(3L, this.metrics.getPropertyReads().get("count").getCount());
+		assertEquals(4L, this.metrics.getBeanBinds().get(Measure.class).getCount());
+	}
+	
+	@Test
+	public void testMetadataBuildIsReported() {
+		BeanInfoWrapper.getBeanInfoWrapper(Sample.class);
+		BeanInfoWrapper.getBeanInfoWrapper(Sample.class);
+		
+		assertEquals(1L, this.metrics.getMetadataBuilds().getCount());
+		assertEquals(1L, this.metrics.getCacheMisses(CacheType.BEAN_INFO));
+	}
+	
+	@Test
+	public void testConversionFailureIsReported() throws Exception {
+		try {
+			new BeanUtils().setNestedProperty(new Measure(), "weight", "heavy");
+			fail("Conversion should have failed");
+		} catch (ConversionException e) {
+			// expected
+		}
+		assertEquals(1L, this.metrics.getConversionFailures());
+	}
+	
+	@Test
+	public void testPathsPastTheLimitAreAggregated() {
+		PropertyResolver resolver = new PropertyResolver();
+		this.metrics.propertyWritten(Measure.class, resolver.compile("first"), 10);
+		this.metrics.propertyWritten(Measure.class, resolver.compile("second"), 10);
+		this.metrics.propertyWritten(Measure.class, resolver.compile("third"), 10);
+		this.metrics.propertyWritten(Measure.class, resolver.compile("fourth"), 10);
+		
+		assertEquals(3, this.metrics.getPropertyWrites().size());
+		assertEquals(2L, this.metrics.getPropertyWrites().get(StripedMetrics.OTHER_PATHS).getCount());
+	}
+	
+	public static class Sample {
+		
+		private String name;
+		
+		public String getName() {
+			return this.name;
+		}
+		
+		public void setName(String name) {
+			this.name = name;
+		}
+		
+	}
+	
+	public static class Measure {
+		
+		private float weight;
+		private String label;
+		private int count;
+		private List<Integer> samples;
+		private Map<String, String> units;
+		
+		public float getWeight() {
+			return this.weight;
+		}
+		
+		public void setWeight(float weight) {
+			this.weight = weight;
+		}
+		
+		public String getLabel() {
+			return this.label;
+		}
+		
+		public void setLabel(String label) {
+			this.label = label;
+		}
+		
+		public int getCount() {
+			return this.count;
+		}
+		
+		public void setCount(int count) {
+			this.count = count;
+		}
+		
+		public List<Integer> getSamples() {
+			return this.samples;
+		}
+		
+		public void setSamples(List<Integer> samples) {
+			this.samples = samples;
+		}
+		
+		public Map<String, String> getUnits() {
+			return this.units;
+		}
+		
+		public void setUnits(Map<String, String> units) {
+			this.units = units;
+		}
+		
+	}
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.util;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class CsvReaderTest {
+
+	@Test
+	public void testSimpleRows() throws IOException {
+		CsvReader reader = new CsvReader(new StringReader("id,name\r\n1,John\n2,\n"));
+		
+		assertArrayEquals(new String[] { "id", "name" }, reader.readRow());
+		assertArrayEquals(new String[] { "1", "John" }, reader.readRow());
+		assertArrayEquals(new String[] { "2", "" }, reader.readRow());
+		assertNull(reader.readRow());
+	}
+	
+	@Test
+	public void testQuotedFields() throws IOException {
+		CsvReader reader = new CsvReader(new StringReader("\"Smith, John\",\"say \"\"hi\"\"\",\"two\nlines\"\n3,4"));
+		
+		assertArrayEquals(new String[] { "Smith, John", "say \"hi\"", "two\nlines" }, reader.readRow());
+		assertEquals(1, reader.getRowLineNumber());
+		assertArrayEquals(new String[] { "3", "4" }, reader.readRow());
+		assertEquals(3, reader.getRowLineNumber());
+		assertNull(reader.readRow());
+	}
+	
+	@Test
+	public void testBlankLinesAndSeparator() throws IOException {
+		CsvReader reader = new CsvReader(new StringReader("\n\na;b\r\n\r\nc;d"), ';');
+		
+		assertArrayEquals(new String[] { "a", "b" }, reader.readRow());
+		assertEquals(3, reader.getRowLineNumber());
+		assertArrayEquals(new String[] { "c", "d" }, reader.readRow());
+		assertEquals(5, reader.getRowLineNumber());
+		assertNull(reader.readRow());
+	}
+	
+	@Test
+	public void testRowsLongerThanBuffer() throws IOException {
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			input.append(i).append(',').append("value").append(i).append('\n');
+		}
+		CsvReader reader = new CsvReader(new StringReader(input.toString()));
+		for (int i = 0; i < 10000; i++) {
+			assertArrayEquals(new String[] { String.valueOf(i), "value" + i }, reader.readRow());
+		}
+		assertNull(reader.readRow());
+	}
+	
+	@Test(expected = IOException.class)
+	public void testUnterminatedQuote() throws IOException {
+		new CsvReader(new StringReader("\"abc,def\n")).readRow();
+	}
+	
+}
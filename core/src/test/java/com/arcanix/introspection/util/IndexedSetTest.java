@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.util;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class IndexedSetTest {
+
+	@Test
+	public void testGetReturnsStoredInstance() {
+		String stored = new String("element");
+		IndexedSet<String> set = new IndexedSet<>();
+		set.add(stored);
+		
+		assertSame(stored, set.get(new String("element")));
+		assertNull(set.get("missing"));
+	}
+	
+	@Test
+	public void testAddKeepsFirstInstance() {
+		String first = new String("element");
+		IndexedSet<String> set = new IndexedSet<>();
+		
+		assertTrue(set.add(first));
+		assertFalse(set.add(new String("element")));
+		assertSame(first, set.get("element"));
+		assertEquals(1, set.size());
+	}
+	
+	@Test
+	public void testRemove() {
+		IndexedSet<String> set = new IndexedSet<>(Arrays.asList("first", "second"));
+		
+		assertTrue(set.remove("first"));
+		assertFalse(set.remove("first"));
+		assertFalse(set.contains("first"));
+		assertTrue(set.contains("second"));
+		assertNull(set.get("first"));
+	}
+	
+	@Test
+	public void testIteratorRemoveKeepsIndex() {
+		IndexedSet<String> set = new IndexedSet<>(Arrays.asList("first", "second"));
+		
+		Iterator<String> iterator = set.iterator();
+		String removed = iterator.next();
+		iterator.remove();
+		
+		assertNull(set.get(removed));
+		assertEquals(1, set.size());
+	}
+	
+}
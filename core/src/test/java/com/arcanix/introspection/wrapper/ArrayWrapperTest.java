@@ -0,0 +1,234 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.BeanUtils;
+import com.arcanix.introspection.PropertyException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class ArrayWrapperTest {
+
+	@Test
+	public void testWrapperType() {
+		assertTrue(PropertyWrapperFactory.getPropertyWrapper(double[].class) instanceof ArrayWrapper);
+		assertTrue(PropertyWrapperFactory.getPropertyWrapper(Point[].class).isContainer());
+	}
+	
+	@Test
+	public void testPrimitiveWrites() throws Exception {
+		Sample sample = new Sample();
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(sample, "buffer[2]", "1.5");
+		beanUtils.setNestedProperty(sample, "counts[0]", "7");
+		beanUtils.setNestedProperty(sample, "flags[1]", "true");
+		
+		assertArrayEquals(new double[] { 0, 0, 1.5 }, sample.getBuffer(), 0);
+		assertArrayEquals(new int[] { 7 }, sample.getCounts());
+		assertFalse(sample.getFlags()[0]);
+		assertTrue(sample.getFlags()[1]);
+		
+		assertEquals(1.5, beanUtils.getNestedDouble(sample, "buffer[2]"), 0);
+		assertEquals(7, beanUtils.getNestedInt(sample, "counts[0]"));
+		assertNull(beanUtils.getNestedProperty(sample, "buffer[5]"));
+	}
+	
+	@Test
+	public void testExistingArrayIsWrittenInPlace() throws Exception {
+		Sample sample = new Sample();
+		double[] buffer = new double[4];
+		sample.setBuffer(buffer);
+		
+		new BeanUtils().setNestedProperty(sample, "buffer[3]", "2.5");
+		assertSame(buffer, sample.getBuffer());
+		assertEquals(2.5, buffer[3], 0);
+		assertEquals(1, sample.getBufferWrites());
+	}
+	
+	@Test
+	public void testBatchGrowsOnce() throws Exception {
+		Sample sample = new Sample();
+		sample.setBuffer(new double[] { 9 });
+		Map<String, String> properties = new LinkedHashMap<>();
+		for (int i = 1; i < 100; i++) {
+			properties.put("buffer[" + i + "]", String.valueOf(i));
+		}
+		new BeanUtils().setNestedProperties(sample, properties);
+		
+		assertEquals(100, sample.getBuffer().length);
+		assertEquals(9, sample.getBuffer()[0], 0);
+		assertEquals(99, sample.getBuffer()[99], 0);
+		assertEquals(2, sample.getBufferWrites());
+	}
+	
+	@Test
+	public void testBatchKeepsExactLength() throws Exception {
+		Sample sample = new Sample();
+		sample.setBuffer(new double[80]);
+		Map<String, String> properties = new LinkedHashMap<>();
+		for (int i = 80; i < 100; i++) {
+			properties.put("buffer[" + i + "]", String.valueOf(i));
+		}
+		new BeanUtils().setNestedProperties(sample, properties);
+		
+		assertEquals(100, sample.getBuffer().length);
+		assertEquals(2, sample.getBufferWrites());
+	}
+	
+	@Test
+	public void testSequentialWritesGrowGeometrically() throws Exception {
+		Sample sample = new Sample();
+		BeanUtils beanUtils = new BeanUtils();
+		for (int i = 0; i < 1000; i++) {
+			beanUtils.setNestedProperty(sample, "buffer[" + i + "]", String.valueOf(i));
+		}
+		
+		// every reallocation writes the longer copy back to the bean: 1, 2, 3, 4, 6, 9, ..., 1066
+		assertEquals(18, sample.getBufferWrites());
+		assertEquals(1066, sample.getBuffer().length);
+		assertEquals(999, sample.getBuffer()[999], 0);
+		assertEquals(0, sample.getBuffer()[1065], 0);
+	}
+	
+	@Test
+	public void testObjectArrays() throws Exception {
+		Sample sample = new Sample();
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(sample, "labels[1]", "second");
+		beanUtils.setNestedProperty(sample, "points[1].x", "3");
+		beanUtils.setNestedProperty(sample, "points[0].x", "1");
+		beanUtils.setNestedProperty(sample, "matrix[1][2]", "4.5");
+		
+		assertArrayEquals(new String[] { null, "second" }, sample.getLabels());
+		assertEquals(1, sample.getPoints()[0].getX());
+		assertEquals(3, sample.getPoints()[1].getX());
+		assertNull(sample.getMatrix()[0]);
+		assertArrayEquals(new double[] { 0, 0, 4.5 }, sample.getMatrix()[1], 0);
+		assertEquals(3, beanUtils.getNestedInt(sample, "points[1].x"));
+	}
+	
+	@Test
+	public void testWholeArrayIsConvertedByItsOwner() throws Exception {
+		Converters converters = new Converters() {
+			@Override
+			public Object convert(final Class<?> type, final String value) throws ConversionException {
+				if (type == String[].class) {
+					return value.split(",");
+				}
+				return super.convert(type, value);
+			}
+		};
+		Sample sample = new Sample();
+		new BeanUtils(converters).setNestedProperty(sample, "labels", "a,b");
+		
+		assertArrayEquals(new String[] { "a", "b" }, sample.getLabels());
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testIndexRequired() throws Exception {
+		new BeanUtils().setNestedProperty(new Sample(), "labels(first)", "value");
+	}
+	
+	public static class Point {
+		
+		private int x;
+		
+		public int getX() {
+			return this.x;
+		}
+		
+		public void setX(int x) {
+			this.x = x;
+		}
+		
+	}
+	
+	public static class Sample {
+		
+		private double[] buffer;
+		private int bufferWrites;
+		private int[] counts;
+		private boolean[] flags;
+		private String[] labels;
+		private Point[] points;
+		private double[][] matrix;
+		
+		public double[] getBuffer() {
+			return this.buffer;
+		}
+		
+		public void setBuffer(double[] buffer) {
+			this.buffer = buffer;
+			this.bufferWrites++;
+		}
+		
+		public int getBufferWrites() {
+			return this.bufferWrites;
+		}
+		
+		public int[] getCounts() {
+			return this.counts;
+		}
+		
+		public void setCounts(int[] counts) {
+			this.counts = counts;
+		}
+		
+		public boolean[] getFlags() {
+			return this.flags;
+		}
+		
+		public void setFlags(boolean[] flags) {
+			this.flags = flags;
+		}
+		
+		public String[] getLabels() {
+			return this.labels;
+		}
+		
+		public void setLabels(String[] labels) {
+			this.labels = labels;
+		}
+		
+		public Point[] getPoints() {
+			return this.points;
+		}
+		
+		public void setPoints(Point[] points) {
+			this.points = points;
+		}
+		
+		public double[][] getMatrix() {
+			return this.matrix;
+		}
+		
+		public void setMatrix(double[][] matrix) {
+			this.matrix = matrix;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.arcanix.introspection.BeanUtils;
+import com.arcanix.introspection.PropertyResolver;
+import com.arcanix.introspection.util.IndexedSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class CollectionFactoriesTest {
+
+	@After
+	public void tearDown() {
+		CollectionFactories.unregister(Map.class);
+		CollectionFactories.unregister(Catalog.class, "attributes");
+	}
+	
+	@Test
+	public void testDefaultContainers() throws Exception {
+		Catalog catalog = new Catalog();
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(catalog, "levels(HIGH)", "urgent");
+		beanUtils.setNestedProperty(catalog, "flags(LOW)", "LOW");
+		beanUtils.setNestedProperty(catalog, "attributes(color)", "red");
+		beanUtils.setNestedProperty(catalog, "names(b)", "second");
+		beanUtils.setNestedProperty(catalog, "names(a)", "first");
+		beanUtils.setNestedProperty(catalog, "ordered(b)", "second");
+		beanUtils.setNestedProperty(catalog, "ordered(a)", "first");
+		beanUtils.setNestedProperty(catalog, "queue[0]", "head");
+		
+		assertTrue(catalog.getLevels() instanceof EnumMap);
+		assertEquals("urgent", catalog.getLevels().get(Level.HIGH));
+		assertEquals(EnumSet.of(Level.LOW), catalog.getFlags());
+		assertTrue(catalog.getAttributes() instanceof HashMap);
+		assertTrue(catalog.getNames() instanceof TreeMap);
+		assertEquals("a", catalog.getNames().firstKey());
+		assertEquals("b", catalog.getOrdered().keySet().iterator().next());
+		assertEquals("head", catalog.getQueue().getFirst());
+	}
+	
+	@Test
+	public void testDefaultSetIsIndexed() {
+		assertTrue(CollectionFactories.SET_FACTORY.newInstance(getType("tags"), 4) instanceof IndexedSet);
+	}
+	
+	@Test
+	public void testTypeFactory() throws Exception {
+		CollectionFactories.register(Map.class, new CollectionFactory() {
+			@Override
+			public Object newInstance(final Type type, final int expectedSize) {
+				return new LinkedHashMap<>();
+			}
+		});
+		
+		Catalog catalog = new Catalog();
+		new BeanUtils().setNestedProperty(catalog, "attributes(color)", "red");
+		assertTrue(catalog.getAttributes() instanceof LinkedHashMap);
+	}
+	
+	@Test
+	public void testPropertyFactoryReceivesExpectedSize() throws Exception {
+		final int[] expectedSizes = new int[1];
+		CollectionFactories.register(Catalog.class, "attributes", new CollectionFactory() {
+			@Override
+			public Object newInstance(final Type type, final int expectedSize) {
+				expectedSizes[0] = expectedSize;
+				return new TreeMap<>();
+			}
+		});
+		
+		Map<String, String> properties = new HashMap<>();
+		properties.put("attributes(color)", "red");
+		properties.put("attributes(size)", "large");
+		properties.put("attributes(shape)", "round");
+		properties.put("levels(LOW)", "later");
+		Catalog catalog = new Catalog();
+		new BeanUtils().setNestedProperties(catalog, properties);
+		
+		assertTrue(catalog.getAttributes() instanceof TreeMap);
+		assertEquals(3, catalog.getAttributes().size());
+		assertEquals(3, expectedSizes[0]);
+		assertEquals("later", catalog.getLevels().get(Level.LOW));
+	}
+	
+	@Test
+	public void testCapacity() {
+		assertEquals(0, CollectionFactories.getCapacity(0));
+		assertEquals(17, CollectionFactories.getCapacity(12));
+	}
+	
+	private static Type getType(final String propertyName) {
+		return PropertyWrapperFactory.getPropertyWrapper(Catalog.class).getPropertyType(
+				new PropertyResolver().resolve(propertyName, null));
+	}
+	
+	@Test
+	public void testRegistrationsFollowTheirClassLoader() throws Exception {
+		URL testClasses = Catalog.class.getProtectionDomain().getCodeSource().getLocation();
+		URLClassLoader classLoader = new URLClassLoader(new URL[] { testClasses }, null);
+		Class<?> catalogClass = classLoader.loadClass(Catalog.class.getName());
+		CollectionFactory collectionFactory = new CollectionFactory() {
+			@Override
+			public Object newInstance(final Type type, final int expectedSize) {
+				return new TreeMap<>();
+			}
+		};
+		CollectionFactories.register(catalogClass, "attributes", collectionFactory);
+		CollectionFactories.register(catalogClass, collectionFactory);
+		assertSame(collectionFactory, CollectionFactories.getCollectionFactory(catalogClass, "attributes"));
+		assertSame(collectionFactory, CollectionFactories.getCollectionFactory(catalogClass));
+		
+		ReferenceQueue<ClassLoader> queue = new ReferenceQueue<>();
+		WeakReference<ClassLoader> classLoaderReference = new WeakReference<ClassLoader>(classLoader, queue);
+		classLoader.close();
+		classLoader = null;
+		catalogClass = null;
+		for (int i = 0; i < 50 && classLoaderReference.get() != null; i++) {
+			System.gc();
+			queue.remove(100);
+		}
+		assertNull("registered factories retain their class loader", classLoaderReference.get());
+	}
+	
+	public enum Level {
+		LOW, HIGH
+	}
+	
+	public static class Catalog {
+		
+		private Map<Level, String> levels;
+		private Set<Level> flags;
+		private Set<String> tags;
+		private Map<String, String> attributes;
+		private SortedMap<String, String> names;
+		private LinkedHashMap<String, String> ordered;
+		private LinkedList<String> queue;
+		
+		public Map<Level, String> getLevels() {
+			return this.levels;
+		}
+		
+		public void setLevels(Map<Level, String> levels) {
+			this.levels = levels;
+		}
+		
+		public Set<Level> getFlags() {
+			return this.flags;
+		}
+		
+		public void setFlags(Set<Level> flags) {
+			this.flags = flags;
+		}
+		
+		public Set<String> getTags() {
+			return this.tags;
+		}
+		
+		public void setTags(Set<String> tags) {
+			this.tags = tags;
+		}
+		
+		public Map<String, String> getAttributes() {
+			return this.attributes;
+		}
+		
+		public void setAttributes(Map<String, String> attributes) {
+			this.attributes = attributes;
+		}
+		
+		public SortedMap<String, String> getNames() {
+			return this.names;
+		}
+		
+		public void setNames(SortedMap<String, String> names) {
+			this.names = names;
+		}
+		
+		public LinkedHashMap<String, String> getOrdered() {
+			return this.ordered;
+		}
+		
+		public void setOrdered(LinkedHashMap<String, String> ordered) {
+			this.ordered = ordered;
+		}
+		
+		public LinkedList<String> getQueue() {
+			return this.queue;
+		}
+		
+		public void setQueue(LinkedList<String> queue) {
+			this.queue = queue;
+		}
+		
+	}
+	
+}
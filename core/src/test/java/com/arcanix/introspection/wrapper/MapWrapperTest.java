@@ -0,0 +1,108 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.Property.PropertyBuilder;
+import com.arcanix.introspection.util.TypeReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class MapWrapperTest {
+
+	private final Converters converters = Converters.getDefaultConverters();
+	
+	@Test
+	public void testKeyIsConvertedOncePerDistinctKey() throws ConversionException {
+		MapWrapper mapWrapper = new MapWrapper(new TypeReference<Map<UUID, String>>() {}.getType());
+		String key = "123e4567-e89b-12d3-a456-426614174000";
+		Map<Object, Object> first = new HashMap<>();
+		Map<Object, Object> second = new HashMap<>();
+		
+		mapWrapper.setLocalProperty(first, mapped(key, "a"), this.converters);
+		mapWrapper.setLocalProperty(second, mapped(key, "b"), this.converters);
+		
+		Object convertedKey = first.keySet().iterator().next();
+		assertEquals(UUID.fromString(key), convertedKey);
+		assertSame(convertedKey, second.keySet().iterator().next());
+		assertEquals("a", mapWrapper.getValue(first, mapped(key, null), this.converters));
+		assertEquals("b", mapWrapper.getValue(second, mapped(key, null), this.converters));
+		assertEquals(1, mapWrapper.getConvertedKeys().size());
+	}
+	
+	@Test
+	public void testStringKeyIsNotConverted() throws ConversionException {
+		MapWrapper mapWrapper = new MapWrapper(new TypeReference<Map<String, String>>() {}.getType());
+		String key = new String("first");
+		Map<Object, Object> map = new HashMap<>();
+		
+		mapWrapper.setLocalProperty(map, mapped(key, "a"), this.converters);
+		assertSame(key, map.keySet().iterator().next());
+		assertEquals(0, mapWrapper.getConvertedKeys().size());
+	}
+	
+	@Test
+	public void testKeyIsConvertedAgainForOtherConverters() throws ConversionException {
+		MapWrapper mapWrapper = new MapWrapper(new TypeReference<Map<Long, String>>() {}.getType());
+		Map<Object, Object> first = new HashMap<>();
+		Map<Object, Object> second = new HashMap<>();
+		
+		mapWrapper.setLocalProperty(first, mapped("1000", "a"), this.converters);
+		mapWrapper.setLocalProperty(second, mapped("1000", "b"), new Converters());
+		assertEquals(Long.valueOf(1000), second.keySet().iterator().next());
+		assertNotSame(first.keySet().iterator().next(), second.keySet().iterator().next());
+	}
+	
+	@Test
+	public void testConvertedKeysAreBounded() throws ConversionException {
+		MapWrapper mapWrapper = new MapWrapper(new TypeReference<Map<Long, String>>() {}.getType());
+		Map<Object, Object> map = new HashMap<>();
+		
+		for (int i = 0; i < ConvertedKeys.MAX_SIZE + 10; i++) {
+			mapWrapper.setLocalProperty(map, mapped(String.valueOf(i), "a"), this.converters);
+		}
+		assertEquals(ConvertedKeys.MAX_SIZE + 10, map.size());
+		assertEquals(ConvertedKeys.MAX_SIZE, mapWrapper.getConvertedKeys().size());
+	}
+	
+	@Test
+	public void testUnshareableKeysAreNotKept() throws ConversionException {
+		MapWrapper mapWrapper = new MapWrapper(new TypeReference<Map<Object, String>>() {}.getType());
+		Map<Object, Object> map = new HashMap<>();
+		
+		mapWrapper.setLocalProperty(map, mapped("first", "a"), this.converters);
+		assertEquals("a", map.get("first"));
+		assertEquals(0, mapWrapper.getConvertedKeys().size());
+		assertFalse(ConvertedKey.isShareable(Object.class));
+		assertTrue(ConvertedKey.isShareable(Long.class));
+	}
+	
+	private static Property mapped(final String key, final String value) {
+		return new PropertyBuilder().setName("scores").setKey(key).setValue(value).build();
+	}
+
+}
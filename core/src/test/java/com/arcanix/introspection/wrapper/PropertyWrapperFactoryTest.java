@@ -0,0 +1,169 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.wrapper;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.PropertyResolver;
+import com.arcanix.introspection.ValueConverter;
+import com.arcanix.introspection.util.ReflectionUtils;
+import com.arcanix.introspection.util.TypeReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class PropertyWrapperFactoryTest {
+
+	@Test
+	public void testWrapperTypes() {
+		assertTrue(getPropertyWrapper(new TypeReference<List<String>>() {}) instanceof ListWrapper);
+		assertTrue(getPropertyWrapper(new TypeReference<Set<String>>() {}) instanceof SetWrapper);
+		assertTrue(getPropertyWrapper(new TypeReference<Map<String, Integer>>() {}) instanceof MapWrapper);
+		assertTrue(PropertyWrapperFactory.getPropertyWrapper(PropertyWrapperFactoryTest.class) instanceof BeanWrapper);
+	}
+	
+	@Test
+	public void testWrappersAreShared() {
+		assertSame(
+				PropertyWrapperFactory.getPropertyWrapper(PropertyWrapperFactoryTest.class),
+				PropertyWrapperFactory.getPropertyWrapper(PropertyWrapperFactoryTest.class));
+		assertSame(
+				getPropertyWrapper(new TypeReference<Map<String, List<Integer>>>() {}),
+				getPropertyWrapper(new TypeReference<Map<String, List<Integer>>>() {}));
+	}
+	
+	@Test
+	public void testNestedWrappersAreLinked() {
+		Property property = new PropertyResolver().resolve("value", null);
+		
+		PropertyWrapper mapWrapper = getPropertyWrapper(new TypeReference<Map<String, List<Set<Integer>>>>() {});
+		PropertyWrapper listWrapper = mapWrapper.getPropertyWrapper(property);
+		PropertyWrapper setWrapper = listWrapper.getPropertyWrapper(property);
+		
+		assertSame(getPropertyWrapper(new TypeReference<List<Set<Integer>>>() {}), listWrapper);
+		assertSame(getPropertyWrapper(new TypeReference<Set<Integer>>() {}), setWrapper);
+		assertSame(listWrapper, mapWrapper.getPropertyWrapper(property));
+		assertTrue(mapWrapper.isContainer());
+		assertTrue(setWrapper.isContainer());
+		assertFalse(setWrapper.getPropertyWrapper(property).isContainer());
+	}
+	
+	@Test
+	public void testContainerElementConvertersAreBound() {
+		Converters converters = Converters.getDefaultConverters();
+		ContainerWrapper listWrapper = (ContainerWrapper) getPropertyWrapper(new TypeReference<List<Integer>>() {});
+		ContainerWrapper mapWrapper = (ContainerWrapper) getPropertyWrapper(new TypeReference<Map<String, Long>>() {});
+		
+		ValueConverter elementConverter = listWrapper.getElementConverter(converters);
+		assertEquals(Integer.class, elementConverter.getType());
+		assertSame(elementConverter, listWrapper.getElementConverter(converters));
+		assertEquals(Long.class, mapWrapper.getElementConverter(converters).getType());
+		
+		Converters otherConverters = new Converters();
+		assertSame(otherConverters, listWrapper.getElementConverter(otherConverters).getConverters());
+		assertSame(converters, listWrapper.getElementConverter(converters).getConverters());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testRawCollection() {
+		PropertyWrapperFactory.getPropertyWrapper(List.class);
+	}
+	
+	@Test
+	public void testParameterizedTypesFollowTheirClassLoader() throws Exception {
+		URLClassLoader classLoader = newIsolatedClassLoader();
+		Class<?> elementClass = classLoader.loadClass(Element.class.getName());
+		assertNotSame(Element.class, elementClass);
+		
+		Type listType = new ListType(elementClass);
+		assertSame(elementClass, ReflectionUtils.getAnchorClass(listType));
+		assertSame(PropertyWrapperFactory.getPropertyWrapper(listType), PropertyWrapperFactory.getPropertyWrapper(new ListType(elementClass)));
+		
+		ReferenceQueue<ClassLoader> queue = new ReferenceQueue<>();
+		WeakReference<ClassLoader> classLoaderReference = new WeakReference<ClassLoader>(classLoader, queue);
+		classLoader.close();
+		classLoader = null;
+		elementClass = null;
+		listType = null;
+		for (int i = 0; i < 50 && classLoaderReference.get() != null; i++) {
+			System.gc();
+			queue.remove(100);
+		}
+		assertNull("wrapper of List<Element> retains its class loader", classLoaderReference.get());
+	}
+	
+	private static URLClassLoader newIsolatedClassLoader() {
+		URL testClasses = Element.class.getProtectionDomain().getCodeSource().getLocation();
+		return new URLClassLoader(new URL[] { testClasses }, null);
+	}
+	
+	private static PropertyWrapper getPropertyWrapper(final TypeReference<?> typeReference) {
+		return PropertyWrapperFactory.getPropertyWrapper(typeReference.getType());
+	}
+	
+	public static class Element {
+	}
+	
+	private static final class ListType implements ParameterizedType {
+		
+		private final Type elementType;
+		
+		public ListType(final Type elementType) {
+			this.elementType = elementType;
+		}
+		
+		@Override
+		public Type[] getActualTypeArguments() {
+			return new Type[] { this.elementType };
+		}
+		
+		@Override
+		public Type getRawType() {
+			return List.class;
+		}
+		
+		@Override
+		public Type getOwnerType() {
+			return null;
+		}
+		
+		@Override
+		public boolean equals(final Object obj) {
+			return obj instanceof ListType && ((ListType) obj).elementType.equals(this.elementType);
+		}
+		
+		@Override
+		public int hashCode() {
+			return this.elementType.hashCode();
+		}
+		
+	}
+	
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+@Name("com.arcanix.introspection.ConversionFailure")
+@Label("Conversion Failure")
+@Description("Value that could not be converted to the type of a property")
+@Category({ "Arcanix", "Introspection" })
+class ConversionFailureEvent extends Event {
+
+	@Label("Target Type")
+	Class<?> targetType;
+	
+	@Label("Value")
+	String value;
+	
+	@Label("Message")
+	String message;
+	
+}
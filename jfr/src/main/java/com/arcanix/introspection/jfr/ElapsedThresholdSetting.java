@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.jfr;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import jdk.jfr.SettingControl;
+
+/**
+ * Event setting filtering out the operations faster than a duration such as {@code 20 ms}.
+ * Events are reported once the operation is done, so the built-in {@code threshold} setting,
+ * which applies to the event duration, cannot be used. When several recordings are running,
+ * the lowest threshold wins.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class ElapsedThresholdSetting extends SettingControl {
+
+	private static final String DEFAULT_VALUE = "0 ns";
+	
+	private String value = DEFAULT_VALUE;
+	private volatile long thresholdNanos;
+	
+	@Override
+	public String combine(final Set<String> values) {
+		String minimum = null;
+		long minimumNanos = Long.MAX_VALUE;
+		for (String candidate : values) {
+			long nanos = parse(candidate);
+			if (nanos < minimumNanos) {
+				minimum = candidate;
+				minimumNanos = nanos;
+			}
+		}
+		return minimum != null ? minimum : DEFAULT_VALUE;
+	}
+	
+	@Override
+	public void setValue(final String value) {
+		this.thresholdNanos = parse(value);
+		this.value = value;
+	}
+	
+	@Override
+	public String getValue() {
+		return this.value;
+	}
+	
+	public boolean isExceeded(final long elapsedNanos) {
+		return elapsedNanos >= this.thresholdNanos;
+	}
+	
+	static long parse(final String value) {
+		String trimmed = value.trim().toLowerCase(Locale.ROOT);
+		int split = 0;
+		while (split < trimmed.length() && Character.isDigit(trimmed.charAt(split))) {
+			split++;
+		}
+		if (split == 0) {
+			// unparseable thresholds filter nothing rather than everything
+			return 0L;
+		}
+		long amount = Long.parseLong(trimmed.substring(0, split));
+		return getUnit(trimmed.substring(split).trim()).toNanos(amount);
+	}
+	
+	private static TimeUnit getUnit(final String unit) {
+		switch (unit) {
+			case "":
+			case "ns":
+				return TimeUnit.NANOSECONDS;
+			case "us":
+				return TimeUnit.MICROSECONDS;
+			case "ms":
+				return TimeUnit.MILLISECONDS;
+			case "s":
+				return TimeUnit.SECONDS;
+			case "m":
+				return TimeUnit.MINUTES;
+			case "h":
+				return TimeUnit.HOURS;
+			case "d":
+				return TimeUnit.DAYS;
+			default:
+				return TimeUnit.NANOSECONDS;
+		}
+	}
+	
+}
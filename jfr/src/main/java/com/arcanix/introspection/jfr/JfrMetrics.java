@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.jfr;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.introspection.Property;
+import com.arcanix.introspection.PropertyPath;
+import com.arcanix.introspection.metrics.CacheType;
+import com.arcanix.introspection.metrics.IntrospectionMetrics;
+import com.arcanix.introspection.wrapper.PropertyWrapper;
+import com.arcanix.introspection.wrapper.PropertyWrapperFactory;
+
+/**
+ * {@link IntrospectionMetrics} emitting Java Flight Recorder events, registered as a service so
+ * that it is installed by having this module on the class path. Events are committed once the
+ * operation is done, their {@code elapsedThreshold} setting filters out the fast ones. The
+ * details of an event are only computed when it is about to be committed.
+ * <p>
+ * The metrics are only enabled while a recording is running, operations are not timed otherwise.
+ * Running recordings are tracked with a {@link FlightRecorderListener}.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class JfrMetrics implements IntrospectionMetrics {
+
+	private static final String WRAPPER_SEPARATOR = " > ";
+	
+	private volatile boolean recording;
+	
+	public JfrMetrics() {
+		FlightRecorder.addListener(new FlightRecorderListener() {
+			
+			@Override
+			public void recordingStateChanged(final Recording recording) {
+				JfrMetrics.this.recording = isRecording();
+			}
+			
+		});
+		this.recording = isRecording();
+	}
+	
+	@Override
+	public boolean isEnabled() {
+		return this.recording;
+	}
+	
+	@Override
+	public void expressionParsed(final String expression, final long nanos) {
+		ExpressionParseEvent event = new ExpressionParseEvent();
+		if (event.isEnabled()) {
+			event.elapsed = nanos;
+			if (event.shouldCommit()) {
+				event.expression = expression;
+				event.commit();
+			}
+		}
+	}
+	
+	@Override
+	public void metadataBuilt(final Class<?> beanClass, final long nanos) {
+		MetadataBuildEvent event = new MetadataBuildEvent();
+		if (event.isEnabled()) {
+			event.elapsed = nanos;
+			if (event.shouldCommit()) {
+				event.beanClass = beanClass;
+				event.commit();
+			}
+		}
+	}
+	
+	@Override
+	public void cacheHit(final CacheType cacheType) {
+	}
+	
+	@Override
+	public void cacheMiss(final CacheType cacheType) {
+	}
+	
+	@Override
+	public void wrapperCreated(final Class<?> wrapperClass) {
+	}
+	
+	@Override
+	public void accessorInvoked() {
+	}
+	
+	@Override
+	public void valueConverted(final Class<?> targetType, final long nanos) {
+	}
+	
+	@Override
+	public void conversionFailed(final Class<?> targetType, final String value, final ConversionException e) {
+		ConversionFailureEvent event = new ConversionFailureEvent();
+		if (event.shouldCommit()) {
+			event.targetType = targetType;
+			event.value = value;
+			event.message = e.getMessage();
+			event.commit();
+		}
+	}
+	
+	@Override
+	public void propertyWritten(final Class<?> beanClass, final PropertyPath path, final long nanos) {
+		PropertyWriteEvent event = new PropertyWriteEvent();
+		if (event.isEnabled()) {
+			event.elapsed = nanos;
+			if (event.shouldCommit()) {
+				event.beanClass = beanClass;
+				event.expression = path.getExpression();
+				describePath(event, beanClass, path);
+				event.commit();
+			}
+		}
+	}
+	
+	@Override
+	public void propertyRead(final Class<?> beanClass, final PropertyPath path, final long nanos) {
+	}
+	
+	@Override
+	public void beanBound(final Class<?> beanClass, final long nanos) {
+	}
+	
+	private static boolean isRecording() {
+		if (!FlightRecorder.isInitialized()) {
+			return false;
+		}
+		for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+			if (recording.getState() == RecordingState.RUNNING) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Walks the wrappers of the compiled path the same way the write does, they were
+	 * created by the write so nothing is built here.
+	 */
+	private static void describePath(final PropertyWriteEvent event, final Class<?> beanClass, final PropertyPath path) {
+		StringBuilder wrappers = new StringBuilder();
+		int depth = 0;
+		try {
+			PropertyWrapper propertyWrapper = PropertyWrapperFactory.getPropertyWrapper(beanClass);
+			Property property = path.getProperty();
+			wrappers.append(propertyWrapper.getClass().getSimpleName());
+			for (; property != null; property = property.getNextProperty()) {
+				depth++;
+				PropertyWrapper nextWrapper = propertyWrapper.getPropertyWrapper(property);
+				if (property.getNextProperty() != null || nextWrapper.isContainer()) {
+					wrappers.append(WRAPPER_SEPARATOR).append(nextWrapper.getClass().getSimpleName());
+				}
+				propertyWrapper = nextWrapper;
+			}
+		} catch (RuntimeException e) {
+			// failed writes are recorded with the wrappers resolved so far
+		}
+		event.depth = depth;
+		event.wrappers = wrappers.toString();
+	}
+	
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.Timespan;
+
+/**
+ * Disabled by default as every write is a candidate, recordings enabling it are expected to
+ * set an elapsed threshold.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+@Name("com.arcanix.introspection.PropertyWrite")
+@Label("Property Write")
+@Description("Write of a nested property expression by BeanUtils.setNestedProperty")
+@Category({ "Arcanix", "Introspection" })
+@Enabled(false)
+class PropertyWriteEvent extends Event {
+
+	@Label("Bean Class")
+	Class<?> beanClass;
+	
+	@Label("Expression")
+	String expression;
+	
+	@Label("Depth")
+	@Description("Number of properties in the expression")
+	int depth;
+	
+	@Label("Wrappers")
+	@Description("Wrappers traversed, from the bean to the written value")
+	String wrappers;
+	
+	@Label("Elapsed")
+	@Timespan(Timespan.NANOSECONDS)
+	long elapsed;
+	
+	@Name("elapsedThreshold")
+	@Label("Elapsed Threshold")
+	@SettingDefinition
+	protected boolean elapsedThreshold(final ElapsedThresholdSetting setting) {
+		return setting.isExceeded(this.elapsed);
+	}
+	
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.jfr;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+import com.arcanix.convert.ConversionException;
+import com.arcanix.convert.Converters;
+import com.arcanix.introspection.BeanUtils;
+import com.arcanix.introspection.PropertyPathCache;
+import com.arcanix.introspection.metrics.Metrics;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class JfrMetricsTest {
+
+	private static final String PROPERTY_WRITE = "com.arcanix.introspection.PropertyWrite";
+	private static final String EXPRESSION_PARSE = "com.arcanix.introspection.ExpressionParse";
+	private static final String CONVERSION_FAILURE = "com.arcanix.introspection.ConversionFailure";
+	
+	@Test
+	public void testDisabledWithoutRecording() {
+		assertFalse(new JfrMetrics().isEnabled());
+		assertFalse(Metrics.isEnabled());
+	}
+	
+	@Test
+	public void testEventsAreRecorded() throws Exception {
+		BeanUtils beanUtils = new BeanUtils(Converters.getDefaultConverters(), new PropertyPathCache());
+		Order order = new Order();
+		
+		List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable(PROPERTY_WRITE).with("elapsedThreshold", "0 ns");
+			recording.enable(EXPRESSION_PARSE).with("elapsedThreshold", "0 ns");
+			recording.enable(CONVERSION_FAILURE);
+			recording.start();
+			assertTrue(Metrics.isEnabled());
+			
+			beanUtils.setNestedProperty(order, "customer.name", "Alice");
+			try {
+				beanUtils.setNestedProperty(order, "quantity", "many");
+				fail("Expected a conversion failure");
+			} catch (ConversionException e) {
+				// recorded
+			}
+			
+			recording.stop();
+			events = readEvents(recording);
+		}
+		assertFalse(Metrics.isEnabled());
+		assertEquals("Alice", order.getCustomer().getName());
+		
+		RecordedEvent write = getEvent(events, PROPERTY_WRITE, "customer.name");
+		assertEquals(Order.class.getName(), write.getClass("beanClass").getName());
+		assertEquals(2, write.getInt("depth"));
+		assertEquals("BeanWrapper > BeanWrapper", write.getString("wrappers"));
+		assertNotNull(getEvent(events, EXPRESSION_PARSE, "customer.name"));
+		
+		RecordedEvent failure = getEvent(events, CONVERSION_FAILURE, null);
+		assertEquals("many", failure.getString("value"));
+		assertEquals(int.class.getName(), failure.getClass("targetType").getName());
+	}
+	
+	private static List<RecordedEvent> readEvents(final Recording recording) throws Exception {
+		Path file = Files.createTempFile("introspection", ".jfr");
+		try {
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file);
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+	private static RecordedEvent getEvent(final List<RecordedEvent> events, final String name, final String expression) {
+		List<RecordedEvent> matches = new ArrayList<>();
+		for (RecordedEvent event : events) {
+			if (event.getEventType().getName().equals(name)
+					&& (expression == null || expression.equals(event.getString("expression")))) {
+				matches.add(event);
+			}
+		}
+		assertEquals("Events " + name + " " + expression, 1, matches.size());
+		return matches.get(0);
+	}
+	
+	public static class Order {
+		
+		private int quantity;
+		private Customer customer;
+		
+		public int getQuantity() {
+			return this.quantity;
+		}
+		
+		public void setQuantity(int quantity) {
+			this.quantity = quantity;
+		}
+		
+		public Customer getCustomer() {
+			return this.customer;
+		}
+		
+		public void setCustomer(Customer customer) {
+			this.customer = customer;
+		}
+		
+	}
+	
+	public static class Customer {
+		
+		private String name;
+		
+		public String getName() {
+			return this.name;
+		}
+		
+		public void setName(String name) {
+			this.name = name;
+		}
+		
+	}
+
+}
@@ -0,0 +1,439 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates a {@code BeanAccessor} for every class annotated with {@code @Bindable}.
+ * The generated class sits in the package of the bean, is named after its binary
+ * name followed by {@code $$BeanAccessor} and dispatches on property names with
+ * plain switch statements. Properties of type {@code int}, {@code long}, {@code double}
+ * and {@code boolean} also get typed accessors, so they are never boxed.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public final class BindableProcessor extends AbstractProcessor {
+
+	private static final String BINDABLE = "com.arcanix.introspection.Bindable";
+	private static final String BEAN_ACCESSOR = "com.arcanix.introspection.BeanAccessor";
+	private static final String PROPERTY_EXCEPTION = "com.arcanix.introspection.PropertyException";
+	private static final String TYPE_REFERENCE = "com.arcanix.introspection.util.TypeReference";
+	private static final String SUFFIX = "$$BeanAccessor";
+	
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(BINDABLE);
+	}
+	
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+	
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnvironment) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() != ElementKind.CLASS) {
+					error(element, "@Bindable can only be applied to classes");
+				} else if (element.getModifiers().contains(Modifier.PRIVATE)) {
+					error(element, "@Bindable classes cannot be private");
+				} else {
+					generate((TypeElement) element);
+				}
+			}
+		}
+		return true;
+	}
+	
+	private void generate(final TypeElement beanElement) {
+		PackageElement packageElement = this.processingEnv.getElementUtils().getPackageOf(beanElement);
+		String packageName = packageElement.getQualifiedName().toString();
+		String binaryName = this.processingEnv.getElementUtils().getBinaryName(beanElement).toString();
+		String accessorName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+		String beanType = this.processingEnv.getTypeUtils().erasure(beanElement.asType()).toString();
+		
+		Map<String, BeanProperty> properties = getProperties(beanElement);
+		
+		try {
+			Writer writer = this.processingEnv.getFiler().createSourceFile(
+					(packageName.isEmpty() ? "" : packageName + ".") + accessorName, beanElement).openWriter();
+			try (PrintWriter out = new PrintWriter(writer)) {
+				if (!packageName.isEmpty()) {
+					out.println("package " + packageName + ";");
+					out.println();
+				}
+				if (!beanElement.getTypeParameters().isEmpty()) {
+					// the accessor works on the raw type of generic beans, whose type variables it cannot reference
+					out.println("@SuppressWarnings({\"rawtypes\", \"unchecked\"})");
+				}
+				out.println("public final class " + accessorName + " implements " + BEAN_ACCESSOR + "<" + beanType + "> {");
+				out.println();
+				writeTypes(out, properties);
+				writeBeanClass(out, beanType);
+				writeNewInstance(out, beanElement, beanType);
+				writePropertyMetadata(out, properties);
+				writeGetValue(out, beanType, properties);
+				writeSetValue(out, beanType, properties);
+				writeTypedAccessors(out, beanType, properties, TypeKind.INT);
+				writeTypedAccessors(out, beanType, properties, TypeKind.LONG);
+				writeTypedAccessors(out, beanType, properties, TypeKind.DOUBLE);
+				writeTypedAccessors(out, beanType, properties, TypeKind.BOOLEAN);
+				out.println("}");
+			}
+		} catch (IOException e) {
+			error(beanElement, "Unable to generate bean accessor: " + e.getMessage());
+		}
+	}
+	
+	private Map<String, BeanProperty> getProperties(final TypeElement beanElement) {
+		Map<String, BeanProperty> properties = new LinkedHashMap<>();
+		
+		Iterable<ExecutableElement> methods = ElementFilter.methodsIn(
+				this.processingEnv.getElementUtils().getAllMembers(beanElement));
+		DeclaredType beanType = (DeclaredType) beanElement.asType();
+		
+		// getters first so setters can be matched against the property type
+		for (ExecutableElement method : methods) {
+			if (!isAccessible(method) || !method.getParameters().isEmpty()) {
+				continue;
+			}
+			String methodName = method.getSimpleName().toString();
+			TypeMirror returnType = getMethodType(beanType, method).getReturnType();
+			String propertyName = null;
+			if (methodName.startsWith("get") && methodName.length() > 3 && returnType.getKind() != TypeKind.VOID) {
+				propertyName = decapitalize(methodName.substring(3));
+			} else if (methodName.startsWith("is") && methodName.length() > 2 && returnType.getKind() == TypeKind.BOOLEAN) {
+				propertyName = decapitalize(methodName.substring(2));
+			}
+			if (propertyName != null && !properties.containsKey(propertyName)) {
+				BeanProperty property = new BeanProperty(propertyName, getSourceType(returnType));
+				property.getter = methodName;
+				properties.put(propertyName, property);
+			}
+		}
+		
+		for (ExecutableElement method : methods) {
+			String methodName = method.getSimpleName().toString();
+			if (!isAccessible(method)
+					|| method.getParameters().size() != 1
+					|| method.getReturnType().getKind() != TypeKind.VOID
+					|| !methodName.startsWith("set")
+					|| methodName.length() <= 3) {
+				continue;
+			}
+			String propertyName = decapitalize(methodName.substring(3));
+			TypeMirror parameterType = getMethodType(beanType, method).getParameterTypes().get(0);
+			BeanProperty property = properties.get(propertyName);
+			if (property == null) {
+				property = new BeanProperty(propertyName, getSourceType(parameterType));
+				properties.put(propertyName, property);
+			} else if (!this.processingEnv.getTypeUtils().isSameType(property.type, getSourceType(parameterType))) {
+				continue;
+			}
+			if (property.setter == null) {
+				property.setter = methodName;
+			}
+		}
+		return properties;
+	}
+	
+	private ExecutableType getMethodType(final DeclaredType beanType, final ExecutableElement method) {
+		// resolves type variables bound by the bean class, i.e.: Bean extends Base<String>
+		return (ExecutableType) this.processingEnv.getTypeUtils().asMemberOf(beanType, method);
+	}
+	
+	private boolean isAccessible(final ExecutableElement method) {
+		Set<Modifier> modifiers = method.getModifiers();
+		TypeElement declaringElement = (TypeElement) method.getEnclosingElement();
+		return modifiers.contains(Modifier.PUBLIC)
+				&& !modifiers.contains(Modifier.STATIC)
+				&& !declaringElement.getQualifiedName().contentEquals("java.lang.Object");
+	}
+	
+	private TypeMirror getSourceType(final TypeMirror type) {
+		// type variables of the bean itself cannot be referenced from static code
+		if (containsTypeVariable(type)) {
+			return this.processingEnv.getTypeUtils().erasure(type);
+		}
+		return type;
+	}
+	
+	private static boolean containsTypeVariable(final TypeMirror type) {
+		switch (type.getKind()) {
+			case TYPEVAR:
+				return true;
+			case ARRAY:
+				return containsTypeVariable(((ArrayType) type).getComponentType());
+			case WILDCARD:
+				WildcardType wildcardType = (WildcardType) type;
+				return (wildcardType.getExtendsBound() != null && containsTypeVariable(wildcardType.getExtendsBound()))
+						|| (wildcardType.getSuperBound() != null && containsTypeVariable(wildcardType.getSuperBound()));
+			case DECLARED:
+				for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+					if (containsTypeVariable(typeArgument)) {
+						return true;
+					}
+				}
+				return false;
+			default:
+				return false;
+		}
+	}
+	
+	private void writeTypes(final PrintWriter out, final Map<String, BeanProperty> properties) {
+		for (BeanProperty property : properties.values()) {
+			out.print("\tprivate static final java.lang.reflect.Type " + property.getConstantName() + " = ");
+			if (property.type.getKind() == TypeKind.DECLARED && property.type.toString().indexOf('<') >= 0) {
+				out.println("new " + TYPE_REFERENCE + "<" + property.type + ">() {}.getType();");
+			} else {
+				out.println(this.processingEnv.getTypeUtils().erasure(property.type) + ".class;");
+			}
+		}
+		out.println();
+		out.println("\tprivate static final java.util.Set<java.lang.String> PROPERTY_NAMES = java.util.Collections.unmodifiableSet(");
+		out.print("\t\t\tnew java.util.LinkedHashSet<java.lang.String>(java.util.Arrays.asList(");
+		boolean first = true;
+		for (String propertyName : properties.keySet()) {
+			out.print((first ? "" : ", ") + "\"" + propertyName + "\"");
+			first = false;
+		}
+		out.println(")));");
+		out.println();
+	}
+	
+	private void writeBeanClass(final PrintWriter out, final String beanType) {
+		out.println("\t@Override");
+		out.println("\tpublic java.lang.Class<" + beanType + "> getBeanClass() {");
+		out.println("\t\treturn " + beanType + ".class;");
+		out.println("\t}");
+		out.println();
+	}
+	
+	private void writeNewInstance(final PrintWriter out, final TypeElement beanElement, final String beanType) {
+		boolean instantiable = !beanElement.getModifiers().contains(Modifier.ABSTRACT)
+				&& (beanElement.getNestingKind().isNested() ? beanElement.getModifiers().contains(Modifier.STATIC) : true);
+		boolean hasDefaultConstructor = false;
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(beanElement.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+				hasDefaultConstructor = true;
+			}
+		}
+		
+		out.println("\t@Override");
+		out.println("\tpublic " + beanType + " newInstance() {");
+		if (instantiable && hasDefaultConstructor) {
+			out.println("\t\treturn new " + beanType + "();");
+		} else {
+			out.println("\t\tthrow new " + PROPERTY_EXCEPTION + "(\"" + beanType + " cannot be instantiated\");");
+		}
+		out.println("\t}");
+		out.println();
+	}
+	
+	private void writePropertyMetadata(final PrintWriter out, final Map<String, BeanProperty> properties) {
+		out.println("\t@Override");
+		out.println("\tpublic java.util.Set<java.lang.String> getPropertyNames() {");
+		out.println("\t\treturn PROPERTY_NAMES;");
+		out.println("\t}");
+		out.println();
+		
+		out.println("\t@Override");
+		out.println("\tpublic java.lang.reflect.Type getPropertyType(final java.lang.String propertyName) {");
+		out.println("\t\tswitch (propertyName) {");
+		for (BeanProperty property : properties.values()) {
+			out.println("\t\t\tcase \"" + property.name + "\": return " + property.getConstantName() + ";");
+		}
+		out.println("\t\t\tdefault: return null;");
+		out.println("\t\t}");
+		out.println("\t}");
+		out.println();
+		
+		out.println("\t@Override");
+		out.println("\tpublic boolean isReadable(final java.lang.String propertyName) {");
+		writeContains(out, properties, true);
+		out.println("\t}");
+		out.println();
+		
+		out.println("\t@Override");
+		out.println("\tpublic boolean isWritable(final java.lang.String propertyName) {");
+		writeContains(out, properties, false);
+		out.println("\t}");
+		out.println();
+	}
+	
+	private void writeContains(final PrintWriter out, final Map<String, BeanProperty> properties, final boolean readable) {
+		out.println("\t\tswitch (propertyName) {");
+		boolean empty = true;
+		for (BeanProperty property : properties.values()) {
+			if ((readable ? property.getter : property.setter) != null) {
+				out.println("\t\t\tcase \"" + property.name + "\":");
+				empty = false;
+			}
+		}
+		if (!empty) {
+			out.println("\t\t\t\treturn true;");
+		}
+		out.println("\t\t\tdefault: return false;");
+		out.println("\t\t}");
+	}
+	
+	private void writeGetValue(final PrintWriter out, final String beanType, final Map<String, BeanProperty> properties) {
+		out.println("\t@Override");
+		out.println("\tpublic java.lang.Object getValue(final " + beanType + " bean, final java.lang.String propertyName) {");
+		out.println("\t\tswitch (propertyName) {");
+		for (BeanProperty property : properties.values()) {
+			if (property.getter != null) {
+				out.println("\t\t\tcase \"" + property.name + "\": return bean." + property.getter + "();");
+			}
+		}
+		out.println("\t\t\tdefault: throw new " + PROPERTY_EXCEPTION + "(\"Property \" + propertyName + \" is not readable\");");
+		out.println("\t\t}");
+		out.println("\t}");
+		out.println();
+	}
+	
+	private void writeSetValue(final PrintWriter out, final String beanType, final Map<String, BeanProperty> properties) {
+		out.println("\t@Override");
+		out.println("\t@SuppressWarnings(\"unchecked\")");
+		out.println("\tpublic void setValue(final " + beanType + " bean, final java.lang.String propertyName, final java.lang.Object value) {");
+		out.println("\t\tswitch (propertyName) {");
+		for (BeanProperty property : properties.values()) {
+			if (property.setter != null) {
+				out.println("\t\t\tcase \"" + property.name + "\": bean." + property.setter + "(" + getUnboxedValue(property.type) + "); return;");
+			}
+		}
+		out.println("\t\t\tdefault: throw new " + PROPERTY_EXCEPTION + "(\"Property \" + propertyName + \" is not writable\");");
+		out.println("\t\t}");
+		out.println("\t}");
+		out.println();
+	}
+	
+	private void writeTypedAccessors(
+			final PrintWriter out,
+			final String beanType,
+			final Map<String, BeanProperty> properties,
+			final TypeKind kind) {
+		
+		String type = this.processingEnv.getTypeUtils().getPrimitiveType(kind).toString();
+		String suffix = Character.toUpperCase(type.charAt(0)) + type.substring(1);
+		
+		out.println("\t@Override");
+		out.println("\tpublic " + type + " get" + suffix + "(final " + beanType + " bean, final java.lang.String propertyName) {");
+		out.println("\t\tswitch (propertyName) {");
+		for (BeanProperty property : properties.values()) {
+			if (property.getter != null && property.type.getKind() == kind) {
+				out.println("\t\t\tcase \"" + property.name + "\": return bean." + property.getter + "();");
+			}
+		}
+		out.println("\t\t\tdefault: throw new " + PROPERTY_EXCEPTION + "(\"Property \" + propertyName + \" is not a readable " + type + "\");");
+		out.println("\t\t}");
+		out.println("\t}");
+		out.println();
+		
+		out.println("\t@Override");
+		out.println("\tpublic void set" + suffix + "(final " + beanType + " bean, final java.lang.String propertyName, final " + type + " value) {");
+		out.println("\t\tswitch (propertyName) {");
+		for (BeanProperty property : properties.values()) {
+			if (property.setter != null && property.type.getKind() == kind) {
+				out.println("\t\t\tcase \"" + property.name + "\": bean." + property.setter + "(value); return;");
+			}
+		}
+		out.println("\t\t\tdefault: throw new " + PROPERTY_EXCEPTION + "(\"Property \" + propertyName + \" is not a writable " + type + "\");");
+		out.println("\t\t}");
+		out.println("\t}");
+		out.println();
+	}
+	
+	private String getUnboxedValue(final TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			TypeElement boxedElement = this.processingEnv.getTypeUtils().boxedClass((PrimitiveType) type);
+			return "((" + boxedElement.getQualifiedName() + ") value)." + type + "Value()";
+		}
+		if (type.toString().equals("java.lang.Object")) {
+			// a cast would be reported as redundant
+			return "value";
+		}
+		return "(" + type + ") value";
+	}
+	
+	private void error(final Element element, final String message) {
+		this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+	
+	/**
+	 * Same rules as {@code java.beans.Introspector#decapitalize(String)}.
+	 */
+	private static String decapitalize(final String name) {
+		if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+			return name;
+		}
+		return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+	}
+	
+	private static final class BeanProperty {
+		
+		private final String name;
+		private final TypeMirror type;
+		private String getter;
+		private String setter;
+		
+		public BeanProperty(final String name, final TypeMirror type) {
+			this.name = name;
+			this.type = type;
+		}
+		
+		public String getConstantName() {
+			StringBuilder constantName = new StringBuilder();
+			for (int i = 0; i < this.name.length(); i++) {
+				char c = this.name.charAt(i);
+				if (Character.isUpperCase(c) && i > 0) {
+					constantName.append('_');
+				}
+				constantName.append(Character.toUpperCase(c));
+			}
+			return constantName.append("_TYPE").toString();
+		}
+		
+	}
+	
+}
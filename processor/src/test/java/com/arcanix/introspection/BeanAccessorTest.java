@@ -0,0 +1,120 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.lang.reflect.ParameterizedType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import com.arcanix.convert.ConversionException;
+
+/**
+ * Runs against the accessor generated by the processor while compiling the tests.
+ * 
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class BeanAccessorTest {
+
+	@Test
+	public void testGeneratedAccessorIsPreferred() {
+		BeanInfoWrapper beanInfoWrapper = BeanInfoWrapper.getBeanInfoWrapper(BindableMockBean.class);
+		
+		assertTrue(beanInfoWrapper.hasBeanAccessor());
+		assertTrue(beanInfoWrapper.getPropertyAccessor("count") instanceof GeneratedPropertyAccessor);
+		assertEquals(int.class, beanInfoWrapper.getPropertyAccessor("count").getPropertyClass());
+		assertTrue(beanInfoWrapper.newInstance() instanceof BindableMockBean);
+	}
+	
+	@Test
+	public void testIntrospectionFallback() {
+		assertFalse(BeanInfoWrapper.getBeanInfoWrapper(PlainBean.class).hasBeanAccessor());
+	}
+	
+	@Test
+	public void testGeneratedMetadata() {
+		BindableMockBean$$BeanAccessor beanAccessor = new BindableMockBean$$BeanAccessor();
+		
+		assertEquals(BindableMockBean.class, beanAccessor.getBeanClass());
+		assertEquals(new TreeSet<>(Arrays.asList("active", "count", "names", "ratio")), new TreeSet<>(beanAccessor.getPropertyNames()));
+		assertEquals(boolean.class, beanAccessor.getPropertyType("active"));
+		assertEquals(String.class, ((ParameterizedType) beanAccessor.getPropertyType("names")).getActualTypeArguments()[0]);
+		assertTrue(beanAccessor.isReadable("names"));
+		assertTrue(beanAccessor.isWritable("names"));
+		assertFalse(beanAccessor.isReadable("unknown"));
+	}
+	
+	@Test
+	public void testTypedAccessors() {
+		BindableMockBean mock = new BindableMockBean();
+		BindableMockBean$$BeanAccessor beanAccessor = new BindableMockBean$$BeanAccessor();
+		
+		beanAccessor.setInt(mock, "count", 3);
+		beanAccessor.setDouble(mock, "ratio", 0.5);
+		beanAccessor.setBoolean(mock, "active", true);
+		
+		assertEquals(3, beanAccessor.getInt(mock, "count"));
+		assertEquals(0.5, beanAccessor.getDouble(mock, "ratio"), 0);
+		assertTrue(beanAccessor.getBoolean(mock, "active"));
+	}
+	
+	@Test(expected = PropertyException.class)
+	public void testTypedAccessorOfAnotherType() {
+		new BindableMockBean$$BeanAccessor().setLong(new BindableMockBean(), "count", 3L);
+	}
+	
+	@Test
+	public void testSetNestedPropertyThroughGeneratedAccessor() throws ConversionException {
+		BindableMockBean mock = new BindableMockBean();
+		
+		BeanUtils beanUtils = new BeanUtils();
+		beanUtils.setNestedProperty(mock, "count", "3");
+		beanUtils.setNestedProperty(mock, "ratio", "0.25");
+		beanUtils.setNestedProperty(mock, "active", "true");
+		beanUtils.setNestedProperty(mock, "names[0]", "John Smith");
+		
+		assertEquals(3, mock.getCount());
+		assertEquals(0.25, mock.getRatio(), 0);
+		assertTrue(mock.isActive());
+		assertEquals("John Smith", mock.getNames().get(0));
+		assertEquals(3, beanUtils.getNestedInt(mock, "count"));
+	}
+	
+	@Test
+	public void testPropertyDescriptorsAreStillAvailable() {
+		BeanInfoWrapper beanInfoWrapper = BeanInfoWrapper.getBeanInfoWrapper(BindableMockBean.class);
+		assertEquals("count", beanInfoWrapper.getPropertyDescriptor("count").getName());
+	}
+	
+	public static class PlainBean {
+		
+		private List<String> names;
+		
+		public List<String> getNames() {
+			return this.names;
+		}
+		
+		public void setNames(List<String> names) {
+			this.names = names;
+		}
+		
+	}
+	
+}
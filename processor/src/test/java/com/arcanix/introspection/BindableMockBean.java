@@ -0,0 +1,63 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection;
+
+import java.util.List;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+@Bindable
+public class BindableMockBean {
+
+	private int count;
+	private double ratio;
+	private boolean active;
+	private List<String> names;
+	
+	public int getCount() {
+		return this.count;
+	}
+	
+	public void setCount(int count) {
+		this.count = count;
+	}
+	
+	public double getRatio() {
+		return this.ratio;
+	}
+	
+	public void setRatio(double ratio) {
+		this.ratio = ratio;
+	}
+	
+	public boolean isActive() {
+		return this.active;
+	}
+	
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+	
+	public List<String> getNames() {
+		return this.names;
+	}
+	
+	public void setNames(List<String> names) {
+		this.names = names;
+	}
+	
+}
@@ -0,0 +1,223 @@
+/**
+ * Copyright (C) 2013 Jean-Philippe Ricard.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.arcanix.introspection.processor;
+
+import javax.tools.JavaFileObject;
+
+import org.junit.Test;
+
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static com.google.testing.compile.Compiler.javac;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+
+/**
+ * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
+ */
+public class BindableProcessorTest {
+
+	private static final JavaFileObject BEAN = JavaFileObjects.forSourceLines("test.Bean",
+			"package test;",
+			"",
+			"import java.util.List;",
+			"",
+			"@com.arcanix.introspection.Bindable",
+			"public class Bean {",
+			"	private int count;",
+			"	private long total;",
+			"	private double ratio;",
+			"	private boolean active;",
+			"	private String name;",
+			"	private List<String> tags;",
+			"	public int getCount() { return count; }",
+			"	public void setCount(int count) { this.count = count; }",
+			"	public long getTotal() { return total; }",
+			"	public void setTotal(long total) { this.total = total; }",
+			"	public double getRatio() { return ratio; }",
+			"	public void setRatio(double ratio) { this.ratio = ratio; }",
+			"	public boolean isActive() { return active; }",
+			"	public void setActive(boolean active) { this.active = active; }",
+			"	public String getName() { return name; }",
+			"	public void setName(String name) { this.name = name; }",
+			"	public List<String> getTags() { return tags; }",
+			"	public void setTags(List<String> tags) { this.tags = tags; }",
+			"	public String getDisplayName() { return name; }",
+			"}");
+	
+	private static final JavaFileObject GENERIC_BEAN = JavaFileObjects.forSourceLines("test.Generic",
+			"package test;",
+			"",
+			"import java.util.List;",
+			"",
+			"@com.arcanix.introspection.Bindable",
+			"public class Generic<T> {",
+			"	private T value;",
+			"	private List<T> values;",
+			"	private Object any;",
+			"	private int size;",
+			"	public T getValue() { return value; }",
+			"	public void setValue(T value) { this.value = value; }",
+			"	public List<T> getValues() { return values; }",
+			"	public void setValues(List<T> values) { this.values = values; }",
+			"	public Object getAny() { return any; }",
+			"	public void setAny(Object any) { this.any = any; }",
+			"	public int getSize() { return size; }",
+			"	public void setSize(int size) { this.size = size; }",
+			"}");
+	
+	private static final JavaFileObject BOUND_BEAN = JavaFileObjects.forSourceLines("test.Bound",
+			"package test;",
+			"",
+			"@com.arcanix.introspection.Bindable",
+			"public class Bound extends Generic<String> {",
+			"}");
+	
+	@Test
+	public void testGeneratedAccessor() {
+		Compilation compilation = compile(BEAN);
+		
+		assertThat(compilation).succeededWithoutWarnings();
+		assertThat(compilation).generatedSourceFile("test.Bean$$BeanAccessor").contentsAsUtf8String()
+				.contains("public final class Bean$$BeanAccessor implements com.arcanix.introspection.BeanAccessor<test.Bean>");
+		assertThat(compilation).generatedSourceFile("test.Bean$$BeanAccessor").contentsAsUtf8String()
+				.contains("new com.arcanix.introspection.util.TypeReference<java.util.List<java.lang.String>>() {}.getType()");
+		assertThat(compilation).generatedSourceFile("test.Bean$$BeanAccessor").contentsAsUtf8String()
+				.contains("return new test.Bean();");
+	}
+	
+	@Test
+	public void testTypedAccessors() {
+		Compilation compilation = compile(BEAN);
+		
+		assertThat(compilation).succeeded();
+		assertThat(compilation).generatedSourceFile("test.Bean$$BeanAccessor").contentsAsUtf8String()
+				.contains("public int getInt(final test.Bean bean, final java.lang.String propertyName)");
+		assertThat(compilation).generatedSourceFile("test.Bean$$BeanAccessor").contentsAsUtf8String()
+				.contains("case \"count\": bean.setCount(value); return;");
+		assertThat(compilation).generatedSourceFile("test.Bean$$BeanAccessor").contentsAsUtf8String()
+				.contains("case \"total\": bean.setTotal(value); return;");
+		assertThat(compilation).generatedSourceFile("test.Bean$$BeanAccessor").contentsAsUtf8String()
+				.contains("case \"ratio\": return bean.getRatio();");
+		assertThat(compilation).generatedSourceFile("test.Bean$$BeanAccessor").contentsAsUtf8String()
+				.contains("case \"active\": return bean.isActive();");
+	}
+	
+	@Test
+	public void testReadOnlyProperty() {
+		Compilation compilation = compile(BEAN);
+		
+		assertThat(compilation).succeeded();
+		assertThat(compilation).generatedSourceFile("test.Bean$$BeanAccessor").contentsAsUtf8String()
+				.contains("case \"displayName\": return bean.getDisplayName();");
+		assertThat(compilation).generatedSourceFile("test.Bean$$BeanAccessor").contentsAsUtf8String()
+				.doesNotContain("bean.setDisplayName(");
+	}
+	
+	@Test
+	public void testGenericBeanCompilesWithoutWarnings() {
+		Compilation compilation = compile(GENERIC_BEAN);
+		
+		assertThat(compilation).succeededWithoutWarnings();
+		assertThat(compilation).generatedSourceFile("test.Generic$$BeanAccessor").contentsAsUtf8String()
+				.contains("case \"value\": bean.setValue(value); return;");
+		assertThat(compilation).generatedSourceFile("test.Generic$$BeanAccessor").contentsAsUtf8String()
+				.contains("case \"values\": bean.setValues((java.util.List) value); return;");
+	}
+	
+	@Test
+	public void testBoundTypeVariables() {
+		Compilation compilation = compile(GENERIC_BEAN, BOUND_BEAN);
+		
+		assertThat(compilation).succeededWithoutWarnings();
+		assertThat(compilation).generatedSourceFile("test.Bound$$BeanAccessor").contentsAsUtf8String()
+				.contains("case \"value\": bean.setValue((java.lang.String) value); return;");
+		assertThat(compilation).generatedSourceFile("test.Bound$$BeanAccessor").contentsAsUtf8String()
+				.contains("new com.arcanix.introspection.util.TypeReference<java.util.List<java.lang.String>>() {}.getType()");
+	}
+	
+	@Test
+	public void testNestedBean() {
+		Compilation compilation = compile(JavaFileObjects.forSourceLines("test.Outer",
+				"package test;",
+				"",
+				"public class Outer {",
+				"	@com.arcanix.introspection.Bindable",
+				"	public static class Inner {",
+				"		private String name;",
+				"		public String getName() { return name; }",
+				"		public void setName(String name) { this.name = name; }",
+				"	}",
+				"}"));
+		
+		assertThat(compilation).succeededWithoutWarnings();
+		assertThat(compilation).generatedSourceFile("test.Outer$Inner$$BeanAccessor").contentsAsUtf8String()
+				.contains("return new test.Outer.Inner();");
+	}
+	
+	@Test
+	public void testBeanWithoutDefaultConstructor() {
+		Compilation compilation = compile(JavaFileObjects.forSourceLines("test.Value",
+				"package test;",
+				"",
+				"@com.arcanix.introspection.Bindable",
+				"public class Value {",
+				"	private final String name;",
+				"	public Value(String name) { this.name = name; }",
+				"	public String getName() { return name; }",
+				"}"));
+		
+		assertThat(compilation).succeededWithoutWarnings();
+		assertThat(compilation).generatedSourceFile("test.Value$$BeanAccessor").contentsAsUtf8String()
+				.contains("throw new com.arcanix.introspection.PropertyException(\"test.Value cannot be instantiated\");");
+	}
+	
+	@Test
+	public void testPrivateClassIsRejected() {
+		Compilation compilation = compile(JavaFileObjects.forSourceLines("test.Outer",
+				"package test;",
+				"",
+				"public class Outer {",
+				"	@com.arcanix.introspection.Bindable",
+				"	private static class Hidden {",
+				"	}",
+				"}"));
+		
+		assertThat(compilation).failed();
+		assertThat(compilation).hadErrorContaining("@Bindable classes cannot be private");
+	}
+	
+	@Test
+	public void testInterfaceIsRejected() {
+		Compilation compilation = compile(JavaFileObjects.forSourceLines("test.Shape",
+				"package test;",
+				"",
+				"@com.arcanix.introspection.Bindable",
+				"public interface Shape {",
+				"}"));
+		
+		assertThat(compilation).failed();
+		assertThat(compilation).hadErrorContaining("@Bindable can only be applied to classes");
+	}
+	
+	private static Compilation compile(final JavaFileObject... sources) {
+		return javac()
+				.withProcessors(new BindableProcessor())
+				.withOptions("-Xlint:all")
+				.compile(sources);
+	}
+
+}
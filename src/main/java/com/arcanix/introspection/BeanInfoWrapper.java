@@ -1,48 +0,0 @@
-/**
- * Copyright (C) 2013 Jean-Philippe Ricard.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.arcanix.introspection;
-
-import java.beans.BeanInfo;
-import java.beans.PropertyDescriptor;
-import java.util.HashMap;
-import java.util.Map;
-
-/**
- * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
- */
-public final class BeanInfoWrapper {
-	
-	private final Map<String, PropertyDescriptor> propertyDescriptors = new HashMap<>();
-	
-	public BeanInfoWrapper(final BeanInfo beanInfo) {
-		for (PropertyDescriptor propertyDescriptor : beanInfo.getPropertyDescriptors()) {
-			this.propertyDescriptors.put(propertyDescriptor.getName(), propertyDescriptor);
-		}
-	}
-	
-	public boolean hasPropertyDescriptor(final String propertyName) {
-		return this.propertyDescriptors.containsKey(propertyName);
-	}
-	
-	public PropertyDescriptor getPropertyDescriptor(final String propertyName) throws PropertyException {
-		PropertyDescriptor propertyDescriptor = this.propertyDescriptors.get(propertyName);
-		if (propertyDescriptor == null) {
-			throw new PropertyException("Property " + propertyName + " does not exist");
-		}
-		return propertyDescriptor;
-	}
-	
-}
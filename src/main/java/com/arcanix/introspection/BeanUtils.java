@@ -1,51 +0,0 @@
-/**
- * Copyright (C) 2013 Jean-Philippe Ricard.
- *
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- */
-package com.arcanix.introspection;
-
-import com.arcanix.convert.ConversionException;
-import com.arcanix.convert.Converters;
-import com.arcanix.introspection.wrapper.BeanWrapper;
-
-/**
- * @author ricardjp@arcanix.com (Jean-Philippe Ricard)
- */
-public final class BeanUtils {
-
-	private final PropertyResolver resolver = new PropertyResolver();
-	private final Converters converters;
-	
-	public BeanUtils() {
-		this(Converters.getDefaultConverters());
-	}
-	
-	public BeanUtils(final Converters converters) {
-		this.converters = converters;
-	}
-	
-	public void setNestedProperty(final Object bean, final Property property) throws ConversionException {
-		BeanWrapper beanWrapper = new BeanWrapper(bean, bean.getClass(), this.converters);
-		beanWrapper.setProperty(property);
-	}
-	
-	public void setNestedProperty(
-			final Object bean,
-			final String nestedProperty, 
-			final String value) throws ConversionException {
-		
-		setNestedProperty(bean, this.resolver.resolve(nestedProperty, value));
-	}
-	
-}